@@ -0,0 +1,115 @@
+package com.finsight.benchmark;
+
+import com.finsight.dto.DashboardSummary;
+import com.finsight.dto.ExpensePoint;
+import com.finsight.model.Subscription;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.SubscriptionRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import com.finsight.service.DashboardService;
+import com.finsight.service.LoggingRenewalNotificationSink;
+import com.finsight.service.RenewalReminderService;
+import com.finsight.service.SubscriptionDetectorService;
+import com.finsight.service.UserWriteLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java-side cost of the analytics services as a user's history grows: the aggregations in
+ * {@link DashboardService#getSummary} and the per-merchant fold and rule checks in
+ * {@link SubscriptionDetectorService#detectSubscriptions}.
+ *
+ * Rows come from {@link SyntheticTransactions} and are served from memory, so the numbers
+ * exclude the database. The detector is fed the expense points its query would return
+ * (already keyed and sorted), and its upsert returns the detected rows unchanged.
+ * Run with the gc profiler for allocation per op; the committed baseline was produced by
+ *
+ *   mvn -P benchmarks test-compile exec:exec \
+ *     -Djmh.args="AnalyticsBenchmark -prof gc -rf json -rff src/jmh/baseline/AnalyticsBenchmark.json"
+ *
+ * Compare a new run against it with any JMH JSON viewer or a plain diff of the scores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(1)
+public class AnalyticsBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int rows;
+
+    private DashboardService dashboardService;
+    private SubscriptionDetectorService subscriptionDetectorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // No Spring here, so logback would otherwise run at its DEBUG default
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        User user = User.builder().id(USER_ID).username("bench").email("bench@example.invalid").build();
+        List<Transaction> history = SyntheticTransactions.generate(user, rows, 365, LocalDateTime.now(), 42L);
+        List<ExpensePoint> expensePoints = SyntheticTransactions.expensePoints(history);
+
+        TransactionRepository transactionRepository = RepositoryStubs.stub(TransactionRepository.class, Map.of(
+            "findByUserOrderByTransactionDateDesc", args -> history,
+            "streamExpensePoints", args -> expensePoints.stream()));
+        UserRepository userRepository = RepositoryStubs.stub(UserRepository.class, Map.of(
+            "getReferenceById", args -> user));
+        SubscriptionRepository subscriptionRepository = RepositoryStubs.stub(SubscriptionRepository.class, Map.of(
+            "upsertAll", args -> args[0]));
+
+        // No database behind the stubs, so transactions only need to begin and end
+        PlatformTransactionManager transactionManager = RepositoryStubs.stub(PlatformTransactionManager.class, Map.of(
+            "getTransaction", args -> new SimpleTransactionStatus(),
+            "commit", args -> null,
+            "rollback", args -> null));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RenewalReminderService renewalReminderService = new RenewalReminderService(subscriptionRepository,
+            new LoggingRenewalNotificationSink(), meterRegistry, 3, 60_000, 64, 4);
+
+        dashboardService = new DashboardService(transactionRepository, userRepository, meterRegistry);
+        subscriptionDetectorService = new SubscriptionDetectorService(transactionRepository, userRepository,
+            subscriptionRepository, renewalReminderService, new UserWriteLocks(256),
+            new TransactionTemplate(transactionManager), meterRegistry, 10_000);
+    }
+
+    @Benchmark
+    public DashboardSummary dashboardSummary() {
+        return dashboardService.getSummary(USER_ID, null, null);
+    }
+
+    @Benchmark
+    public List<Subscription> detectSubscriptions() {
+        return subscriptionDetectorService.detectSubscriptions(USER_ID);
+    }
+}
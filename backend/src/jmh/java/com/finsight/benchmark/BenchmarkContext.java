@@ -0,0 +1,35 @@
+package com.finsight.benchmark;
+
+import com.finsight.FinSightApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server on its own in-memory H2 database, for
+ * benchmarks that need real repositories. Logging and schedules are turned down so
+ * they do not show up in the measurements. Settings are passed as command-line
+ * arguments so they take precedence over application.yml.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(FinSightApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.finsight=ERROR",
+                "--subscription-refresh.cron=-",
+                "--renewal-reminders.tick-millis=3600000");
+    }
+}
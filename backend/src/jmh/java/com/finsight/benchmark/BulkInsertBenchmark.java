@@ -0,0 +1,81 @@
+package com.finsight.benchmark;
+
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationResult;
+import com.finsight.service.DemoDataService;
+import com.finsight.service.LoadGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert-heavy paths against H2:
+ *
+ *   loadGenerator - one user with 5,000 transactions (about 100 alerts) through
+ *                   {@link LoadGeneratorService}, the bulk import path
+ *   demoSeed      - {@link DemoDataService#forceReseedUser}: bulk delete, then the
+ *                   INSERT ... SELECT copy of the demo template
+ *
+ *   mvn -P benchmarks test-compile exec:exec -Djmh.args="BulkInsertBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 10, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(1)
+public class BulkInsertBenchmark {
+
+    private static final int TRANSACTIONS = 5_000;
+
+    private ConfigurableApplicationContext context;
+    private LoadGeneratorService loadGeneratorService;
+    private DemoDataService demoDataService;
+    private Long demoUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        loadGeneratorService = context.getBean(LoadGeneratorService.class);
+        demoDataService = context.getBean(DemoDataService.class);
+        demoUserId = loadGeneratorService.generate(request(0)).getUserIds().get(0);
+        demoDataService.forceReseedUser(demoUserId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoadGenerationResult loadGenerator() {
+        return loadGeneratorService.generate(request(TRANSACTIONS));
+    }
+
+    @Benchmark
+    public int demoSeed() {
+        return demoDataService.forceReseedUser(demoUserId);
+    }
+
+    private static LoadGenerationRequest request(int transactions) {
+        return LoadGenerationRequest.builder()
+            .users(1)
+            .transactionsPerUser(transactions)
+            .usernamePrefix("bulk")
+            .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.finsight.benchmark;
+
+import com.finsight.dto.FraudDetectionResult;
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import com.finsight.service.FraudDetectionService;
+import com.finsight.service.LoadGeneratorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring one transaction with {@link FraudDetectionService#analyzeTransaction}
+ * as the user's history grows.
+ *
+ * The history is written by {@link LoadGeneratorService} into an in-memory H2 database.
+ * {@code backend=h2} scores against the real repository; {@code backend=memory} loads the
+ * same rows into {@link InMemoryTransactionRepository}, leaving only the rule logic and
+ * the Java-side history scans. Each benchmark reports ops/s (Throughput) and latency
+ * percentiles including p0.99 (SampleTime); add {@code -prof gc} for the allocation rate:
+ *
+ *   mvn -P benchmarks test-compile exec:exec -Djmh.args="FraudScoringBenchmark -prof gc"
+ *
+ * Narrow a run with e.g. {@code -p backend=memory -p history=1000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class FraudScoringBenchmark {
+
+    @Param({"memory", "h2"})
+    String backend;
+
+    @Param({"10", "1000", "100000"})
+    int history;
+
+    private ConfigurableApplicationContext context;
+    private FraudDetectionService fraudDetectionService;
+    private Transaction probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        Long userId = context.getBean(LoadGeneratorService.class).generate(LoadGenerationRequest.builder()
+                .users(1)
+                .transactionsPerUser(history)
+                .build())
+            .getUserIds().get(0);
+        User user = context.getBean(UserRepository.class).findById(userId).orElseThrow();
+        TransactionRepository repository = context.getBean(TransactionRepository.class);
+
+        if ("memory".equals(backend)) {
+            List<Transaction> rows = repository.findByUserOrderByTransactionDateDesc(user);
+            fraudDetectionService = new FraudDetectionService(InMemoryTransactionRepository.over(rows),
+                new SimpleMeterRegistry());
+        } else {
+            fraudDetectionService = context.getBean(FraudDetectionService.class);
+        }
+
+        // A typical purchase just after the newest row: every rule has to look at the history
+        probe = Transaction.builder()
+            .user(user)
+            .amount(new BigDecimal("84.20"))
+            .type("EXPENSE")
+            .category("groceries")
+            .description("Benchmark probe")
+            .location("Home Location 1")
+            .transactionDate(LocalDateTime.now().withNano(0))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public FraudDetectionResult singleThread() {
+        return fraudDetectionService.analyzeTransaction(probe);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public FraudDetectionResult fourThreads() {
+        return fraudDetectionService.analyzeTransaction(probe);
+    }
+}
@@ -0,0 +1,72 @@
+package com.finsight.benchmark;
+
+import com.finsight.model.Transaction;
+import com.finsight.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only {@link TransactionRepository} over one user's rows held in memory, implementing
+ * just the queries {@link com.finsight.service.FraudDetectionService} issues. Aggregates are
+ * precomputed and the date-window count is a binary search, so the measured cost is the
+ * scoring logic itself.
+ */
+final class InMemoryTransactionRepository {
+
+    private InMemoryTransactionRepository() {
+    }
+
+    static TransactionRepository over(List<Transaction> rows) {
+        List<Transaction> newestFirst = new ArrayList<>(rows);
+        newestFirst.sort(Comparator.comparing(Transaction::getTransactionDate).reversed());
+        List<Transaction> history = List.copyOf(newestFirst);
+
+        LocalDateTime[] dates = history.stream()
+            .map(Transaction::getTransactionDate)
+            .sorted()
+            .toArray(LocalDateTime[]::new);
+        BigDecimal average = history.isEmpty() ? null : history.stream()
+            .map(Transaction::getAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add)
+            .divide(BigDecimal.valueOf(history.size()), 2, RoundingMode.HALF_UP);
+        List<String> categories = history.stream().map(Transaction::getCategory).distinct().toList();
+
+        return RepositoryStubs.stub(TransactionRepository.class, Map.of(
+            "findByUserOrderByTransactionDateDesc", args -> history,
+            "calculateAverageAmount", args -> average,
+            "findDistinctCategoriesByUser", args -> categories,
+            "countByUserAndTransactionDateBetween", args ->
+                (long) (upperBound(dates, (LocalDateTime) args[2]) - lowerBound(dates, (LocalDateTime) args[1]))));
+    }
+
+    /** Index of the first date not before {@code from}. */
+    private static int lowerBound(LocalDateTime[] dates, LocalDateTime from) {
+        int index = Arrays.binarySearch(dates, from);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && dates[index - 1].equals(from)) {
+            index--;
+        }
+        return index;
+    }
+
+    /** Index just past the last date not after {@code to}. */
+    private static int upperBound(LocalDateTime[] dates, LocalDateTime to) {
+        int index = Arrays.binarySearch(dates, to);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index < dates.length - 1 && dates[index + 1].equals(to)) {
+            index++;
+        }
+        return index + 1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.finsight.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repository interfaces. Only the methods a
+ * benchmark names are answered; any other call throws, so a service quietly starting
+ * to use a new query shows up as a failed run rather than a skewed number.
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    /**
+     * @param answers method name to its result, given the call arguments
+     */
+    static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "toString" -> repositoryType.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    yield answer.apply(args);
+                }
+            });
+        return repositoryType.cast(stub);
+    }
+}
@@ -0,0 +1,93 @@
+package com.finsight.benchmark;
+
+import com.finsight.FinSightApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to start (and close) the application context per profile, without a web server:
+ *
+ *   dev        - in-memory H2, Hibernate create-drop plus data.sql
+ *   prod       - file-backed H2 already at the latest migration; Hibernate validates
+ *   prod-empty - file-backed H2 created and migrated from V1 during the start
+ *
+ * Each start runs in the same JVM, so after warmup this is the framework and schema
+ * work rather than class loading.
+ *
+ *   mvn -P benchmarks test-compile exec:exec -Djmh.args="StartupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"dev", "prod", "prod-empty"})
+    private String profile;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        dataDir = Files.createTempDirectory("finsight-startup");
+        if (profile.equals("prod")) {
+            start().close();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetDatabase() throws IOException {
+        if (profile.equals("prod-empty")) {
+            FileSystemUtils.deleteRecursively(dataDir);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDatabase() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public void startAndClose() {
+        start().close();
+    }
+
+    private ConfigurableApplicationContext start() {
+        boolean prod = profile.startsWith("prod");
+        return new SpringApplicationBuilder(FinSightApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .profiles(prod ? "prod" : "dev")
+            .run(
+                prod ? "--finsight.data-dir=" + dataDir
+                     : "--spring.datasource.url=jdbc:h2:mem:startup-" + UUID.randomUUID(),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.finsight=ERROR",
+                "--subscription-refresh.cron=-",
+                "--renewal-reminders.tick-millis=3600000");
+    }
+}
@@ -0,0 +1,145 @@
+package com.finsight.benchmark;
+
+import com.finsight.dto.ExpensePoint;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory transaction histories for benchmarks that bypass the database.
+ *
+ * Categories follow a Zipf-like skew (groceries and dining dominate, a long tail is
+ * rare), each category spreads over a skewed set of merchants, and a handful of fixed-price
+ * subscriptions (monthly, quarterly, annual) recur across the whole span. Rows carry ids
+ * and merchant keys as if they had been saved.
+ */
+final class SyntheticTransactions {
+
+    private static final String[] CATEGORIES = {
+        "groceries", "dining", "transport", "shopping", "utilities", "entertainment",
+        "health", "travel", "education", "gifts", "pets", "home_improvement", "salary"
+    };
+
+    private static final int MERCHANTS_PER_CATEGORY = 25;
+
+    // merchant, amount, months between payments
+    private static final Object[][] SUBSCRIPTIONS = {
+        {"netflix", "15.99", 1},
+        {"spotify", "9.99", 1},
+        {"city gym", "45.00", 1},
+        {"icloud", "2.99", 1},
+        {"car insurance", "210.00", 3},
+        {"amazon prime", "139.00", 12}
+    };
+
+    private SyntheticTransactions() {
+    }
+
+    /**
+     * @param rows total rows, subscriptions included
+     * @param spanDays rows are spread over the {@code spanDays} days before {@code now}
+     */
+    static List<Transaction> generate(User user, int rows, int spanDays, LocalDateTime now, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = now.minusDays(spanDays);
+        List<Transaction> transactions = new ArrayList<>(rows);
+
+        for (Object[] subscription : SUBSCRIPTIONS) {
+            int months = (Integer) subscription[2];
+            LocalDateTime paidAt = start.plusDays(random.nextInt(28)).withHour(6);
+            while (paidAt.isBefore(now) && transactions.size() < rows) {
+                transactions.add(expense(user, "subscriptions", (String) subscription[0],
+                    new BigDecimal((String) subscription[1]), paidAt));
+                paidAt = paidAt.plusMonths(months);
+            }
+        }
+
+        long spanSeconds = spanDays * 86_400L;
+        while (transactions.size() < rows) {
+            String category = CATEGORIES[zipf(random, CATEGORIES.length)];
+            LocalDateTime date = start.plusSeconds((long) (random.nextDouble() * spanSeconds));
+            if ("salary".equals(category)) {
+                Transaction income = expense(user, category, "employer",
+                    BigDecimal.valueOf(2500 + random.nextInt(2500)), date);
+                income.setType("INCOME");
+                transactions.add(income);
+                continue;
+            }
+            String merchant = category + " merchant " + zipf(random, MERCHANTS_PER_CATEGORY);
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(20_000), 2);
+            Transaction transaction = expense(user, category, merchant, amount, date);
+            if (random.nextDouble() < 0.01) {
+                transaction.setFraudulent(true);
+                transaction.setFraudScore(70.0 + random.nextInt(31));
+            }
+            transactions.add(transaction);
+        }
+
+        transactions.sort(Comparator.comparing(Transaction::getTransactionDate).reversed());
+        long id = 1;
+        for (Transaction transaction : transactions) {
+            transaction.setId(id++);
+        }
+        return transactions;
+    }
+
+    /**
+     * The rows {@code TransactionRepository.streamExpensePoints} would return for these
+     * transactions: EXPENSE rows with a category, keyed and ordered the same way.
+     */
+    static List<ExpensePoint> expensePoints(List<Transaction> transactions) {
+        record Keyed(ExpensePoint point, long id) {
+        }
+        return transactions.stream()
+            .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
+            .filter(t -> t.getCategory() != null && !t.getCategory().isBlank())
+            .map(t -> new Keyed(new ExpensePoint(
+                t.getMerchantKey() != null ? t.getMerchantKey() : t.getCategory().trim().toLowerCase(),
+                t.getMerchantKey() != null ? t.getMerchantKey() : t.getCategory(),
+                t.getTransactionDate(), t.getAmount()), t.getId()))
+            .sorted(Comparator.comparing((Keyed k) -> k.point().merchantKey())
+                .thenComparing(k -> k.point().date())
+                .thenComparingLong(Keyed::id))
+            .map(Keyed::point)
+            .toList();
+    }
+
+    private static Transaction expense(User user, String category, String merchant, BigDecimal amount,
+                                       LocalDateTime date) {
+        return Transaction.builder()
+            .user(user)
+            .amount(amount)
+            .type("EXPENSE")
+            .category(category)
+            .description(merchant)
+            .merchantKey(merchant)
+            .location("Home Location 1")
+            .transactionDate(date)
+            .fraudulent(false)
+            .fraudScore(10.0)
+            .createdAt(date)
+            .build();
+    }
+
+    /** Index in [0, n) with probability proportional to 1 / (index + 1). */
+    private static int zipf(Random random, int n) {
+        double harmonic = 0;
+        for (int i = 1; i <= n; i++) {
+            harmonic += 1.0 / i;
+        }
+        double target = random.nextDouble() * harmonic;
+        for (int i = 1; i <= n; i++) {
+            target -= 1.0 / i;
+            if (target <= 0) {
+                return i - 1;
+            }
+        }
+        return n - 1;
+    }
+}
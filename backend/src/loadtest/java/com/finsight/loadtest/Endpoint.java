@@ -0,0 +1,85 @@
+package com.finsight.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The endpoints the load test exercises and how to build a request for each, on behalf
+ * of one of the seeded accounts.
+ */
+enum Endpoint {
+
+    SIGNUP("POST /api/auth/signup") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            String username = VirtualUser.nextUsername();
+            return json(baseUrl + "/api/auth/signup", "{\"username\":\"" + username + "\",\"email\":\""
+                    + username + "@loadtest.example.com\",\"password\":\"" + VirtualUser.PASSWORD + "\"}");
+        }
+    },
+    LOGIN("POST /api/auth/login") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            return json(baseUrl + "/api/auth/login", "{\"username\":\"" + user.username()
+                    + "\",\"password\":\"" + VirtualUser.PASSWORD + "\"}");
+        }
+    },
+    CREATE_TRANSACTION("POST /api/transactions") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String body = "{\"amount\":" + (5 + random.nextInt(200)) + "." + random.nextInt(10, 100)
+                    + ",\"type\":\"EXPENSE\",\"category\":\"" + category + "\",\"description\":\"Load test "
+                    + category + "\",\"location\":\"Home Location 1\",\"transactionDate\":\""
+                    + LocalDateTime.now().minusMinutes(1).withNano(0) + "\"}";
+            return user.authorize(json(baseUrl + "/api/transactions", body));
+        }
+    },
+    LIST_TRANSACTIONS("GET /api/transactions") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            return user.authorize(HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions?page=0&size=20")));
+        }
+    },
+    SUMMARY("GET /api/summary") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            return user.authorize(HttpRequest.newBuilder(URI.create(baseUrl + "/api/summary")));
+        }
+    },
+    ALERTS("GET /api/fraud/alerts") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            return user.authorize(HttpRequest.newBuilder(URI.create(baseUrl + "/api/fraud/alerts")));
+        }
+    },
+    SUBSCRIPTIONS("GET /api/subscriptions") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, VirtualUser user) {
+            return user.authorize(HttpRequest.newBuilder(URI.create(baseUrl + "/api/subscriptions")));
+        }
+    };
+
+    private static final String[] CATEGORIES = {"groceries", "dining", "transport", "shopping", "entertainment"};
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, VirtualUser user);
+
+    private static HttpRequest.Builder json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+}
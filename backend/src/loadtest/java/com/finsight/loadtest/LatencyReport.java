@@ -0,0 +1,70 @@
+package com.finsight.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Per-endpoint throughput and latency percentiles of a load test run. Latencies are
+ * recorded in microseconds and printed in milliseconds.
+ */
+class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Endpoint, Histogram> histograms;
+    private final Map<Endpoint, Long> failures;
+    private final int durationSeconds;
+
+    LatencyReport(Map<Endpoint, Histogram> histograms, Map<Endpoint, Long> failures, int durationSeconds) {
+        this.histograms = histograms;
+        this.failures = failures;
+        this.durationSeconds = durationSeconds;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-26s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalFailures = 0;
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long failed = failures.get(entry.getKey());
+            printRow(out, entry.getKey().label(), histogram, failed);
+            total.add(histogram);
+            totalFailures += failed;
+        }
+        printRow(out, "all", total, totalFailures);
+    }
+
+    /** Writes one HdrHistogram percentile distribution file per endpoint, for plotting or diffing. */
+    void writeDistributions(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            Path file = directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(file.toFile())) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            } catch (FileNotFoundException e) {
+                throw new IllegalStateException("Cannot write " + file, e);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String label, Histogram histogram, long failed) {
+        out.printf("%-26s %9d %8.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (double) durationSeconds,
+                failed,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,160 @@
+package com.finsight.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running server: {@code concurrency} workers on a fixed
+ * pool each send one request at a time, picking the endpoint from the weighted mix and the
+ * account at random. Latency is recorded per endpoint, in microseconds, only during the
+ * measured window; a worker waits for each response before sending the next, so queueing
+ * inside the server shows up as lower throughput rather than in the percentiles.
+ */
+class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration SEED_TIMEOUT = Duration.ofMinutes(5);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> failures = new EnumMap<>(Endpoint.class);
+    private final Endpoint[] weightedEndpoints;
+    private HttpClient client;
+
+    LoadTest(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        List<Endpoint> weighted = new ArrayList<>();
+        options.mix().forEach((endpoint, weight) -> {
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            failures.put(endpoint, new AtomicLong());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.weightedEndpoints = weighted.toArray(Endpoint[]::new);
+    }
+
+    LatencyReport run() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            List<VirtualUser> users = signUpUsers();
+            awaitDemoSeeding(users);
+
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+            long deadline = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+            System.out.printf("Load test: %d users, %d workers, %ds warmup, %ds measured against %s%n",
+                    users.size(), options.concurrency(), options.warmupSeconds(), options.durationSeconds(), baseUrl);
+            for (int i = 0; i < options.concurrency(); i++) {
+                workers.execute(() -> drive(users, measureFrom, deadline));
+            }
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 100);
+            workers.shutdown();
+            if (!workers.awaitTermination(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+
+            Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+            Map<Endpoint, Long> failed = new EnumMap<>(Endpoint.class);
+            recorders.forEach((endpoint, recorder) -> {
+                histograms.put(endpoint, recorder.getIntervalHistogram());
+                failed.put(endpoint, failures.get(endpoint).get());
+            });
+            return new LatencyReport(histograms, failed, options.durationSeconds());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void drive(List<VirtualUser> users, long measureFrom, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            HttpRequest request = endpoint.request(baseUrl, user).timeout(REQUEST_TIMEOUT).build();
+
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status >= 200 && status < 300;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+
+            if (start >= measureFrom && end <= deadline) {
+                if (ok) {
+                    recorders.get(endpoint).recordValue(
+                            Math.min(TimeUnit.NANOSECONDS.toMicros(end - start), HIGHEST_TRACKABLE_MICROS));
+                } else {
+                    failures.get(endpoint).incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /** Signs up the accounts the traffic runs as; each signup also queues its demo data. */
+    private List<VirtualUser> signUpUsers() throws IOException, InterruptedException {
+        List<VirtualUser> users = new ArrayList<>(options.users());
+        for (int i = 0; i < options.users(); i++) {
+            HttpResponse<String> response = send(Endpoint.SIGNUP.request(baseUrl, null).build());
+            JsonNode body = objectMapper.readTree(response.body());
+            if (response.statusCode() != 201 || !body.hasNonNull("token")) {
+                throw new IllegalStateException("Signup failed with " + response.statusCode() + ": " + response.body());
+            }
+            users.add(new VirtualUser(body.get("username").asText(), body.get("token").asText()));
+        }
+        return users;
+    }
+
+    private void awaitDemoSeeding(List<VirtualUser> users) throws IOException, InterruptedException {
+        long giveUpAt = System.nanoTime() + SEED_TIMEOUT.toNanos();
+        for (VirtualUser user : users) {
+            while (true) {
+                HttpResponse<String> response = send(user.authorize(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/seed-status"))).build());
+                // 404: the seeding job already finished and was evicted
+                if (response.statusCode() == 404
+                        || objectMapper.readTree(response.body()).path("finished").asBoolean(false)) {
+                    break;
+                }
+                if (System.nanoTime() > giveUpAt) {
+                    throw new IllegalStateException("Demo data seeding did not finish within " + SEED_TIMEOUT);
+                }
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
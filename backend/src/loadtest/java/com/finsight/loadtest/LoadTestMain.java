@@ -0,0 +1,60 @@
+package com.finsight.loadtest;
+
+import com.finsight.FinSightApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * End-to-end HTTP load test. Unless {@code --base-url} is given, boots the application on
+ * a random port with its own in-memory H2 database, signs up and demo-seeds the test
+ * accounts, replays the traffic mix and prints per-endpoint latency percentiles. Needs no
+ * network access beyond localhost.
+ *
+ *   mvn -P loadtest test-compile exec:exec -Dloadtest.args="--duration=60 --concurrency=32"
+ *
+ * See {@link LoadTestOptions} for the arguments.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            context = start();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+        try {
+            LatencyReport report = new LoadTest(options, baseUrl).run();
+            report.print(System.out);
+            Path reportDir = Path.of(options.reportDir());
+            report.writeDistributions(reportDir);
+            System.out.println("Latency distributions written to " + reportDir.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(FinSightApplication.class)
+                .logStartupInfo(false)
+                .run(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                    "--spring.jpa.show-sql=false",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.finsight=ERROR",
+                    "--subscription-refresh.cron=-");
+    }
+}
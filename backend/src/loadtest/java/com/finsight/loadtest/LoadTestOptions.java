@@ -0,0 +1,76 @@
+package com.finsight.loadtest;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Settings for one load test run, parsed from {@code --name=value} arguments.
+ *
+ * <pre>
+ *   --base-url=URL        target an already running server instead of booting one
+ *   --users=20            accounts signed up (and demo-seeded) before the run
+ *   --concurrency=16      worker threads, each with one request in flight
+ *   --warmup=10           seconds of traffic before recording starts
+ *   --duration=30         seconds of recorded traffic
+ *   --mix=login:5,...     relative weight per endpoint (names as in {@link Endpoint}, any case)
+ *   --report-dir=DIR      where per-endpoint .hgrm files are written
+ * </pre>
+ */
+record LoadTestOptions(String baseUrl, int users, int concurrency, int warmupSeconds, int durationSeconds,
+                       Map<Endpoint, Integer> mix, String reportDir) {
+
+    static final String DEFAULT_MIX = "signup:1,login:4,create_transaction:20,list_transactions:30,"
+            + "summary:25,alerts:10,subscriptions:10";
+
+    private static final Set<String> KNOWN =
+            Set.of("base-url", "users", "concurrency", "warmup", "duration", "mix", "report-dir");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        Set<String> unknown = new TreeSet<>(values.keySet());
+        unknown.removeAll(KNOWN);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + unknown);
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                values.get("base-url"),
+                Integer.parseInt(values.getOrDefault("users", "20")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                values.getOrDefault("report-dir", "target/loadtest"));
+        if (options.users < 1 || options.concurrency < 1 || options.durationSeconds < 1 || options.warmupSeconds < 0) {
+            throw new IllegalArgumentException("users, concurrency and duration must be positive");
+        }
+        return options;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like endpoint:weight, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no endpoint with a positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,25 @@
+package com.finsight.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A signed-up account the load test acts as.
+ */
+record VirtualUser(String username, String token) {
+
+    static final String PASSWORD = "LoadTest1!";
+
+    private static final String RUN_ID = UUID.randomUUID().toString().substring(0, 6);
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    /** Unique per run and within the 20-character username limit. */
+    static String nextUsername() {
+        return "lt" + RUN_ID + "_" + SEQUENCE.incrementAndGet();
+    }
+
+    HttpRequest.Builder authorize(HttpRequest.Builder request) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+}
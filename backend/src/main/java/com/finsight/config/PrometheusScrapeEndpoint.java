@@ -0,0 +1,178 @@
+package com.finsight.config;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/prometheus}: every meter in the registry in the Prometheus text
+ * exposition format (0.0.4), named the way the Prometheus registry would name them
+ * (dots to underscores, base unit suffix, {@code _total} on counters, timers in seconds).
+ * Timers and summaries with service-level objective boundaries configured also get
+ * {@code _bucket} series; percentile histograms are only published by the Prometheus
+ * registry itself, so latency buckets are configured as SLOs in application.yml.
+ */
+@Component
+@WebEndpoint(id = "prometheus")
+@RequiredArgsConstructor
+public class PrometheusScrapeEndpoint {
+
+    static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        Map<String, Family> families = new TreeMap<>();
+        meterRegistry.getMeters().stream()
+            .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName()))
+            .forEach(meter -> write(meter, families));
+
+        StringBuilder out = new StringBuilder();
+        families.forEach((name, family) -> {
+            if (family.help != null) {
+                out.append("# HELP ").append(name).append(' ').append(escapeHelp(family.help)).append('\n');
+            }
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            family.samples.forEach(sample -> out.append(sample).append('\n'));
+        });
+        return out.toString();
+    }
+
+    private void write(Meter meter, Map<String, Family> families) {
+        Meter.Id id = meter.getId();
+        String base = sanitize(id.getName());
+        String help = id.getDescription();
+        String labels = labels(id.getTagsAsIterable(), null, null);
+        meter.use(
+            gauge -> family(families, withUnit(base, id.getBaseUnit()), "gauge", help)
+                .add(withUnit(base, id.getBaseUnit()) + labels + ' ' + format(gauge.value())),
+            counter -> family(families, withUnit(base, id.getBaseUnit()) + "_total", "counter", help)
+                .add(withUnit(base, id.getBaseUnit()) + "_total" + labels + ' ' + format(counter.count())),
+            timer -> writeDistribution(families, base + "_seconds", help, id, timer.takeSnapshot(), true),
+            summary -> writeDistribution(families, withUnit(base, id.getBaseUnit()), help, id,
+                summary.takeSnapshot(), false),
+            longTaskTimer -> {
+                family(families, base + "_seconds_active_count", "gauge", help)
+                    .add(base + "_seconds_active_count" + labels + ' ' + format(longTaskTimer.activeTasks()));
+                family(families, base + "_seconds_duration_sum", "gauge", help)
+                    .add(base + "_seconds_duration_sum" + labels + ' '
+                        + format(longTaskTimer.duration(TimeUnit.SECONDS)));
+                family(families, base + "_seconds_max", "gauge", help)
+                    .add(base + "_seconds_max" + labels + ' ' + format(longTaskTimer.max(TimeUnit.SECONDS)));
+            },
+            timeGauge -> family(families, base + "_seconds", "gauge", help)
+                .add(base + "_seconds" + labels + ' ' + format(timeGauge.value(TimeUnit.SECONDS))),
+            functionCounter -> family(families, withUnit(base, id.getBaseUnit()) + "_total", "counter", help)
+                .add(withUnit(base, id.getBaseUnit()) + "_total" + labels + ' ' + format(functionCounter.count())),
+            functionTimer -> {
+                Family family = family(families, base + "_seconds", "summary", help);
+                family.add(base + "_seconds_count" + labels + ' ' + format(functionTimer.count()));
+                family.add(base + "_seconds_sum" + labels + ' '
+                    + format(functionTimer.totalTime(TimeUnit.SECONDS)));
+            },
+            other -> {
+                for (Measurement measurement : other.measure()) {
+                    String name = base + "_" + sanitize(measurement.getStatistic().getTagValueRepresentation());
+                    family(families, name, "untyped", help).add(name + labels + ' ' + format(measurement.getValue()));
+                }
+            });
+    }
+
+    private void writeDistribution(Map<String, Family> families, String name, String help, Meter.Id id,
+                                   HistogramSnapshot snapshot, boolean seconds) {
+        String labels = labels(id.getTagsAsIterable(), null, null);
+        CountAtBucket[] buckets = snapshot.histogramCounts();
+        Family family = family(families, name, buckets.length > 0 ? "histogram" : "summary", help);
+        for (CountAtBucket bucket : buckets) {
+            double le = seconds ? bucket.bucket(TimeUnit.SECONDS) : bucket.bucket();
+            family.add(name + "_bucket" + labels(id.getTagsAsIterable(), "le", format(le)) + ' '
+                + format(bucket.count()));
+        }
+        if (buckets.length > 0) {
+            family.add(name + "_bucket" + labels(id.getTagsAsIterable(), "le", "+Inf") + ' '
+                + format(snapshot.count()));
+        }
+        family.add(name + "_count" + labels + ' ' + format(snapshot.count()));
+        family.add(name + "_sum" + labels + ' '
+            + format(seconds ? snapshot.total(TimeUnit.SECONDS) : snapshot.total()));
+        family(families, name + "_max", "gauge", help)
+            .add(name + "_max" + labels + ' ' + format(seconds ? snapshot.max(TimeUnit.SECONDS) : snapshot.max()));
+    }
+
+    private static Family family(Map<String, Family> families, String name, String type, String help) {
+        return families.computeIfAbsent(name, key -> new Family(type, help));
+    }
+
+    private static String withUnit(String base, String baseUnit) {
+        if (baseUnit == null || baseUnit.isBlank()) {
+            return base;
+        }
+        String unit = sanitize(baseUnit);
+        return base.endsWith("_" + unit) ? base : base + "_" + unit;
+    }
+
+    private static String labels(Iterable<Tag> tags, String extraKey, String extraValue) {
+        StringBuilder out = new StringBuilder();
+        for (Tag tag : tags) {
+            out.append(out.isEmpty() ? '{' : ',')
+                .append(sanitize(tag.getKey())).append("=\"").append(escapeLabel(tag.getValue())).append('"');
+        }
+        if (extraKey != null) {
+            out.append(out.isEmpty() ? '{' : ',').append(extraKey).append("=\"").append(extraValue).append('"');
+        }
+        return out.isEmpty() ? "" : out.append('}').toString();
+    }
+
+    static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_:]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static final class Family {
+        private final String type;
+        private final String help;
+        private final List<String> samples = new ArrayList<>();
+
+        private Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        private void add(String sample) {
+            samples.add(sample);
+        }
+    }
+}
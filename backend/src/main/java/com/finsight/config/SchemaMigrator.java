@@ -0,0 +1,192 @@
+package com.finsight.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned SQL scripts ({@code V<version>__<description>.sql}, Flyway's naming)
+ * in version order and records each in {@code schema_history}.
+ *
+ * Scripts are plain SQL shared by H2 (PostgreSQL mode) and PostgreSQL. Where the two
+ * cannot agree, a version lives in a subfolder named after the database instead
+ * ({@code h2/}, {@code postgresql/}), and only the folder matching the connected database
+ * is read; a version must still exist only once per database.
+ *
+ * On every start, scripts already applied are checked against their recorded checksum,
+ * so an edited migration fails startup instead of leaving databases on different schemas.
+ * Each script runs in one JDBC transaction; DDL that the database commits implicitly
+ * cannot be rolled back, so a failed script needs manual cleanup, as with Flyway.
+ */
+@Slf4j
+public class SchemaMigrator {
+
+    static final String HISTORY_TABLE = "schema_history";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    /**
+     * @return number of migrations applied
+     */
+    public int migrate() {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            List<Migration> migrations = resolve(vendor(connection));
+            createHistoryTable(connection);
+            Map<Integer, Long> applied = appliedChecksums(connection);
+            validate(migrations, applied);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (!applied.containsKey(migration.version())) {
+                    apply(connection, migration);
+                    count++;
+                }
+            }
+            int version = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+            log.info("Schema at version {}: {} migration(s) applied in {} ms",
+                version, count, (System.nanoTime() - started) / 1_000_000);
+            return count;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    private List<Migration> resolve(String vendor) {
+        try {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            List<Resource> resources = new ArrayList<>(List.of(resolver.getResources(location + "/*.sql")));
+            resources.addAll(List.of(resolver.getResources(location + "/" + vendor + "/*.sql")));
+
+            List<Migration> migrations = new ArrayList<>();
+            for (Resource resource : resources) {
+                Matcher name = SCRIPT_NAME.matcher(resource.getFilename());
+                if (!name.matches()) {
+                    throw new IllegalStateException("Migration script name must be V<version>__<description>.sql: "
+                        + resource.getFilename());
+                }
+                migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                    resource, checksum(resource)));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::version));
+            for (int i = 1; i < migrations.size(); i++) {
+                if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                    throw new IllegalStateException("Duplicate migration version " + migrations.get(i).version());
+                }
+            }
+            return migrations;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migrations from " + location, e);
+        }
+    }
+
+    /** "h2" or "postgresql": the database product name, lower case without spaces. */
+    private static String vendor(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).replace(" ", "");
+    }
+
+    private static void validate(List<Migration> migrations, Map<Integer, Long> applied) {
+        Map<Integer, Migration> byVersion = new HashMap<>();
+        migrations.forEach(migration -> byVersion.put(migration.version(), migration));
+        applied.forEach((version, checksum) -> {
+            Migration migration = byVersion.get(version);
+            if (migration == null) {
+                throw new IllegalStateException("Applied migration V" + version + " is missing from the application");
+            }
+            if (migration.checksum() != checksum) {
+                throw new IllegalStateException("Migration V" + version + " was changed after it was applied; "
+                    + "add a new migration instead");
+            }
+        });
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long started = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + HISTORY_TABLE
+                    + " (version, description, script, checksum, installed_on, execution_ms) VALUES (?, ?, ?, ?, ?, ?)")) {
+                insert.setInt(1, migration.version());
+                insert.setString(2, migration.description());
+                insert.setString(3, migration.script().getFilename());
+                insert.setLong(4, migration.checksum());
+                insert.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                insert.setLong(6, (System.nanoTime() - started) / 1_000_000);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            log.info("Applied migration V{} ({})", migration.version(), migration.description());
+        } catch (RuntimeException | SQLException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration " + migration.script().getFilename() + " failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + HISTORY_TABLE + " ("
+                + "version INT PRIMARY KEY, "
+                + "description VARCHAR(200) NOT NULL, "
+                + "script VARCHAR(200) NOT NULL, "
+                + "checksum BIGINT NOT NULL, "
+                + "installed_on TIMESTAMP NOT NULL, "
+                + "execution_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private static Map<Integer, Long> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT version, checksum FROM " + HISTORY_TABLE)) {
+            while (rows.next()) {
+                applied.put(rows.getInt(1), rows.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    /** CRC32 of the script with line endings normalized, so a checkout on Windows matches. */
+    private static long checksum(Resource resource) throws IOException {
+        String text = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private record Migration(int version, String description, Resource script, long checksum) {
+    }
+}
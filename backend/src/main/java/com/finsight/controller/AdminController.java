@@ -0,0 +1,112 @@
+package com.finsight.controller;
+
+import com.finsight.dto.FraudDecisionTrace;
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationStatus;
+import com.finsight.dto.SubscriptionRefreshStatus;
+import com.finsight.exception.ResourceNotFoundException;
+import com.finsight.observability.FlightRecorderService;
+import com.finsight.service.FraudTraceBuffer;
+import com.finsight.service.LoadGenerationJobService;
+import com.finsight.service.SubscriptionRefreshJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Operator endpoints. Everything under /api/admin requires the ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final LoadGenerationJobService loadGenerationJobService;
+    private final SubscriptionRefreshJobService subscriptionRefreshJobService;
+    private final FlightRecorderService flightRecorderService;
+    private final FraudTraceBuffer fraudTraceBuffer;
+
+    /**
+     * Starts generating a synthetic multi-user dataset in the background.
+     * Poll GET /api/admin/load-generation for progress and the result.
+     */
+    @PostMapping("/load-generation")
+    public ResponseEntity<LoadGenerationStatus> generateLoad(@Valid @RequestBody LoadGenerationRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(loadGenerationJobService.start(request));
+    }
+
+    /**
+     * Progress of the current or last load-generation run.
+     */
+    @GetMapping("/load-generation")
+    public ResponseEntity<LoadGenerationStatus> getLoadGenerationStatus() {
+        return loadGenerationJobService.getStatus()
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("No load generation has run since startup"));
+    }
+
+    /**
+     * Progress of the current or last scheduled subscription refresh.
+     */
+    @GetMapping("/subscription-refresh")
+    public ResponseEntity<SubscriptionRefreshStatus> getSubscriptionRefreshStatus() {
+        return subscriptionRefreshJobService.getStatus()
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("No subscription refresh has run since startup"));
+    }
+
+    /**
+     * Recent fraud decision traces, newest first: every flagged scoring plus a sample of
+     * the rest.
+     */
+    @GetMapping("/fraud-traces")
+    public ResponseEntity<List<FraudDecisionTrace>> getFraudTraces(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "false") boolean flaggedOnly,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new RuntimeException("limit must be between 1 and 1000");
+        }
+        return ResponseEntity.ok(fraudTraceBuffer.recent(userId, flaggedOnly, limit));
+    }
+
+    /**
+     * The last {@code minutes} of the continuous flight recording as a .jfr file,
+     * for JDK Mission Control or {@code jfr print}.
+     */
+    @GetMapping("/flight-recording")
+    public ResponseEntity<Resource> dumpFlightRecording(@RequestParam(defaultValue = "10") int minutes) throws IOException {
+        if (!flightRecorderService.isRecording()) {
+            throw new ResourceNotFoundException("Flight recording is disabled; set flight-recorder.enabled=true");
+        }
+        long maxMinutes = flightRecorderService.getMaxAge().toMinutes();
+        if (minutes < 1 || minutes > maxMinutes) {
+            throw new RuntimeException("minutes must be between 1 and " + maxMinutes);
+        }
+
+        Path file = flightRecorderService.dump(Duration.ofMinutes(minutes));
+        long size = Files.size(file);
+        String filename = "finsight-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr";
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .contentLength(size)
+            .body(new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+}
@@ -3,6 +3,7 @@ package com.finsight.controller;
 import com.finsight.dto.AuthResponse;
 import com.finsight.dto.LoginRequest;
 import com.finsight.dto.SignupRequest;
+import com.finsight.exception.ServiceOverloadedException;
 import com.finsight.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.signup(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ServiceOverloadedException e) {
+            throw e; // 503 + Retry-After from GlobalExceptionHandler
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(
                 AuthResponse.builder()
@@ -36,6 +39,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (ServiceOverloadedException e) {
+            throw e; // 503 + Retry-After from GlobalExceptionHandler
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
                 AuthResponse.builder()
@@ -1,10 +1,12 @@
 package com.finsight.controller;
 
 import com.finsight.dto.DashboardSummary;
+import com.finsight.security.AuthenticatedUser;
 import com.finsight.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -18,11 +20,11 @@ public class DashboardController {
     
     @GetMapping
     public ResponseEntity<DashboardSummary> getSummary(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
-        DashboardSummary summary = dashboardService.getSummary(userId, startDate, endDate);
+        DashboardSummary summary = dashboardService.getSummary(principal.getUserId(), startDate, endDate);
         return ResponseEntity.ok(summary);
     }
 }
@@ -1,9 +1,11 @@
 package com.finsight.controller;
 
 import com.finsight.dto.FraudAlertDto;
+import com.finsight.security.AuthenticatedUser;
 import com.finsight.service.FraudAlertService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,20 +19,20 @@ public class FraudAlertController {
     
     @GetMapping
     public ResponseEntity<List<FraudAlertDto>> getAlerts(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) Boolean resolved,
             @RequestParam(required = false) String severity) {
         
-        List<FraudAlertDto> alerts = fraudAlertService.findByUser(userId, resolved, severity);
+        List<FraudAlertDto> alerts = fraudAlertService.findByUser(principal.getUserId(), resolved, severity);
         return ResponseEntity.ok(alerts);
     }
     
     @PutMapping("/{id}/resolve")
     public ResponseEntity<FraudAlertDto> resolveAlert(
             @PathVariable Long id,
-            @RequestParam Long userId) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
-        FraudAlertDto alert = fraudAlertService.resolveAlert(id, userId);
+        FraudAlertDto alert = fraudAlertService.resolveAlert(id, principal.getUserId());
         return ResponseEntity.ok(alert);
     }
 }
@@ -18,6 +18,7 @@ public class RootController {
         response.put("version", "1.0.0");
         response.put("endpoints", Map.of(
             "health", "/actuator/health",
+            "metrics", "/actuator/prometheus",
             "auth", "/api/auth/*",
             "transactions", "/api/transactions",
             "subscriptions", "/api/subscriptions",
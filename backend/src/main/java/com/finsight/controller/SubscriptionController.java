@@ -5,10 +5,14 @@ import com.finsight.model.Subscription;
 import com.finsight.model.SubscriptionStatus;
 import com.finsight.model.User;
 import com.finsight.repository.SubscriptionRepository;
+import com.finsight.security.AuthenticatedUser;
+import com.finsight.service.RenewalReminderService;
 import com.finsight.service.SubscriptionDetectorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -22,11 +26,12 @@ public class SubscriptionController {
     
     private final SubscriptionDetectorService subscriptionDetectorService;
     private final SubscriptionRepository subscriptionRepository;
+    private final RenewalReminderService renewalReminderService;
     
     @GetMapping
-    public ResponseEntity<List<SubscriptionDto>> getSubscriptions(@RequestParam(required = true) Long userId) {
+    public ResponseEntity<List<SubscriptionDto>> getSubscriptions(@AuthenticationPrincipal AuthenticatedUser principal) {
         // Get existing subscriptions instead of re-detecting every time
-        List<Subscription> subscriptions = subscriptionRepository.findByUserId(userId);
+        List<Subscription> subscriptions = subscriptionRepository.findByUserId(principal.getUserId());
         List<SubscriptionDto> dtos = subscriptions.stream()
             .map(this::toDto)
             .collect(Collectors.toList());
@@ -34,9 +39,9 @@ public class SubscriptionController {
     }
     
     @PostMapping("/detect")
-    public ResponseEntity<List<SubscriptionDto>> detectSubscriptions(@RequestParam(required = true) Long userId) {
+    public ResponseEntity<List<SubscriptionDto>> detectSubscriptions(@AuthenticationPrincipal AuthenticatedUser principal) {
         // Separate endpoint for detecting/refreshing subscriptions
-        List<Subscription> subscriptions = subscriptionDetectorService.detectSubscriptions(userId);
+        List<Subscription> subscriptions = subscriptionDetectorService.detectSubscriptions(principal.getUserId());
         List<SubscriptionDto> dtos = subscriptions.stream()
             .map(this::toDto)
             .collect(Collectors.toList());
@@ -44,7 +49,7 @@ public class SubscriptionController {
     }
     
     @PostMapping
-    public ResponseEntity<SubscriptionDto> createSubscription(@Valid @RequestBody SubscriptionDto dto, @RequestParam(required = true) Long userId) {
+    public ResponseEntity<SubscriptionDto> createSubscription(@Valid @RequestBody SubscriptionDto dto, @AuthenticationPrincipal AuthenticatedUser principal) {
         // Additional validation for date range (25-35 days)
         if (dto.getLastPaidDate() != null && dto.getNextDueDate() != null) {
             long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(dto.getLastPaidDate(), dto.getNextDueDate());
@@ -57,9 +62,16 @@ public class SubscriptionController {
             }
         }
         
+        // One subscription per merchant; the unique (user, merchant) key backs this up under races
+        String merchantKey = Subscription.merchantKeyOf(dto.getMerchant());
+        subscriptionRepository.findByUser_IdAndMerchantKey(principal.getUserId(), merchantKey)
+            .ifPresent(existing -> {
+                throw alreadyExists(existing.getMerchant());
+            });
+        
         // Manually create a subscription
         User user = new User();
-        user.setId(userId);
+        user.setId(principal.getUserId());
         
         Subscription subscription = Subscription.builder()
             .user(user)
@@ -71,19 +83,31 @@ public class SubscriptionController {
             .createdAt(java.time.LocalDateTime.now())
             .build();
         
-        subscription = subscriptionRepository.save(subscription);
+        try {
+            subscription = subscriptionRepository.save(subscription);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to a concurrent create or detection run for the same merchant
+            throw alreadyExists(subscriptionRepository.findByUser_IdAndMerchantKey(principal.getUserId(), merchantKey)
+                .map(Subscription::getMerchant)
+                .orElse(dto.getMerchant().trim()));
+        }
+        renewalReminderService.track(subscription);
         return ResponseEntity.ok(toDto(subscription));
     }
     
+    private static RuntimeException alreadyExists(String merchant) {
+        return new RuntimeException("A subscription for '" + merchant + "' already exists");
+    }
+    
     @GetMapping("/due-soon")
     public ResponseEntity<List<SubscriptionDto>> getDueSoon(
-            @RequestParam(required = true) Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false, defaultValue = "7") int days) {
         
         LocalDate start = LocalDate.now();
         LocalDate end = start.plusDays(days);
         
-        List<Subscription> subscriptions = subscriptionRepository.findDueSoonByUserId(userId, start, end);
+        List<Subscription> subscriptions = subscriptionRepository.findDueSoonByUserId(principal.getUserId(), start, end);
         List<SubscriptionDto> dtos = subscriptions.stream()
             .map(this::toDto)
             .collect(Collectors.toList());
@@ -93,13 +117,18 @@ public class SubscriptionController {
     @PutMapping("/{id}/ignore")
     public ResponseEntity<SubscriptionDto> ignoreSubscription(
             @PathVariable Long id,
-            @RequestParam(required = true) Long userId) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         Subscription subscription = subscriptionRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Subscription not found: " + id));
         
+        if (!subscription.getUser().getId().equals(principal.getUserId())) {
+            throw new RuntimeException("Unauthorized access to subscription");
+        }
+        
         subscription.setStatus(SubscriptionStatus.IGNORED);
         subscription = subscriptionRepository.save(subscription);
+        renewalReminderService.track(subscription);
         
         return ResponseEntity.ok(toDto(subscription));
     }
@@ -112,6 +141,7 @@ public class SubscriptionController {
             .lastPaidDate(subscription.getLastPaidDate())
             .nextDueDate(subscription.getNextDueDate())
             .status(subscription.getStatus().name())
+            .cadence(subscription.getCadence() != null ? subscription.getCadence().name() : null)
             .createdAt(subscription.getCreatedAt())
             .build();
     }
@@ -1,8 +1,12 @@
 package com.finsight.controller;
 
+import com.finsight.dto.DemoSeedStatus;
 import com.finsight.dto.TransactionRequest;
 import com.finsight.dto.TransactionResponse;
+import com.finsight.exception.ResourceNotFoundException;
+import com.finsight.security.AuthenticatedUser;
 import com.finsight.service.DemoDataService;
+import com.finsight.service.DemoSeedJobService;
 import com.finsight.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +14,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -22,16 +27,21 @@ public class TransactionController {
     
     private final TransactionService transactionService;
     private final DemoDataService demoDataService;
+    private final DemoSeedJobService demoSeedJobService;
     
     @PostMapping
-    public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> createTransaction(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody TransactionRequest request) {
+        // The owner always comes from the token, never from the request body
+        request.setUserId(principal.getUserId());
         TransactionResponse response = transactionService.createTransaction(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
     @GetMapping
     public ResponseEntity<Page<TransactionResponse>> getTransactions(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
@@ -43,15 +53,23 @@ public class TransactionController {
             @RequestParam(required = false, defaultValue = "20") int size) {
         
         Page<TransactionResponse> transactions = transactionService.findWithFilters(
-            userId, type, category, startDate, endDate, fraudulent, sortBy, sortDir, page, size);
+            principal.getUserId(), type, category, startDate, endDate, fraudulent, sortBy, sortDir, page, size);
         
         return ResponseEntity.ok(transactions);
     }
     
+    @GetMapping("/seed-status")
+    public ResponseEntity<DemoSeedStatus> getSeedStatus(@AuthenticationPrincipal AuthenticatedUser principal) {
+        DemoSeedStatus status = demoSeedJobService.getStatus(principal.getUserId())
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "No demo seeding job for user " + principal.getUserId()));
+        return ResponseEntity.ok(status);
+    }
+    
     @PostMapping("/reseed-demo")
-    public ResponseEntity<Map<String, Object>> reseedDemoData(@RequestParam Long userId) {
+    public ResponseEntity<Map<String, Object>> reseedDemoData(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            int count = demoDataService.forceReseedUser(userId);
+            int count = demoDataService.forceReseedUser(principal.getUserId());
             return ResponseEntity.ok(Map.of(
                 "message", "Demo data reseeded successfully",
                 "transactionsCreated", count
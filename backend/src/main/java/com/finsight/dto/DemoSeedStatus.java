@@ -0,0 +1,41 @@
+package com.finsight.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a user's background demo-data seeding job.
+ * Immutable: every change produces a new instance that replaces the published one,
+ * so readers never see a half-updated status.
+ */
+public record DemoSeedStatus(Long userId, State state, int processed, int total,
+                             Integer transactionsCreated, String message, LocalDateTime updatedAt) {
+
+    public enum State { PENDING, RUNNING, DONE, FAILED }
+
+    public static DemoSeedStatus pending(Long userId) {
+        return new DemoSeedStatus(userId, State.PENDING, 0, 0, null, null, LocalDateTime.now());
+    }
+
+    public DemoSeedStatus running() {
+        return new DemoSeedStatus(userId, State.RUNNING, processed, total, transactionsCreated, message, LocalDateTime.now());
+    }
+
+    public DemoSeedStatus progress(int processed, int total) {
+        return new DemoSeedStatus(userId, state, processed, total, transactionsCreated, message, LocalDateTime.now());
+    }
+
+    public DemoSeedStatus done(int transactionsCreated) {
+        return new DemoSeedStatus(userId, State.DONE, processed, total, transactionsCreated, message, LocalDateTime.now());
+    }
+
+    public DemoSeedStatus failed(String message) {
+        return new DemoSeedStatus(userId, State.FAILED, processed, total, transactionsCreated, message, LocalDateTime.now());
+    }
+
+    @JsonProperty("finished")
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED;
+    }
+}
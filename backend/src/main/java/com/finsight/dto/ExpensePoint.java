@@ -0,0 +1,13 @@
+package com.finsight.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The slice of an EXPENSE transaction that recurring-payment detection needs.
+ *
+ * @param merchantKey grouping key: the resolved merchant, else the lower-cased, trimmed category
+ * @param displayName the merchant key, else the category as the user typed it
+ */
+public record ExpensePoint(String merchantKey, String displayName, LocalDateTime date, BigDecimal amount) {
+}
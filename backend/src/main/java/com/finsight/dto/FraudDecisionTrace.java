@@ -0,0 +1,58 @@
+package com.finsight.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How one transaction was scored: the inputs each rule looked at, and what each rule decided.
+ * Evidence a rule did not reach stays null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FraudDecisionTrace {
+    private Long transactionId;
+    private Long userId;
+    private LocalDateTime evaluatedAt;
+    private long durationMicros;
+    
+    private BigDecimal amount;
+    private String type;
+    private String category;
+    private String location;
+    private LocalDateTime transactionDate;
+    
+    private double score;
+    private String riskLevel;
+    private boolean fraudulent;
+    
+    // Evidence
+    private BigDecimal userAverage;
+    private Long transactionsInWindow;
+    private String previousLocation;
+    private LocalDateTime previousTransactionDate;
+    private Long categoryUses;
+    
+    @Builder.Default
+    private List<RuleEvaluation> rules = new ArrayList<>(4);
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RuleEvaluation {
+        private String rule;
+        private String outcome; // triggered, passed or skipped
+        private int points;
+        private long durationMicros;
+    }
+}
@@ -20,4 +20,7 @@ public class FraudDetectionResult {
     
     @Builder.Default
     private List<String> reasons = new ArrayList<>();
+    
+    /** Inputs and per-rule decisions behind the score. */
+    private FraudDecisionTrace trace;
 }
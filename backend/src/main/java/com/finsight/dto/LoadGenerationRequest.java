@@ -0,0 +1,57 @@
+package com.finsight.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Shape of a synthetic dataset: how many users, how many transactions each,
+ * and how those transactions are spread over categories, fraud and locations.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadGenerationRequest {
+
+    @Min(value = 1, message = "At least one user is required")
+    @Max(value = 100000, message = "Users cannot exceed 100,000")
+    private int users;
+
+    @Min(value = 1, message = "At least one transaction per user is required")
+    @Max(value = 1000000, message = "Transactions per user cannot exceed 1,000,000")
+    private int transactionsPerUser;
+
+    // Relative weight per category; null uses the demo data mix
+    private Map<String, Integer> categoryWeights;
+
+    // Share of transactions turned into high-value fraud scenarios
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    @Builder.Default
+    private double fraudRate = 0.02;
+
+    // Share of transactions made away from the user's usual locations
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    @Builder.Default
+    private double locationChurn = 0.1;
+
+    // Transactions are spread over the last spanDays days
+    @Min(1)
+    @Max(3650)
+    @Builder.Default
+    private int spanDays = 365;
+
+    // Same seed, same data (usernames aside)
+    @Builder.Default
+    private long seed = 42L;
+
+    @Pattern(regexp = "[a-zA-Z0-9_-]{1,20}", message = "Username prefix must be 1-20 letters, digits, '_' or '-'")
+    @Builder.Default
+    private String usernamePrefix = "loadgen";
+}
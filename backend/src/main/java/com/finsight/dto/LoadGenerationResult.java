@@ -0,0 +1,20 @@
+package com.finsight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadGenerationResult {
+    private int usersCreated;
+    private long transactionsCreated;
+    private long fraudAlertsCreated;
+    private List<Long> userIds;
+    private long elapsedMillis;
+}
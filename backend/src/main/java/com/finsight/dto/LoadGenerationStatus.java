@@ -0,0 +1,47 @@
+package com.finsight.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the current or most recent background load-generation run.
+ * Immutable: every change produces a new instance that replaces the published one.
+ */
+public record LoadGenerationStatus(State state, int usersRequested, long transactionsRequested,
+                                   int usersCompleted, LoadGenerationResult result, String message,
+                                   LocalDateTime startedAt, LocalDateTime updatedAt) {
+
+    public enum State { PENDING, RUNNING, DONE, FAILED }
+
+    public static LoadGenerationStatus pending(LoadGenerationRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        return new LoadGenerationStatus(State.PENDING, request.getUsers(),
+            (long) request.getUsers() * request.getTransactionsPerUser(), 0, null, null, now, now);
+    }
+
+    public LoadGenerationStatus running() {
+        return new LoadGenerationStatus(State.RUNNING, usersRequested, transactionsRequested,
+            usersCompleted, result, message, startedAt, LocalDateTime.now());
+    }
+
+    public LoadGenerationStatus progress(int usersCompleted) {
+        return new LoadGenerationStatus(state, usersRequested, transactionsRequested,
+            usersCompleted, result, message, startedAt, LocalDateTime.now());
+    }
+
+    public LoadGenerationStatus done(LoadGenerationResult result) {
+        return new LoadGenerationStatus(State.DONE, usersRequested, transactionsRequested,
+            result.getUsersCreated(), result, message, startedAt, LocalDateTime.now());
+    }
+
+    public LoadGenerationStatus failed(String message) {
+        return new LoadGenerationStatus(State.FAILED, usersRequested, transactionsRequested,
+            usersCompleted, result, message, startedAt, LocalDateTime.now());
+    }
+
+    @JsonProperty("finished")
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED;
+    }
+}
@@ -0,0 +1,9 @@
+package com.finsight.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The slice of an ACTIVE subscription the renewal scheduler keeps in memory.
+ */
+public record RenewalDue(Long subscriptionId, LocalDate nextDueDate) {
+}
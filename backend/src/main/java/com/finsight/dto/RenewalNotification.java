@@ -0,0 +1,18 @@
+package com.finsight.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A renewal reminder handed to the notification sink.
+ *
+ * @param kind DUE_SOON when the lead time before the due date starts, DUE on the due date itself
+ */
+public record RenewalNotification(Kind kind, Long subscriptionId, Long userId, String merchant,
+                                  BigDecimal amount, LocalDate dueDate) {
+
+    public enum Kind {
+        DUE_SOON,
+        DUE
+    }
+}
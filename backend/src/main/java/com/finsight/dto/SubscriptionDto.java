@@ -35,5 +35,7 @@ public class SubscriptionDto {
     private LocalDate nextDueDate;
     
     private String status;
+    // Set by detection; manually created subscriptions are MONTHLY
+    private String cadence;
     private LocalDateTime createdAt;
 }
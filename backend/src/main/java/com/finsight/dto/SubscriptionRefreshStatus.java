@@ -0,0 +1,27 @@
+package com.finsight.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the current or most recent subscription refresh run.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionRefreshStatus {
+    private boolean running;
+    private boolean resumed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long usersProcessed;
+    private long usersFailed;
+    private Long lastProcessedUserId;
+    private long durationMillis;
+    private double usersPerSecond;
+}
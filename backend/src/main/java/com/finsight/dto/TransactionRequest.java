@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TransactionRequest {
-    @NotNull(message = "User ID is required")
+    // Populated from the authenticated principal; any value in the body is ignored
     private Long userId;
     
     @NotNull(message = "Amount is required")
@@ -0,0 +1,11 @@
+package com.finsight.model;
+
+/**
+ * What a user row is for. Only STANDARD accounts belong to people; the others are
+ * internal and are skipped by the nightly scans.
+ */
+public enum AccountType {
+    STANDARD,
+    DEMO_TEMPLATE,
+    SYNTHETIC
+}
@@ -0,0 +1,60 @@
+package com.finsight.model;
+
+import java.time.LocalDate;
+
+/**
+ * How often a recurring payment repeats. Each cadence accepts a band of day gaps
+ * around its nominal period, wide enough for month lengths and billing drift.
+ */
+public enum BillingCadence {
+    WEEKLY(6, 8, 3),       // 7 days
+    MONTHLY(26, 35, 2),    // 28-31 days
+    QUARTERLY(84, 98, 2),  // ~91 days
+    ANNUAL(350, 380, 2);   // 365/366 days
+
+    private final int minGapDays;
+    private final int maxGapDays;
+    private final int minPayments;
+
+    BillingCadence(int minGapDays, int maxGapDays, int minPayments) {
+        this.minGapDays = minGapDays;
+        this.maxGapDays = maxGapDays;
+        this.minPayments = minPayments;
+    }
+
+    public boolean accepts(long gapDays) {
+        return gapDays >= minGapDays && gapDays <= maxGapDays;
+    }
+
+    public int getMinGapDays() {
+        return minGapDays;
+    }
+
+    public int getMaxGapDays() {
+        return maxGapDays;
+    }
+
+    /** Fewest payments before the series counts as recurring. */
+    public int getMinPayments() {
+        return minPayments;
+    }
+
+    public LocalDate nextDueAfter(LocalDate lastPaid) {
+        return switch (this) {
+            case WEEKLY -> lastPaid.plusWeeks(1);
+            case MONTHLY -> lastPaid.plusMonths(1);
+            case QUARTERLY -> lastPaid.plusMonths(3);
+            case ANNUAL -> lastPaid.plusYears(1);
+        };
+    }
+
+    /** The cadence whose gap band contains this gap, or null. */
+    public static BillingCadence fromGap(long gapDays) {
+        for (BillingCadence cadence : values()) {
+            if (cadence.accepts(gapDays)) {
+                return cadence;
+            }
+        }
+        return null;
+    }
+}
@@ -9,14 +9,21 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fraud_alerts")
+@Table(name = "fraud_alerts", indexes = {
+    // One per alert list filter: none, resolved (and severity), severity; all newest first
+    @Index(name = "idx_fraud_alerts_user_created", columnList = "user_id,created_at"),
+    @Index(name = "idx_fraud_alerts_user_resolved", columnList = "user_id,resolved,severity,created_at"),
+    @Index(name = "idx_fraud_alerts_user_severity", columnList = "user_id,severity,created_at"),
+    @Index(name = "idx_fraud_alerts_transaction", columnList = "transaction_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class FraudAlert {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fraud_alerts_seq")
+    @SequenceGenerator(name = "fraud_alerts_seq", sequenceName = "fraud_alerts_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
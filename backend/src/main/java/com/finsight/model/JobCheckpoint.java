@@ -0,0 +1,39 @@
+package com.finsight.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker for a batch job that walks users in id order, so an
+ * interrupted run can resume after the last user it finished.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+    @Id
+    @Column(length = 100)
+    private String jobName;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastProcessedId = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean inProgress = false;
+    
+    @Column
+    private LocalDateTime startedAt;
+    
+    @Column
+    private LocalDateTime updatedAt;
+}
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "subscriptions", indexes = {
     @Index(name = "idx_subscriptions_user", columnList = "user_id"),
-    @Index(name = "idx_subscriptions_due_date", columnList = "user_id,next_due_date")
+    @Index(name = "idx_subscriptions_due_date", columnList = "user_id,next_due_date"),
+    @Index(name = "idx_subscriptions_status_due", columnList = "status,next_due_date")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_subscriptions_user_merchant", columnNames = {"user_id", "merchant_key"})
 })
 @Data
 @Builder
@@ -21,7 +24,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Subscription {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_seq")
+    @SequenceGenerator(name = "subscriptions_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -31,6 +35,15 @@ public class Subscription {
     @Column(nullable = false, length = 100)
     private String merchant;
     
+    /** Natural key within a user: the merchant lower-cased and trimmed. Kept in sync with {@link #merchant}. */
+    @Column(nullable = false, length = 100)
+    private String merchantKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private BillingCadence cadence = BillingCadence.MONTHLY;
+    
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal avgAmount;
     
@@ -48,4 +61,14 @@ public class Subscription {
     @Column(nullable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @PrePersist
+    @PreUpdate
+    void syncMerchantKey() {
+        merchantKey = merchantKeyOf(merchant);
+    }
+    
+    public static String merchantKeyOf(String merchant) {
+        return merchant == null ? null : merchant.toLowerCase().trim();
+    }
 }
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @Table(name = "transactions", indexes = {
     @Index(name = "idx_transactions_user_date", columnList = "user_id,transaction_date"),
     @Index(name = "idx_transactions_fraudulent", columnList = "user_id,fraudulent"),
-    @Index(name = "idx_transactions_category", columnList = "user_id,category")
+    @Index(name = "idx_transactions_category", columnList = "user_id,category"),
+    @Index(name = "idx_transactions_merchant", columnList = "user_id,merchant_key"),
+    // Covers the per-user average read by every fraud scoring
+    @Index(name = "idx_transactions_user_amount", columnList = "user_id,amount")
 })
 @Data
 @Builder
@@ -21,7 +24,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,6 +47,10 @@ public class Transaction {
     @Column(length = 100)
     private String location;
     
+    // Resolved from the description; null when it names no merchant
+    @Column(length = 100)
+    private String merchantKey;
+    
     @Column(nullable = false)
     private LocalDateTime transactionDate;
     
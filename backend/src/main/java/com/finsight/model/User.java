@@ -36,6 +36,11 @@ public class User {
     @Builder.Default
     private Set<String> roles = new HashSet<>();
     
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private AccountType accountType = AccountType.STANDARD;
+    
     @Column(nullable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
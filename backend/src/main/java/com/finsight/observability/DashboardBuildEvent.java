@@ -0,0 +1,38 @@
+package com.finsight.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * JFR event for one dashboard summary build, split into loading the rows and
+ * aggregating them. The event's own duration covers the whole build.
+ */
+@Name("com.finsight.DashboardBuild")
+@Label("Dashboard Build")
+@Category({"FinSight", "Dashboard"})
+@Description("Dashboard summary built from a user's transactions")
+@StackTrace(false)
+@Setter
+public class DashboardBuildEvent extends Event {
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Rows")
+    @Description("Transactions loaded for the summary")
+    private int rows;
+
+    @Label("Load Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long loadDuration;
+
+    @Label("Aggregation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long aggregationDuration;
+}
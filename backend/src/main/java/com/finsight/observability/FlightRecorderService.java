@@ -0,0 +1,112 @@
+package com.finsight.observability;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Continuous JDK Flight Recorder recording, including {@link FraudScoringEvent} and
+ * {@link DashboardBuildEvent}, that operators can dump on demand.
+ *
+ * Off unless {@code flight-recorder.enabled=true}. The recording uses the JDK's low-overhead
+ * {@code default} settings and keeps {@code max-age} / {@code max-size} of data on disk.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService {
+
+    static final String RECORDING_NAME = "finsight-continuous";
+
+    private final boolean enabled;
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private volatile Recording recording;
+
+    public FlightRecorderService(@Value("${flight-recorder.enabled:false}") boolean enabled,
+                                 @Value("${flight-recorder.settings:default}") String settings,
+                                 @Value("${flight-recorder.max-age:30m}") Duration maxAge,
+                                 @Value("${flight-recorder.max-size:100MB}") DataSize maxSize) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || recording != null) {
+            return;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration(settings));
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(maxAge);
+            continuous.setMaxSize(maxSize.toBytes());
+            continuous.start();
+            recording = continuous;
+            log.info("Flight recording started: settings={}, max-age={}, max-size={}", settings, maxAge, maxSize);
+        } catch (IOException | ParseException | IllegalStateException e) {
+            log.warn("Flight recording could not be started", e);
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Writes the last {@code last} of the continuous recording to a new temporary file,
+     * which the caller must delete. Data is cut at chunk boundaries, so slightly more than
+     * {@code last} may be included.
+     */
+    public Path dump(Duration last) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        Path file = Files.createTempFile("finsight-", ".jfr");
+        try {
+            // JFR.dump is the only JDK 17 API that cuts a recording to a time window
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"), "jfrDump",
+                new Object[]{new String[]{
+                    "name=" + RECORDING_NAME,
+                    "filename=" + file.toAbsolutePath(),
+                    "maxage=" + Math.max(1, last.toSeconds()) + "s"}},
+                new String[]{String[].class.getName()});
+            return file;
+        } catch (JMException e) {
+            Files.deleteIfExists(file);
+            throw new IOException("Flight recording dump failed", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
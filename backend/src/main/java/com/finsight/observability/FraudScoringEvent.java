@@ -0,0 +1,55 @@
+package com.finsight.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import lombok.Setter;
+
+/**
+ * JFR event for one fraud scoring, with the time spent in each rule. The event's own
+ * duration covers the whole analysis.
+ */
+@Name("com.finsight.FraudScoring")
+@Label("Fraud Scoring")
+@Category({"FinSight", "Fraud"})
+@Description("Rule-based fraud scoring of one transaction")
+@StackTrace(false)
+@Setter
+public class FraudScoringEvent extends Event {
+
+    @Label("User Id")
+    private long userId;
+
+    @Label("Transaction Id")
+    private long transactionId;
+
+    @Label("Score")
+    private double score;
+
+    @Label("Risk Level")
+    private String riskLevel;
+
+    @Label("Rules Fired")
+    @Description("Comma-separated rules that added to the score")
+    private String rulesFired;
+
+    @Label("High Amount")
+    @Timespan(Timespan.NANOSECONDS)
+    private long highAmountDuration;
+
+    @Label("Rapid Fire")
+    @Timespan(Timespan.NANOSECONDS)
+    private long rapidFireDuration;
+
+    @Label("Geo Anomaly")
+    @Timespan(Timespan.NANOSECONDS)
+    private long geoAnomalyDuration;
+
+    @Label("Unusual Category")
+    @Timespan(Timespan.NANOSECONDS)
+    private long unusualCategoryDuration;
+}
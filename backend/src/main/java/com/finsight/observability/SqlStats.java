@@ -0,0 +1,107 @@
+package com.finsight.observability;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the JDBC statements a thread executes, the time spent in them and the rows read
+ * from their results, while a
+ * {@link Scope} is open. Statements are reported by {@link StatementCountingDataSource};
+ * {@link SqlStatsFilter} opens a scope per HTTP request and tests open their own.
+ *
+ * Scopes nest: a statement counts towards every scope open on the thread. Work handed
+ * to other threads is not counted.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStats() {
+    }
+
+    /** Starts counting on this thread until the returned scope is closed. */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(String sql, long nanos) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.add(sql, nanos);
+        }
+    }
+
+    static void recordRow() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> executionsBySql = new HashMap<>();
+        private int statements;
+        private long jdbcNanos;
+        private long rows;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql, long nanos) {
+            statements++;
+            jdbcNanos += nanos;
+            executionsBySql.merge(sql == null ? "<batch>" : sql, 1, Integer::sum);
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        /** Rows read from result sets, i.e. successful {@code ResultSet.next()} calls. */
+        public long rows() {
+            return rows;
+        }
+
+        public Duration jdbcTime() {
+            return Duration.ofNanos(jdbcNanos);
+        }
+
+        /** Statements executed at least {@code minExecutions} times, with their counts. */
+        public Map<String, Integer> repeatedStatements(int minExecutions) {
+            return executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minExecutions)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        }
+
+        /** The statement executed most often, the usual signature of an N+1 pattern. */
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+        }
+    }
+}
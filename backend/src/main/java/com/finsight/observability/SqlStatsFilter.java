@@ -0,0 +1,76 @@
+package com.finsight.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements and JDBC time of each HTTP request.
+ *
+ * Requests that run more than {@code sql-stats.warn-statements} statements, or repeat
+ * one statement {@code sql-stats.warn-repeats} times or more (the usual N+1 pattern),
+ * are logged at WARN with the most repeated statement. With
+ * {@code sql-stats.response-headers=true} (the dev profile) the totals are also sent as
+ * {@code X-SQL-Statements} and {@code X-SQL-Time-Ms}; the body is buffered for that so
+ * the headers can still be set once the controller has written it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final boolean responseHeaders;
+    private final int warnStatements;
+    private final int warnRepeats;
+
+    public SqlStatsFilter(@Value("${sql-stats.response-headers:false}") boolean responseHeaders,
+                          @Value("${sql-stats.warn-statements:25}") int warnStatements,
+                          @Value("${sql-stats.warn-repeats:10}") int warnRepeats) {
+        this.responseHeaders = responseHeaders;
+        this.warnStatements = warnStatements;
+        this.warnRepeats = warnRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = responseHeaders ? new ContentCachingResponseWrapper(response) : null;
+        try (SqlStats.Scope scope = SqlStats.open()) {
+            try {
+                filterChain.doFilter(request, buffered != null ? buffered : response);
+            } finally {
+                report(request, scope);
+                if (buffered != null) {
+                    buffered.setHeader(STATEMENTS_HEADER, Integer.toString(scope.statements()));
+                    buffered.setHeader(TIME_HEADER, Long.toString(scope.jdbcTime().toMillis()));
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStats.Scope scope) {
+        Map.Entry<String, Integer> mostRepeated = scope.mostRepeated().orElse(null);
+        boolean tooMany = scope.statements() > warnStatements;
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() >= warnRepeats;
+        if (tooMany || repeated) {
+            log.warn("{} {} ran {} SQL statements in {} ms; most repeated ({}x): {}",
+                request.getMethod(), request.getRequestURI(), scope.statements(), scope.jdbcTime().toMillis(),
+                mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+}
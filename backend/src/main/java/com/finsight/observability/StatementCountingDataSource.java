@@ -0,0 +1,93 @@
+package com.finsight.observability;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement executed through the wrapped pool to {@link SqlStats}, with
+ * the time the driver took and the rows read back. Connections, statements and result
+ * sets are JDK proxies; when no scope is open on the thread nothing is timed or counted.
+ *
+ * Extends {@link DelegatingDataSource} so pool health checks and metrics still find the
+ * pool underneath.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return switch (method.getName()) {
+                    case "createStatement" -> wrap((Statement) result, Statement.class, null);
+                    case "prepareStatement" -> wrap((Statement) result, PreparedStatement.class, (String) args[0]);
+                    case "prepareCall" -> wrap((Statement) result, CallableStatement.class, (String) args[0]);
+                    default -> result;
+                };
+            });
+    }
+
+    private static Statement wrap(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, method, args) -> {
+                if (!SqlStats.isRecording()) {
+                    return invoke(statement, method, args);
+                }
+                if (!method.getName().startsWith("execute")) {
+                    Object result = invoke(statement, method, args);
+                    return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+                }
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                long started = System.nanoTime();
+                try {
+                    Object result = invoke(statement, method, args);
+                    return result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+                } finally {
+                    SqlStats.record(sql, System.nanoTime() - started);
+                }
+            });
+    }
+
+    private static ResultSet wrap(ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                Object result = invoke(resultSet, method, args);
+                if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                    SqlStats.recordRow();
+                }
+                return result;
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
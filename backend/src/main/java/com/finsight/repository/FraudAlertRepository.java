@@ -3,18 +3,31 @@ package com.finsight.repository;
 import com.finsight.model.FraudAlert;
 import com.finsight.model.RiskLevel;
 import com.finsight.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface FraudAlertRepository extends JpaRepository<FraudAlert, Long> {
+public interface FraudAlertRepository extends JpaRepository<FraudAlert, Long>, FraudAlertRepositoryCustom {
+    // Alert listings render the flagged transaction, so it is fetched in the same query
+    @EntityGraph(attributePaths = "transaction")
     List<FraudAlert> findByUserOrderByCreatedAtDesc(User user);
     
+    @EntityGraph(attributePaths = "transaction")
     List<FraudAlert> findByUserAndResolvedOrderByCreatedAtDesc(User user, boolean resolved);
     
+    @EntityGraph(attributePaths = "transaction")
     List<FraudAlert> findByUserAndSeverityOrderByCreatedAtDesc(User user, RiskLevel severity);
     
+    @EntityGraph(attributePaths = "transaction")
     List<FraudAlert> findByUserAndResolvedAndSeverityOrderByCreatedAtDesc(User user, boolean resolved, RiskLevel severity);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM FraudAlert a WHERE a.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,17 @@
+package com.finsight.repository;
+
+/**
+ * Set-based writes for fraud alerts that Spring Data cannot express.
+ */
+public interface FraudAlertRepositoryCustom {
+
+    /**
+     * Copies the template user's alerts onto transactions already cloned with
+     * {@link TransactionRepositoryCustom#cloneFromTemplate}. Each alert is re-attached by matching
+     * the shifted transaction date, which is unique within the template. Native SQL, with ids
+     * from pooled-lo blocks, for the same reason as the transaction copy.
+     *
+     * @return number of alerts copied
+     */
+    int cloneFromTemplate(Long templateUserId, Long userId, long shiftSeconds);
+}
@@ -0,0 +1,51 @@
+package com.finsight.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+class FraudAlertRepositoryCustomImpl implements FraudAlertRepositoryCustom {
+
+    /** Template alerts paired with the cloned transaction they belong to. */
+    private static final String CLONED_ALERTS = """
+        FROM fraud_alerts a
+        JOIN transactions t ON t.id = a.transaction_id
+        JOIN transactions c ON c.user_id = :userId
+         AND c.transaction_date = t.transaction_date + CAST(:shiftSeconds AS BIGINT) * INTERVAL '1' SECOND
+        WHERE a.user_id = :templateUserId
+        """;
+
+    private static final String CLONE_SQL = """
+        INSERT INTO fraud_alerts (id, user_id, transaction_id, message, severity, resolved, created_at)
+        SELECT %s, r.user_id, r.transaction_id, r.message, r.severity, FALSE,
+               r.created_at + CAST(:shiftSeconds AS BIGINT) * INTERVAL '1' SECOND
+        FROM (SELECT c.user_id, c.id AS transaction_id, a.message, a.severity, a.created_at,
+                     ROW_NUMBER() OVER (ORDER BY a.id) AS rn
+              %s) r
+        JOIN %s ON %s
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int cloneFromTemplate(Long templateUserId, Long userId, long shiftSeconds) {
+        long rows = ((Number) entityManager.createNativeQuery("SELECT COUNT(*) " + CLONED_ALERTS)
+            .setParameter("templateUserId", templateUserId)
+            .setParameter("userId", userId)
+            .setParameter("shiftSeconds", shiftSeconds)
+            .getSingleResult()).longValue();
+        if (rows == 0) {
+            return 0;
+        }
+        List<Long> blocks = SequenceBlocks.reserve(entityManager, "fraud_alerts_seq", rows);
+        return entityManager
+            .createNativeQuery(CLONE_SQL.formatted(SequenceBlocks.ID, CLONED_ALERTS, SequenceBlocks.table(blocks),
+                SequenceBlocks.JOIN))
+            .setParameter("templateUserId", templateUserId)
+            .setParameter("userId", userId)
+            .setParameter("shiftSeconds", shiftSeconds)
+            .executeUpdate();
+    }
+}
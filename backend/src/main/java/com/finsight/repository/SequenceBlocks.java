@@ -0,0 +1,49 @@
+package com.finsight.repository;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Ids for set-based native inserts into tables whose entities use a pooled-lo sequence.
+ * Like Hibernate's optimizer, each sequence value {@code v} owns the ids
+ * {@code v .. v + BLOCK_SIZE - 1}, so a statement needs one value per {@value #BLOCK_SIZE}
+ * rows and never collides with blocks Hibernate has reserved.
+ *
+ * A query numbers its source rows from 1 as {@code r.rn}, joins {@link #table} on
+ * {@link #JOIN} and selects {@link #ID} as the new id.
+ */
+final class SequenceBlocks {
+
+    /** The allocationSize of the entities' {@code @SequenceGenerator}. */
+    static final int BLOCK_SIZE = 50;
+
+    static final String ID = "b.block_start + MOD(r.rn - 1, " + BLOCK_SIZE + ")";
+    static final String JOIN = "b.block_no = (r.rn - 1) / " + BLOCK_SIZE;
+
+    private SequenceBlocks() {
+    }
+
+    /**
+     * Draws enough sequence values for {@code rows} ids in a single statement.
+     */
+    static List<Long> reserve(EntityManager entityManager, String sequence, long rows) {
+        long blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        List<?> starts = entityManager.createNativeQuery(
+                "WITH RECURSIVE blocks(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM blocks WHERE n < " + blocks + ") "
+                + "SELECT nextval('" + sequence + "') FROM blocks")
+            .getResultList();
+        return starts.stream().map(start -> ((Number) start).longValue()).toList();
+    }
+
+    /**
+     * The reserved blocks as a derived table {@code b(block_no, block_start)}, numbered from 0.
+     */
+    static String table(List<Long> starts) {
+        return IntStream.range(0, starts.size())
+            .mapToObj(i -> "(" + i + ", " + starts.get(i) + ")")
+            .collect(Collectors.joining(", ", "(VALUES ", ") AS b(block_no, block_start)"));
+    }
+}
@@ -1,23 +1,43 @@
 package com.finsight.repository;
 
+import com.finsight.dto.RenewalDue;
 import com.finsight.model.Subscription;
 import com.finsight.model.SubscriptionStatus;
 import com.finsight.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long>, SubscriptionRepositoryCustom {
     List<Subscription> findByUser(User user);
     
     @Query("SELECT s FROM Subscription s WHERE s.user.id = :userId")
     List<Subscription> findByUserId(@Param("userId") Long userId);
     
+    /**
+     * Due dates of every ACTIVE subscription of a STANDARD user, for rebuilding the renewal scheduler.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.finsight.dto.RenewalDue(s.id, s.nextDueDate) FROM Subscription s " +
+           "WHERE s.status = 'ACTIVE' AND s.user.accountType = com.finsight.model.AccountType.STANDARD")
+    Stream<RenewalDue> streamActiveRenewals();
+    
+    Optional<Subscription> findByUser_IdAndMerchantKey(Long userId, String merchantKey);
+    
     List<Subscription> findByUserAndStatus(User user, SubscriptionStatus status);
     
     @Query("SELECT s FROM Subscription s WHERE s.user = :user " +
@@ -0,0 +1,23 @@
+package com.finsight.repository;
+
+import com.finsight.model.Subscription;
+
+import java.util.List;
+
+/**
+ * Set-based writes for subscriptions that Spring Data cannot derive.
+ */
+public interface SubscriptionRepositoryCustom {
+
+    /**
+     * Inserts or updates detected subscriptions by their natural key (user, merchant key)
+     * in one batched MERGE. Matched rows get the new cadence, amount and dates; their
+     * status and merchant spelling are kept, so IGNORED stays IGNORED. New rows start ACTIVE.
+     *
+     * Flushes and then clears the persistence context, like the bulk deletes, since
+     * managed subscriptions may be stale afterwards.
+     *
+     * @return the stored rows, in input order
+     */
+    List<Subscription> upsertAll(List<Subscription> detected);
+}
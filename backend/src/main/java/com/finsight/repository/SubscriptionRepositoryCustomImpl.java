@@ -0,0 +1,96 @@
+package com.finsight.repository;
+
+import com.finsight.model.Subscription;
+import com.finsight.model.SubscriptionStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class SubscriptionRepositoryCustomImpl implements SubscriptionRepositoryCustom {
+
+    /**
+     * Standard SQL MERGE, understood by H2 and PostgreSQL 15+. The source row only
+     * carries the key; the update and insert values are bound separately. New rows take
+     * their id straight from the sequence: with pooled-lo each value starts a block of
+     * ids, so this never collides with ids Hibernate has reserved.
+     */
+    private static final String MERGE_SQL = """
+        MERGE INTO subscriptions t
+        USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS VARCHAR(100)) AS merchant_key) s
+        ON t.user_id = s.user_id AND t.merchant_key = s.merchant_key
+        WHEN MATCHED THEN UPDATE SET
+            cadence = ?, avg_amount = ?, last_paid_date = ?, next_due_date = ?
+        WHEN NOT MATCHED THEN INSERT
+            (id, user_id, merchant, merchant_key, cadence, avg_amount, last_paid_date, next_due_date, status, created_at)
+            VALUES (nextval('subscriptions_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Subscription> upsertAll(List<Subscription> detected) {
+        if (detected.isEmpty()) {
+            return List.of();
+        }
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(MERGE_SQL)) {
+                for (Subscription s : detected) {
+                    Long userId = s.getUser().getId();
+                    String key = Subscription.merchantKeyOf(s.getMerchant());
+                    int i = 1;
+                    ps.setLong(i++, userId);
+                    ps.setString(i++, key);
+                    ps.setString(i++, s.getCadence().name());
+                    ps.setBigDecimal(i++, s.getAvgAmount());
+                    ps.setDate(i++, Date.valueOf(s.getLastPaidDate()));
+                    ps.setDate(i++, Date.valueOf(s.getNextDueDate()));
+                    ps.setLong(i++, userId);
+                    ps.setString(i++, s.getMerchant());
+                    ps.setString(i++, key);
+                    ps.setString(i++, s.getCadence().name());
+                    ps.setBigDecimal(i++, s.getAvgAmount());
+                    ps.setDate(i++, Date.valueOf(s.getLastPaidDate()));
+                    ps.setDate(i++, Date.valueOf(s.getNextDueDate()));
+                    ps.setString(i++, SubscriptionStatus.ACTIVE.name());
+                    ps.setTimestamp(i, Timestamp.valueOf(s.getCreatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+        entityManager.clear();
+
+        Set<Long> userIds = detected.stream().map(s -> s.getUser().getId()).collect(Collectors.toSet());
+        Set<String> keys = detected.stream().map(s -> Subscription.merchantKeyOf(s.getMerchant()))
+            .collect(Collectors.toSet());
+        Map<String, Subscription> stored = new HashMap<>();
+        entityManager.createQuery(
+                "SELECT s FROM Subscription s WHERE s.user.id IN :userIds AND s.merchantKey IN :keys",
+                Subscription.class)
+            .setParameter("userIds", userIds)
+            .setParameter("keys", keys)
+            .getResultList()
+            .forEach(s -> stored.put(s.getUser().getId() + ":" + s.getMerchantKey(), s));
+
+        List<Subscription> result = new ArrayList<>(detected.size());
+        for (Subscription s : detected) {
+            Subscription row = stored.get(s.getUser().getId() + ":" + Subscription.merchantKeyOf(s.getMerchant()));
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+}
@@ -1,12 +1,17 @@
 package com.finsight.repository;
 
+import com.finsight.dto.ExpensePoint;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,10 +19,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long>, 
-                                              JpaSpecificationExecutor<Transaction> {
+                                              JpaSpecificationExecutor<Transaction>,
+                                              TransactionRepositoryCustom {
     List<Transaction> findByUserOrderByTransactionDateDesc(User user);
     
     Optional<Transaction> findTopByUserOrderByTransactionDateDesc(User user);
@@ -44,7 +51,37 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
     
     List<Transaction> findByUserAndType(User user, String type);
     
+    /**
+     * Streams a user's EXPENSE rows as (merchant key, date, amount), ordered by merchant
+     * key and then date, so callers can process one merchant at a time. Rows without a
+     * resolved merchant fall back to their normalized category.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT new com.finsight.dto.ExpensePoint(" +
+           "COALESCE(t.merchantKey, LOWER(TRIM(t.category))), COALESCE(t.merchantKey, t.category), " +
+           "t.transactionDate, t.amount) " +
+           "FROM Transaction t WHERE t.user.id = :userId " +
+           "AND UPPER(t.type) = 'EXPENSE' AND t.category IS NOT NULL AND TRIM(t.category) <> '' " +
+           "ORDER BY COALESCE(t.merchantKey, LOWER(TRIM(t.category))), t.transactionDate, t.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ExpensePoint> streamExpensePoints(@Param("userId") Long userId);
+    
+    @Query("SELECT DISTINCT t.merchantKey FROM Transaction t WHERE t.user.id = :userId AND t.merchantKey IS NOT NULL")
+    List<String> findDistinctMerchantKeysByUserId(@Param("userId") Long userId);
+    
     List<Transaction> findByUserAndTransactionDateBetween(User user, 
                                                           LocalDateTime start, 
                                                           LocalDateTime end);
+    
+    /**
+     * Deletes all of a user's transactions in one statement. Alerts referencing them must be
+     * deleted first. Pending changes are flushed before and the persistence context cleared after,
+     * so no stale managed entities survive.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
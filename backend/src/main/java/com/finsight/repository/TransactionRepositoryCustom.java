@@ -0,0 +1,19 @@
+package com.finsight.repository;
+
+/**
+ * Set-based writes for transactions that Spring Data cannot express.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Copies every transaction of the template user to another user in one statement,
+     * moving transaction and creation dates forward by {@code shiftSeconds}. Fraud scores are copied as-is.
+     *
+     * Native SQL because HQL cannot draw pooled ids inside an INSERT ... SELECT: Hibernate
+     * would stage the rows in a temporary table, and creating it commits the transaction on H2.
+     * Ids come from whole pooled-lo blocks instead, one sequence value per 50 rows.
+     *
+     * @return number of transactions copied
+     */
+    int cloneFromTemplate(Long templateUserId, Long userId, long shiftSeconds);
+}
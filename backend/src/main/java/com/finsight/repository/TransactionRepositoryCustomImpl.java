@@ -0,0 +1,42 @@
+package com.finsight.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final String CLONE_SQL = """
+        INSERT INTO transactions (id, user_id, amount, type, category, description, location, merchant_key,
+                                  transaction_date, fraudulent, fraud_score, created_at)
+        SELECT %s, u.id, r.amount, r.type, r.category, r.description, r.location, r.merchant_key,
+               r.transaction_date + CAST(:shiftSeconds AS BIGINT) * INTERVAL '1' SECOND, r.fraudulent, r.fraud_score,
+               r.created_at + CAST(:shiftSeconds AS BIGINT) * INTERVAL '1' SECOND
+        FROM (SELECT t.*, ROW_NUMBER() OVER (ORDER BY t.id) AS rn
+              FROM transactions t WHERE t.user_id = :templateUserId) r
+        JOIN %s ON %s
+        JOIN users u ON u.id = :userId
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int cloneFromTemplate(Long templateUserId, Long userId, long shiftSeconds) {
+        long rows = ((Number) entityManager
+            .createNativeQuery("SELECT COUNT(*) FROM transactions WHERE user_id = :templateUserId")
+            .setParameter("templateUserId", templateUserId)
+            .getSingleResult()).longValue();
+        if (rows == 0) {
+            return 0;
+        }
+        List<Long> blocks = SequenceBlocks.reserve(entityManager, "transactions_seq", rows);
+        return entityManager
+            .createNativeQuery(CLONE_SQL.formatted(SequenceBlocks.ID, SequenceBlocks.table(blocks), SequenceBlocks.JOIN))
+            .setParameter("templateUserId", templateUserId)
+            .setParameter("userId", userId)
+            .setParameter("shiftSeconds", shiftSeconds)
+            .executeUpdate();
+    }
+}
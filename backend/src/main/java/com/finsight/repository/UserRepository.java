@@ -1,9 +1,14 @@
 package com.finsight.repository;
 
+import com.finsight.model.AccountType;
 import com.finsight.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +20,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    Optional<User> findFirstByAccountTypeOrderByIdAsc(AccountType accountType);
+    
+    /**
+     * Keyset page of STANDARD user ids: the next {@code page.getPageSize()} ids after
+     * {@code afterId}. Unlike offset paging, the cost per page does not grow with how far in it is.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId " +
+           "AND u.accountType = com.finsight.model.AccountType.STANDARD ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable page);
 }
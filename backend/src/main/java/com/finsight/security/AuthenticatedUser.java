@@ -0,0 +1,29 @@
+package com.finsight.security;
+
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal placed in the SecurityContext by {@link JwtAuthenticationFilter}.
+ * Controllers read the caller's user ID from here instead of trusting a request parameter.
+ */
+@Value
+public class AuthenticatedUser {
+    Long userId;
+    String username;
+    Set<String> roles;
+
+    public static AuthenticatedUser from(JwtClaims claims) {
+        return new AuthenticatedUser(claims.getUserId(), claims.getUsername(), claims.getRoles());
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.finsight.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Immutable view of a verified token's claims. Safe to share between requests,
+ * which is what allows {@link JwtUtil} to cache it.
+ */
+@Value
+@Builder
+public class JwtClaims {
+    Long userId;
+    String username;
+    Set<String> roles;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
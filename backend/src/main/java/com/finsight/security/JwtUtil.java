@@ -1,68 +1,122 @@
 package com.finsight.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final Map<String, JwtClaims> verifiedTokens;
     
-    @Value("${jwt.expiration}")
-    private Long expiration;
-    
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.cache-size:1024}") int cacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+        this.verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JwtClaims> eldest) {
+                return size() > cacheSize;
+            }
+        });
     }
     
-    public String generateToken(Long userId, String username) {
+    public String generateToken(Long userId, String username, Collection<String> roles) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
+        claims.put("roles", List.copyOf(roles));
         
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     *
+     * Verified tokens are kept in a small LRU cache until their own expiry, so a
+     * client repeating the same bearer token skips signature verification. The
+     * cache is keyed on the full token string, so a hash collision can never
+     * return another token's claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with, expired or has no
+     *         expiry (every token this class issues has one, and it bounds the cache entry)
+     */
+    public JwtClaims parse(String token) {
+        JwtClaims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.isExpired(Instant.now())) {
+                verifiedTokens.remove(token);
+            } else {
+                return cached;
+            }
+        }
+        
+        Claims body = parser.parseClaimsJws(token).getBody();
+        if (body.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        JwtClaims claims = JwtClaims.builder()
+                .userId(body.get("userId", Long.class))
+                .username(body.getSubject())
+                .roles(readRoles(body))
+                .expiresAt(body.getExpiration().toInstant())
+                .build();
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+    
+    private Set<String> readRoles(Claims body) {
+        List<?> roles = body.get("roles", List.class);
+        if (roles == null) {
+            return Set.of();
+        }
+        return roles.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+    
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("userId", Long.class);
+        return parse(token).getUserId();
     }
     
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parse(token).getUsername();
     }
     
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parse(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -6,8 +6,9 @@ import com.finsight.dto.SignupRequest;
 import com.finsight.model.User;
 import com.finsight.repository.UserRepository;
 import com.finsight.security.JwtUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,18 +17,56 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Signup and login.
+ *
+ * Metrics: {@code auth.signup} and {@code auth.login} timers, tagged outcome=success|failure|overloaded.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuthService {
     
+    static final String RESERVED_USERNAME_PREFIX = "__";
+    
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final DemoDataService demoDataService;
+    private final DemoSeedJobService demoSeedJobService;
+    private final OutcomeTimer signupTimer;
+    private final OutcomeTimer loginTimer;
+    
+    // Usernames that are granted ADMIN when they sign up
+    @Value("${admin.usernames:}")
+    private Set<String> adminUsernames = Set.of();
+    
+    public AuthService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       JwtUtil jwtUtil,
+                       DemoSeedJobService demoSeedJobService,
+                       MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtil = jwtUtil;
+        this.demoSeedJobService = demoSeedJobService;
+        this.signupTimer = new OutcomeTimer(meterRegistry, "auth.signup", "Signup requests");
+        this.loginTimer = new OutcomeTimer(meterRegistry, "auth.login", "Login requests");
+    }
     
     @Transactional
     public AuthResponse signup(SignupRequest request) {
+        return signupTimer.record(() -> register(request));
+    }
+    
+    public AuthResponse login(LoginRequest request) {
+        return loginTimer.record(() -> authenticate(request));
+    }
+    
+    private AuthResponse register(SignupRequest request) {
+        // Names starting with "__" are reserved for internal accounts
+        if (request.getUsername().startsWith(RESERVED_USERNAME_PREFIX)) {
+            throw new RuntimeException("Username is reserved");
+        }
+        
         // Check if username already exists
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
             throw new RuntimeException("Username already exists");
@@ -41,6 +80,9 @@ public class AuthService {
         // Create new user
         Set<String> roles = new HashSet<>();
         roles.add("USER");
+        if (adminUsernames.contains(request.getUsername())) {
+            roles.add("ADMIN");
+        }
         
         User user = User.builder()
                 .username(request.getUsername())
@@ -53,16 +95,16 @@ public class AuthService {
         user = userRepository.save(user);
         log.info("New user registered: {}", user.getUsername());
         
-        // Generate demo data for new user
+        // Demo data is generated in the background once this transaction commits;
+        // progress is available from GET /api/transactions/seed-status
         try {
-            int transactionsCreated = demoDataService.seedUserIfEmpty(user.getId());
-            log.info("Generated {} demo transactions for new user: {}", transactionsCreated, user.getId());
+            demoSeedJobService.enqueue(user.getId());
         } catch (Exception e) {
-            log.warn("Failed to generate demo data for user {}: {}", user.getId(), e.getMessage());
+            log.warn("Failed to queue demo data for user {}: {}", user.getId(), e.getMessage());
         }
         
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getId(), user.getUsername());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRoles());
         
         return AuthResponse.builder()
                 .userId(user.getId())
@@ -73,7 +115,7 @@ public class AuthService {
                 .build();
     }
     
-    public AuthResponse login(LoginRequest request) {
+    private AuthResponse authenticate(LoginRequest request) {
         // Find user by username
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
@@ -86,7 +128,7 @@ public class AuthService {
         log.info("User logged in: {}", user.getUsername());
         
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getId(), user.getUsername());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRoles());
         
         return AuthResponse.builder()
                 .userId(user.getId())
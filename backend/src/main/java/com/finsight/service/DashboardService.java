@@ -4,9 +4,10 @@ import com.finsight.dto.DashboardSummary;
 import com.finsight.dto.TimeSeriesPoint;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
+import com.finsight.observability.DashboardBuildEvent;
 import com.finsight.repository.TransactionRepository;
 import com.finsight.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -18,13 +19,27 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard aggregates over a user's transactions.
+ *
+ * Metrics: {@code dashboard.summary} timer, tagged outcome=success|failure|overloaded.
+ * Each build also emits a {@link DashboardBuildEvent} to Flight Recorder.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DashboardService {
     
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final OutcomeTimer summaryTimer;
+    
+    public DashboardService(TransactionRepository transactionRepository,
+                            UserRepository userRepository,
+                            MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.summaryTimer = new OutcomeTimer(meterRegistry, "dashboard.summary", "Dashboard summary builds");
+    }
     
     /**
      * Generates dashboard summary with aggregated metrics.
@@ -35,10 +50,17 @@ public class DashboardService {
      * @return DashboardSummary with all metrics
      */
     public DashboardSummary getSummary(Long userId, LocalDate startDate, LocalDate endDate) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        return summaryTimer.record(() -> buildSummary(userId, startDate, endDate));
+    }
+    
+    private DashboardSummary buildSummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        DashboardBuildEvent event = new DashboardBuildEvent();
+        event.begin();
+        long started = System.nanoTime();
+        User user = userRepository.getReferenceById(userId);
         
         List<Transaction> transactions = getFilteredTransactions(user, startDate, endDate);
+        long loaded = System.nanoTime();
         
         BigDecimal totalIncome = calculateTotalIncome(transactions);
         BigDecimal totalExpenses = calculateTotalExpenses(transactions);
@@ -51,6 +73,14 @@ public class DashboardService {
         Map<String, Long> fraudByCategory = getFraudByCategory(transactions);
         List<TimeSeriesPoint> spendingTrends = getSpendingTrends(transactions);
         
+        if (event.shouldCommit()) {
+            event.setUserId(userId);
+            event.setRows(transactions.size());
+            event.setAggregationDuration(System.nanoTime() - loaded);
+            event.setLoadDuration(loaded - started);
+            event.commit();
+        }
+        
         return DashboardSummary.builder()
             .totalIncome(totalIncome)
             .totalExpenses(totalExpenses)
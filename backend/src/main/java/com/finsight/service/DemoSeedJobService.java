@@ -0,0 +1,143 @@
+package com.finsight.service;
+
+import com.finsight.dto.DemoSeedStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs demo-data seeding for new users in the background.
+ *
+ * Signup only enqueues the job; a small fixed pool does the work, so concurrent
+ * signups share a bounded number of threads and DB connections instead of each
+ * holding a request thread for the whole seeding run. Finished statuses stay
+ * queryable for {@code demo-seed.status-retention} and are then evicted.
+ */
+@Service
+@Slf4j
+public class DemoSeedJobService {
+
+    private final DemoDataService demoDataService;
+    private final Duration statusRetention;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, DemoSeedStatus> statuses = new ConcurrentHashMap<>();
+
+    public DemoSeedJobService(DemoDataService demoDataService,
+                              @Value("${demo-seed.pool-size:2}") int poolSize,
+                              @Value("${demo-seed.queue-capacity:500}") int queueCapacity,
+                              @Value("${demo-seed.status-retention:60m}") Duration statusRetention) {
+        this.demoDataService = demoDataService;
+        this.statusRetention = statusRetention;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "demo-seed-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues demo seeding for a user. When called inside a transaction (signup),
+     * the job is only submitted after commit so the worker can see the new user row.
+     */
+    public void enqueue(Long userId) {
+        statuses.put(userId, DemoSeedStatus.pending(userId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        submit(userId);
+                    } else {
+                        statuses.remove(userId);
+                    }
+                }
+            });
+        } else {
+            submit(userId);
+        }
+    }
+
+    public Optional<DemoSeedStatus> getStatus(Long userId) {
+        return Optional.ofNullable(statuses.get(userId));
+    }
+
+    /**
+     * A finished status describes data that no longer exists once the user's data is reset.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataReset(UserDataResetEvent event) {
+        statuses.computeIfPresent(event.userId(), (id, status) -> status.isFinished() ? null : status);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Long userId) {
+        try {
+            executor.execute(() -> run(userId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Demo seeding queue full, skipping demo data for user {}", userId);
+            fail(userId, "Demo seeding queue is full");
+        }
+    }
+
+    private void run(Long userId) {
+        update(userId, DemoSeedStatus::running);
+        try {
+            int created = demoDataService.seedUserIfEmpty(userId, (processed, total) ->
+                    update(userId, status -> status.progress(processed, total)));
+            update(userId, status -> status.done(created));
+            log.info("Generated {} demo transactions for user {}", created, userId);
+        } catch (Exception e) {
+            log.warn("Failed to generate demo data for user {}: {}", userId, e.getMessage());
+            fail(userId, e.getMessage());
+        }
+    }
+
+    private void fail(Long userId, String message) {
+        update(userId, status -> status.failed(message));
+    }
+
+    private void update(Long userId, UnaryOperator<DemoSeedStatus> change) {
+        statuses.computeIfPresent(userId, (id, current) -> change.apply(current));
+    }
+
+    /**
+     * Keeps the status map bounded: finished jobs are only queryable for a while,
+     * whether or not new signups arrive.
+     *
+     * @return number of statuses evicted
+     */
+    @Scheduled(fixedDelayString = "${demo-seed.eviction-interval-millis:60000}")
+    public int evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(statusRetention);
+        int before = statuses.size();
+        statuses.values().removeIf(status -> status.isFinished() && status.updatedAt().isBefore(cutoff));
+        return before - statuses.size();
+    }
+}
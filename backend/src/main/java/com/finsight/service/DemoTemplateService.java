@@ -0,0 +1,367 @@
+package com.finsight.service;
+
+import com.finsight.dto.FraudDetectionResult;
+import com.finsight.model.AccountType;
+import com.finsight.model.FraudAlert;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.FraudAlertRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Owns the pre-scored demo dataset that new users are seeded from.
+ *
+ * The dataset is generated and fraud-scored once per calendar month under a hidden
+ * template user. {@link DemoDataService} then copies it to each user with set-based
+ * INSERT ... SELECT statements instead of generating and scoring rows per user.
+ */
+@Service
+@Slf4j
+public class DemoTemplateService {
+
+    // Signup rejects the "__" prefix; the row itself is found by account type
+    static final String TEMPLATE_USERNAME = "__demo_template__";
+    private static final String TEMPLATE_EMAIL = "demo-template@finsight.invalid";
+    // Not a BCrypt hash, so the template account can never log in
+    private static final String DISABLED_PASSWORD = "!disabled";
+    private static final long TEMPLATE_SEED = 42L;
+
+    private static final String[] CATEGORIES = {
+        "groceries", "utilities", "entertainment", "transport", "subscriptions", "salary", "rent"
+    };
+
+    /**
+     * A generated template: whose rows to copy, when they were generated (dates are
+     * shifted relative to this) and how many transactions it holds.
+     */
+    public record DemoTemplate(Long userId, LocalDateTime generatedAt, int transactionCount) {
+        YearMonth window() {
+            return YearMonth.from(generatedAt);
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final FraudDetectionService fraudDetectionService;
+    private final FraudAlertRepository fraudAlertRepository;
+    private final TransactionTemplate requiresNew;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile DemoTemplate current;
+
+    public DemoTemplateService(TransactionRepository transactionRepository,
+                               UserRepository userRepository,
+                               FraudDetectionService fraudDetectionService,
+                               FraudAlertRepository fraudAlertRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.fraudDetectionService = fraudDetectionService;
+        this.fraudAlertRepository = fraudAlertRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the template for the current month, generating it first if needed.
+     *
+     * Generation commits in its own transaction before this returns, so the caller's
+     * INSERT ... SELECT sees the rows. Concurrent callers wait for a single generation.
+     */
+    public DemoTemplate ensureTemplate() {
+        YearMonth window = YearMonth.now();
+        DemoTemplate template = current;
+        if (template != null && template.window().equals(window)) {
+            return template;
+        }
+
+        lock.lock();
+        try {
+            template = current;
+            if (template == null || !template.window().equals(window)) {
+                template = requiresNew.execute(status -> loadOrGenerate(window));
+                current = template;
+            }
+            return template;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DemoTemplate loadOrGenerate(YearMonth window) {
+        User templateUser = userRepository.findFirstByAccountTypeOrderByIdAsc(AccountType.DEMO_TEMPLATE).orElse(null);
+
+        // A persistent database may already hold this month's template from a previous run
+        if (templateUser != null && YearMonth.from(templateUser.getCreatedAt()).equals(window)) {
+            int count = transactionRepository.countByUser(templateUser).intValue();
+            log.info("Reusing demo template generated at {} ({} transactions)", templateUser.getCreatedAt(), count);
+            return new DemoTemplate(templateUser.getId(), templateUser.getCreatedAt(), count);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (templateUser == null) {
+            templateUser = User.builder()
+                .username(TEMPLATE_USERNAME)
+                .email(TEMPLATE_EMAIL)
+                .password(DISABLED_PASSWORD)
+                .accountType(AccountType.DEMO_TEMPLATE)
+                .build();
+        } else {
+            fraudAlertRepository.deleteByUserId(templateUser.getId());
+            transactionRepository.deleteByUserId(templateUser.getId());
+        }
+        templateUser.setCreatedAt(now);
+        templateUser = userRepository.save(templateUser);
+
+        int count = generate(templateUser, now);
+        return new DemoTemplate(templateUser.getId(), now, count);
+    }
+
+    /**
+     * Generates and scores the demo transactions. Runs once per month, so the per-row
+     * save/score/save cycle is kept: each score depends on the history saved before it.
+     */
+    private int generate(User user, LocalDateTime now) {
+        Random random = new Random(TEMPLATE_SEED);
+
+        List<Transaction> demoTransactions = generateDemoTransactions(user, random, now);
+
+        int fraudAlertCount = 0;
+
+        for (Transaction txn : demoTransactions) {
+            // Save transaction FIRST (required for fraud detection to work)
+            txn = transactionRepository.save(txn);
+
+            FraudDetectionResult result = fraudDetectionService.analyzeTransaction(txn);
+
+            txn.setFraudulent(result.isFraudulent());
+            txn.setFraudScore(result.getFraudScore());
+            txn = transactionRepository.save(txn);
+
+            // Create fraud alert only for MEDIUM and HIGH severity (score >= 40)
+            if (result.getFraudScore() >= 40 && !result.getReasons().isEmpty()) {
+                createFraudAlert(txn, result);
+                fraudAlertCount++;
+            }
+        }
+
+        log.info("Generated demo template: {} transactions ({} fraud alerts) for window {}",
+            demoTransactions.size(), fraudAlertCount, YearMonth.from(now));
+
+        return demoTransactions.size();
+    }
+
+    private void createFraudAlert(Transaction transaction, FraudDetectionResult fraudResult) {
+        FraudAlert alert = FraudAlert.builder()
+            .user(transaction.getUser())
+            .transaction(transaction)
+            .message(String.format("Suspicious transaction detected: %s",
+                String.join(", ", fraudResult.getReasons())))
+            .severity(fraudResult.getRiskLevel())
+            .resolved(false)
+            .createdAt(LocalDateTime.now())
+            .build();
+
+        fraudAlertRepository.save(alert);
+        log.warn("Created fraud alert for transaction {} with severity {}",
+            transaction.getId(), fraudResult.getRiskLevel());
+    }
+
+    private List<Transaction> generateDemoTransactions(User user, Random random, LocalDateTime now) {
+        List<Transaction> transactions = new ArrayList<>();
+        Set<LocalDateTime> usedDates = new HashSet<>();
+
+        // Generate transactions across 12 months for better trend analysis
+        int[] transactionsPerMonth = {12, 14, 15, 16, 18, 20, 22, 24, 25, 26, 28, 30}; // Increasing trend over 12 months
+
+        log.info("Starting demo transaction generation. Current date: {}", now);
+
+        for (int monthIndex = 0; monthIndex < 12; monthIndex++) {
+            int monthsBack = 11 - monthIndex; // Go back 11 months from current month
+            LocalDateTime monthStart = now.minusMonths(monthsBack)
+                .withDayOfMonth(1)
+                .withHour(0)
+                .withMinute(0)
+                .withSecond(0)
+                .withNano(0);
+
+            int daysInMonth = monthStart.toLocalDate().lengthOfMonth();
+            int txnCount = transactionsPerMonth[monthIndex];
+
+            log.info("Generating {} transactions for month: {} {}", txnCount, monthStart.getMonth(), monthStart.getYear());
+            for (int i = 0; i < txnCount; i++) {
+                int dayOfMonth = 1 + random.nextInt(daysInMonth);
+                int hour = 8 + random.nextInt(14); // 8 AM - 10 PM
+                int minute = random.nextInt(60);
+
+                LocalDateTime txnDate = monthStart
+                    .withDayOfMonth(dayOfMonth)
+                    .withHour(hour)
+                    .withMinute(minute);
+
+                // Skip transactions that would be in the future
+                if (txnDate.isAfter(now)) {
+                    log.debug("Skipping future transaction date: {}", txnDate);
+                    continue;
+                }
+
+                // Cloned alerts are matched back to their transaction by date, so keep dates unique
+                while (!usedDates.add(txnDate)) {
+                    txnDate = txnDate.minusMinutes(1);
+                }
+
+                Transaction txn = Transaction.builder()
+                    .user(user)
+                    .createdAt(txnDate)
+                    .build();
+
+                txn.setTransactionDate(txnDate);
+
+                String category = selectRandomCategory(random);
+                txn.setCategory(category);
+                txn.setAmount(generateAmountForCategory(category, random));
+                txn.setType(category.equals("salary") ? "INCOME" : "EXPENSE");
+                txn.setDescription("Demo " + category);
+                txn.setLocation("Demo Location " + (random.nextInt(3) + 1));
+
+                transactions.add(txn);
+
+                if (i == 0) {
+                    log.info("  First transaction date: {} {}", txnDate.getMonth(), txnDate.getYear());
+                }
+            }
+        }
+
+        log.info("Generated {} total transactions across 12 months", transactions.size());
+
+        addFraudTriggers(transactions, user, random);
+
+        return transactions;
+    }
+
+    private String selectRandomCategory(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 40) return "groceries";
+        if (roll < 55) return "utilities";
+        if (roll < 70) return "entertainment";
+        if (roll < 80) return "transport";
+        if (roll < 90) return "subscriptions";
+        if (roll < 95) return "salary";
+        return "rent";
+    }
+
+    private BigDecimal generateAmountForCategory(String category, Random random) {
+        return switch (category) {
+            case "groceries" -> BigDecimal.valueOf(20 + random.nextInt(131)); // 20-150
+            case "utilities" -> BigDecimal.valueOf(50 + random.nextInt(251)); // 50-300
+            case "entertainment" -> BigDecimal.valueOf(10 + random.nextInt(91)); // 10-100
+            case "transport" -> BigDecimal.valueOf(10 + random.nextInt(71)); // 10-80
+            case "subscriptions" -> BigDecimal.valueOf(5 + random.nextInt(46)); // 5-50
+            case "salary" -> BigDecimal.valueOf(2000 + random.nextInt(3001)); // 2000-5000
+            case "rent" -> BigDecimal.valueOf(800 + random.nextInt(1201)); // 800-2000
+            default -> BigDecimal.valueOf(50 + random.nextInt(101)); // 50-150
+        };
+    }
+
+    private void addFraudTriggers(List<Transaction> transactions, User user, Random random) {
+        if (transactions.isEmpty()) return;
+
+        int totalTxns = transactions.size();
+
+        // Scenario 1
+        if (totalTxns >= 5) {
+            int idx = 2;
+            Transaction highAmountTxn = transactions.get(idx);
+            highAmountTxn.setAmount(BigDecimal.valueOf(5000 + random.nextInt(3001)));
+            highAmountTxn.setCategory("luxury_electronics");
+            highAmountTxn.setDescription("Demo: Expensive electronics purchase");
+            log.debug("Fraud scenario 1 at index {} on date {}", idx, highAmountTxn.getTransactionDate());
+        }
+
+        // Scenario 2
+        if (totalTxns >= 15) {
+            int idx = 12;
+            Transaction txn = transactions.get(idx);
+            txn.setAmount(BigDecimal.valueOf(6000 + random.nextInt(2001)));
+            txn.setCategory("jewelry_luxury");
+            txn.setDescription("Demo: Luxury jewelry purchase");
+            log.debug("Fraud scenario 2 at index {} on date {}", idx, txn.getTransactionDate());
+        }
+
+        // Scenario 3
+        if (totalTxns >= 30) {
+            int idx = 25;
+            Transaction fraudTxn = transactions.get(idx);
+            fraudTxn.setAmount(BigDecimal.valueOf(9000 + random.nextInt(3001)));
+            fraudTxn.setCategory("crypto_exchange");
+            fraudTxn.setDescription("Demo: Large crypto exchange transaction");
+            fraudTxn.setLocation("Foreign Location");
+            log.debug("Fraud scenario 3 at index {} on date {}", idx, fraudTxn.getTransactionDate());
+        }
+
+        // Scenario 4
+        if (totalTxns >= 35) {
+            int idx1 = 28;
+            int idx2 = 29;
+            Transaction txn1 = transactions.get(idx1);
+            txn1.setAmount(BigDecimal.valueOf(7500));
+            txn1.setCategory("offshore_wire");
+            txn1.setDescription("Demo: Offshore wire transfer");
+            txn1.setLocation("International");
+
+            Transaction txn2 = transactions.get(idx2);
+            txn2.setAmount(BigDecimal.valueOf(8200));
+            txn2.setCategory("precious_metals");
+            txn2.setDescription("Demo: Precious metals purchase");
+            txn2.setLocation("International");
+
+            log.debug("Fraud scenario 4 at indices {},{} on dates {}, {}", 
+                idx1, idx2, txn1.getTransactionDate(), txn2.getTransactionDate());
+        }
+
+        // Scenario 5
+        if (totalTxns >= 45) {
+            int idx1 = 42;
+            int idx2 = 44;
+            int idx3 = 46;
+
+            if (idx3 < totalTxns) {
+                Transaction txn1 = transactions.get(idx1);
+                txn1.setAmount(BigDecimal.valueOf(10000 + random.nextInt(5001)));
+                txn1.setCategory("art_collectibles");
+                txn1.setDescription("Demo: High-value art purchase");
+                txn1.setLocation("Auction House");
+
+                Transaction txn2 = transactions.get(idx2);
+                txn2.setAmount(BigDecimal.valueOf(12000 + random.nextInt(3001)));
+                txn2.setCategory("luxury_vehicle_deposit");
+                txn2.setDescription("Demo: Luxury vehicle deposit");
+                txn2.setLocation("Dealership");
+
+                Transaction txn3 = transactions.get(idx3);
+                txn3.setAmount(BigDecimal.valueOf(15000 + random.nextInt(5001)));
+                txn3.setCategory("investment_offshore");
+                txn3.setDescription("Demo: Offshore investment");
+                txn3.setLocation("Foreign Bank");
+
+                log.debug("Fraud scenario 5 at indices {},{},{} on dates {}, {}, {}", 
+                    idx1, idx2, idx3, txn1.getTransactionDate(), txn2.getTransactionDate(), txn3.getTransactionDate());
+            }
+        }
+    }
+}
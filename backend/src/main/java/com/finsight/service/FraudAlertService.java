@@ -27,8 +27,7 @@ public class FraudAlertService {
      * Retrieves fraud alerts with optional filtering.
      */
     public List<FraudAlertDto> findByUser(Long userId, Boolean resolved, String severity) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        User user = userRepository.getReferenceById(userId);
         
         List<FraudAlert> alerts;
         
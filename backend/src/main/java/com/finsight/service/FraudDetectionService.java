@@ -1,11 +1,14 @@
 package com.finsight.service;
 
+import com.finsight.dto.FraudDecisionTrace;
 import com.finsight.dto.FraudDetectionResult;
 import com.finsight.model.RiskLevel;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
+import com.finsight.observability.FraudScoringEvent;
 import com.finsight.repository.TransactionRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,14 +16,62 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Rule-based fraud scoring.
+ *
+ * Metrics: {@code fraud.analysis} timer tagged risk=low|medium|high, and {@code fraud.rule}
+ * timer per rule tagged rule=high_amount|rapid_fire|geo_anomaly|unusual_category and
+ * outcome=triggered|passed|skipped.
+ *
+ * Each analysis also emits a {@link FraudScoringEvent} to Flight Recorder with the user,
+ * the rules fired and the time spent in each rule, so slow scorings can be traced without
+ * per-rule logging. The result carries a {@link FraudDecisionTrace} with the evidence
+ * each rule looked at; nothing is logged per transaction except HIGH scores.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FraudDetectionService {
     
+    private enum Rule {
+        HIGH_AMOUNT, RAPID_FIRE, GEO_ANOMALY, UNUSUAL_CATEGORY;
+        
+        final String tag = name().toLowerCase();
+    }
+    
+    private enum RuleOutcome {
+        TRIGGERED, PASSED, SKIPPED;
+        
+        final String tag = name().toLowerCase();
+    }
+    
     private final TransactionRepository transactionRepository;
+    private final Map<RiskLevel, Timer> analysisTimers = new EnumMap<>(RiskLevel.class);
+    private final Timer[][] ruleTimers = new Timer[Rule.values().length][RuleOutcome.values().length];
+    
+    public FraudDetectionService(TransactionRepository transactionRepository, MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        for (RiskLevel risk : RiskLevel.values()) {
+            analysisTimers.put(risk, Timer.builder("fraud.analysis")
+                .description("Fraud scoring of one transaction")
+                .tag("risk", risk.name().toLowerCase())
+                .register(meterRegistry));
+        }
+        for (Rule rule : Rule.values()) {
+            for (RuleOutcome outcome : RuleOutcome.values()) {
+                ruleTimers[rule.ordinal()][outcome.ordinal()] = Timer.builder("fraud.rule")
+                    .description("Evaluation of one fraud rule")
+                    .tag("rule", rule.tag)
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry);
+            }
+        }
+    }
     
     /**
      * Analyzes a transaction and computes fraud score using rule-based algorithm.
@@ -32,71 +83,86 @@ public class FraudDetectionService {
      * - Unusual category (never used): +20 points
      * 
      * @param transaction The transaction to analyze (already saved in database)
-     * @return FraudDetectionResult with score, risk level, and reasons
+     * @return FraudDetectionResult with score, risk level, reasons and decision trace
      */
     public FraudDetectionResult analyzeTransaction(Transaction transaction) {
+        FraudScoringEvent event = new FraudScoringEvent();
+        event.begin();
+        long analysisStarted = System.nanoTime();
         double score = 0.0;
         List<String> reasons = new ArrayList<>();
+        long[] ruleNanos = new long[Rule.values().length];
+        StringJoiner rulesFired = new StringJoiner(",");
         
         User user = transaction.getUser();
         LocalDateTime transactionTime = transaction.getTransactionDate();
-        
-        log.info("=== Starting fraud detection for transaction {} ===", transaction.getId());
-        log.info("Amount: {}, Category: {}, Location: {}, Time: {}", 
-            transaction.getAmount(), transaction.getCategory(), 
-            transaction.getLocation(), transactionTime);
+        FraudDecisionTrace trace = FraudDecisionTrace.builder()
+            .transactionId(transaction.getId())
+            .userId(user != null ? user.getId() : null)
+            .amount(transaction.getAmount())
+            .type(transaction.getType())
+            .category(transaction.getCategory())
+            .location(transaction.getLocation())
+            .transactionDate(transactionTime)
+            .build();
         
         // Rule 1: High Amount Anomaly (>3x average) - +30 points
+        long ruleStarted = System.nanoTime();
+        RuleOutcome outcome;
         BigDecimal userAvg = calculateUserAverage(user);
-        log.info("Rule 1 - High Amount: User average = {}", userAvg);
+        trace.setUserAverage(userAvg);
         if (userAvg != null && userAvg.compareTo(BigDecimal.ZERO) > 0) {
             BigDecimal threshold = userAvg.multiply(BigDecimal.valueOf(3));
-            log.info("Rule 1 - Threshold (3x avg) = {}, Transaction amount = {}", threshold, transaction.getAmount());
             if (transaction.getAmount().compareTo(threshold) > 0) {
                 score += 30;
                 reasons.add(String.format("Amount $%.2f exceeds 3x user average $%.2f", 
                     transaction.getAmount(), userAvg));
-                log.warn("Rule 1 TRIGGERED: High amount anomaly (+30 points)");
+                outcome = RuleOutcome.TRIGGERED;
             } else {
-                log.info("Rule 1 NOT triggered: Amount within normal range");
+                outcome = RuleOutcome.PASSED;
             }
         } else {
-            log.info("Rule 1 SKIPPED: No previous transactions to calculate average");
+            // No previous transactions to calculate an average from
+            outcome = RuleOutcome.SKIPPED;
         }
+        recordRule(Rule.HIGH_AMOUNT, 30, outcome, ruleStarted, ruleNanos, rulesFired, trace);
         
         // Rule 2: Rapid-Fire Activity (5+ transactions in 10 minutes) - +25 points
-        log.info("Rule 2 - Checking rapid-fire activity...");
-        if (hasRapidFireActivity(user, transactionTime)) {
+        ruleStarted = System.nanoTime();
+        if (hasRapidFireActivity(user, transactionTime, trace)) {
             score += 25;
             reasons.add("5 or more transactions within 10 minutes");
-            log.warn("Rule 2 TRIGGERED: Rapid-fire activity (+25 points)");
+            outcome = RuleOutcome.TRIGGERED;
         } else {
-            log.info("Rule 2 NOT triggered: Less than 5 transactions in 10-minute window");
+            outcome = RuleOutcome.PASSED;
         }
+        recordRule(Rule.RAPID_FIRE, 25, outcome, ruleStarted, ruleNanos, rulesFired, trace);
         
         // Rule 3: Geographical Anomaly (different location < 2 hours) - +25 points
-        log.info("Rule 3 - Checking geographical anomaly, location: {}", transaction.getLocation());
+        ruleStarted = System.nanoTime();
         if (transaction.getLocation() != null && !transaction.getLocation().isBlank()) {
-            if (hasGeographicalAnomaly(user, transaction.getLocation(), transactionTime)) {
+            if (hasGeographicalAnomaly(user, transaction.getLocation(), transactionTime, trace)) {
                 score += 25;
                 reasons.add("Different location within 2 hours of previous transaction");
-                log.warn("Rule 3 TRIGGERED: Geographical anomaly (+25 points)");
+                outcome = RuleOutcome.TRIGGERED;
             } else {
-                log.info("Rule 3 NOT triggered: No geographical anomaly detected");
+                outcome = RuleOutcome.PASSED;
             }
         } else {
-            log.info("Rule 3 SKIPPED: No location provided");
+            outcome = RuleOutcome.SKIPPED;
         }
+        recordRule(Rule.GEO_ANOMALY, 25, outcome, ruleStarted, ruleNanos, rulesFired, trace);
         
         // Rule 4: Unusual Category (never used before) - +20 points
-        log.info("Rule 4 - Checking unusual category: {}", transaction.getCategory());
-        if (isUnusualCategory(user, transaction.getCategory())) {
+        ruleStarted = System.nanoTime();
+        if (isUnusualCategory(user, transaction.getCategory(), trace)) {
             score += 20;
             reasons.add(String.format("First time using category: %s", transaction.getCategory()));
-            log.warn("Rule 4 TRIGGERED: Unusual category (+20 points)");
+            outcome = RuleOutcome.TRIGGERED;
         } else {
-            log.info("Rule 4 NOT triggered: Category has been used before");
+            outcome = RuleOutcome.PASSED;
         }
+        recordRule(Rule.UNUSUAL_CATEGORY, 20, outcome, ruleStarted, ruleNanos, rulesFired, trace);
         
         // Ensure score is within bounds [0, 100]
         score = Math.min(100.0, Math.max(0.0, score));
@@ -107,30 +173,52 @@ public class FraudDetectionService {
         // 2. Score >= 40 (MEDIUM or HIGH severity)
         boolean fraudulent = "EXPENSE".equals(transaction.getType()) && score >= 40;
         
-        log.info("=== Fraud detection complete: Score = {}, Risk = {}, Fraudulent = {} ===", 
-            score, riskLevel, fraudulent);
-        
         if (score >= 70) {
             log.warn("HIGH FRAUD SCORE: {} for transaction {}. Reasons: {}", 
                 score, transaction.getId(), String.join("; ", reasons));
-        } else if (score >= 40) {
-            log.info("MEDIUM FRAUD SCORE: {} for transaction {}. Reasons: {}", 
-                score, transaction.getId(), String.join("; ", reasons));
-        } else if (score > 0) {
-            log.info("LOW FRAUD SCORE: {} for transaction {}. Reasons: {}", 
-                score, transaction.getId(), String.join("; ", reasons));
-        } else {
-            log.info("NO FRAUD DETECTED: Score = 0 for transaction {}", transaction.getId());
         }
         
+        long analysisNanos = System.nanoTime() - analysisStarted;
+        analysisTimers.get(riskLevel).record(analysisNanos, TimeUnit.NANOSECONDS);
+        trace.setScore(score);
+        trace.setRiskLevel(riskLevel.name());
+        trace.setFraudulent(fraudulent);
+        trace.setEvaluatedAt(LocalDateTime.now());
+        trace.setDurationMicros(TimeUnit.NANOSECONDS.toMicros(analysisNanos));
+        if (event.shouldCommit()) {
+            event.setUserId(user != null && user.getId() != null ? user.getId() : 0L);
+            event.setTransactionId(transaction.getId() != null ? transaction.getId() : 0L);
+            event.setScore(score);
+            event.setRiskLevel(riskLevel.name());
+            event.setRulesFired(rulesFired.toString());
+            event.setHighAmountDuration(ruleNanos[Rule.HIGH_AMOUNT.ordinal()]);
+            event.setRapidFireDuration(ruleNanos[Rule.RAPID_FIRE.ordinal()]);
+            event.setGeoAnomalyDuration(ruleNanos[Rule.GEO_ANOMALY.ordinal()]);
+            event.setUnusualCategoryDuration(ruleNanos[Rule.UNUSUAL_CATEGORY.ordinal()]);
+            event.commit();
+        }
         return FraudDetectionResult.builder()
             .fraudulent(fraudulent)
             .fraudScore(score)
             .riskLevel(riskLevel)
             .reasons(reasons)
+            .trace(trace)
             .build();
     }
     
+    private void recordRule(Rule rule, int points, RuleOutcome outcome, long startedNanos,
+                            long[] ruleNanos, StringJoiner rulesFired, FraudDecisionTrace trace) {
+        long nanos = System.nanoTime() - startedNanos;
+        ruleNanos[rule.ordinal()] = nanos;
+        ruleTimers[rule.ordinal()][outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        boolean triggered = outcome == RuleOutcome.TRIGGERED;
+        if (triggered) {
+            rulesFired.add(rule.tag);
+        }
+        trace.getRules().add(new FraudDecisionTrace.RuleEvaluation(
+            rule.tag, outcome.tag, triggered ? points : 0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+    
     /**
      * Calculates user's average transaction amount.
      */
@@ -142,15 +230,14 @@ public class FraudDetectionService {
      * Checks for rapid-fire transactions (5+ within 10 minutes).
      * The transaction being analyzed is already saved in the database.
      */
-    private boolean hasRapidFireActivity(User user, LocalDateTime transactionTime) {
+    private boolean hasRapidFireActivity(User user, LocalDateTime transactionTime, FraudDecisionTrace trace) {
         LocalDateTime tenMinutesAgo = transactionTime.minusMinutes(10);
         LocalDateTime tenMinutesAfter = transactionTime.plusMinutes(10);
         
         // Count all transactions in a 10-minute window around this transaction
         long recentCount = transactionRepository.countByUserAndTransactionDateBetween(
             user, tenMinutesAgo, tenMinutesAfter);
-        
-        log.info("Rapid-fire check: {} transactions in 10-minute window (need 5+)", recentCount);
+        trace.setTransactionsInWindow(recentCount);
         
         return recentCount >= 5; // 5 or more transactions in 10-minute window
     }
@@ -158,30 +245,25 @@ public class FraudDetectionService {
     /**
      * Checks for geographical anomalies (different location within 2 hours).
      */
-    private boolean hasGeographicalAnomaly(User user, String location, LocalDateTime transactionTime) {
+    private boolean hasGeographicalAnomaly(User user, String location, LocalDateTime transactionTime,
+                                           FraudDecisionTrace trace) {
         List<Transaction> recentTransactions = transactionRepository
             .findByUserOrderByTransactionDateDesc(user);
         
         // Find the most recent transaction before this one that has a location
         for (Transaction prevTxn : recentTransactions) {
             if (prevTxn.getLocation() != null && !prevTxn.getLocation().isBlank()) {
+                trace.setPreviousLocation(prevTxn.getLocation());
+                trace.setPreviousTransactionDate(prevTxn.getTransactionDate());
                 long hoursBetween = ChronoUnit.HOURS.between(
                     prevTxn.getTransactionDate(), transactionTime);
                 
-                log.info("Geo check: Previous location = {}, Current location = {}, Hours between = {}", 
-                    prevTxn.getLocation(), location, hoursBetween);
-                
                 boolean differentLocation = !location.equalsIgnoreCase(prevTxn.getLocation());
                 boolean withinTwoHours = Math.abs(hoursBetween) < 2;
                 
-                log.info("Geo check: Different location = {}, Within 2 hours = {}", 
-                    differentLocation, withinTwoHours);
-                
                 return differentLocation && withinTwoHours;
             }
         }
-        
-        log.info("Geo check: No previous transaction with location found");
         return false;
     }
     
@@ -190,13 +272,10 @@ public class FraudDetectionService {
      * Since the transaction is already saved, we need to check if this is the ONLY
      * transaction with this category.
      */
-    private boolean isUnusualCategory(User user, String category) {
+    private boolean isUnusualCategory(User user, String category, FraudDecisionTrace trace) {
         List<String> userCategories = transactionRepository
             .findDistinctCategoriesByUser(user);
         
-        log.info("Category check: User has used {} categories: {}", 
-            userCategories.size(), userCategories);
-        
         // If this category appears in the list, check if it's only from the current transaction
         if (userCategories.contains(category)) {
             // Count how many transactions have this category
@@ -206,15 +285,14 @@ public class FraudDetectionService {
             long categoryCount = allUserTransactions.stream()
                 .filter(t -> category.equals(t.getCategory()))
                 .count();
-            
-            log.info("Category check: Category '{}' used {} times", category, categoryCount);
+            trace.setCategoryUses(categoryCount);
             
             // If only 1 transaction has this category, it's the current one (unusual)
             return categoryCount == 1;
         }
         
         // Category not in list at all (shouldn't happen since transaction is saved)
-        log.info("Category check: Category '{}' not in list (unusual)", category);
+        trace.setCategoryUses(0L);
         return true;
     }
     
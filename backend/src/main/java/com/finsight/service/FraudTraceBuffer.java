@@ -0,0 +1,116 @@
+package com.finsight.service;
+
+import com.finsight.dto.FraudDecisionTrace;
+import com.finsight.model.RiskLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Recent fraud decision traces, kept in memory so scoring stays explainable without
+ * logging every transaction.
+ *
+ * Traces of flagged transactions (MEDIUM or HIGH risk) are always kept; others are kept
+ * with probability {@code sample-rate}. Each kind has its own ring of {@code capacity}
+ * entries, so a burst of sampled traces never pushes out flagged ones. Traces are lost
+ * on restart.
+ *
+ * Metrics: {@code fraud.traces} counter, tagged kept=flagged|sampled|dropped.
+ */
+@Component
+public class FraudTraceBuffer {
+
+    private final double sampleRate;
+    private final Ring flagged;
+    private final Ring sampled;
+    private final Counter flaggedCounter;
+    private final Counter sampledCounter;
+    private final Counter droppedCounter;
+
+    public FraudTraceBuffer(@Value("${fraud-trace.capacity:1000}") int capacity,
+                            @Value("${fraud-trace.sample-rate:0.01}") double sampleRate,
+                            MeterRegistry meterRegistry) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("fraud-trace.capacity must be positive");
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("fraud-trace.sample-rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.flagged = new Ring(capacity);
+        this.sampled = new Ring(capacity);
+        this.flaggedCounter = counter(meterRegistry, "flagged");
+        this.sampledCounter = counter(meterRegistry, "sampled");
+        this.droppedCounter = counter(meterRegistry, "dropped");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String kept) {
+        return Counter.builder("fraud.traces")
+            .description("Fraud decision traces offered to the trace buffer")
+            .tag("kept", kept)
+            .register(meterRegistry);
+    }
+
+    /** @return true if the trace was kept */
+    public boolean offer(FraudDecisionTrace trace) {
+        if (!RiskLevel.LOW.name().equals(trace.getRiskLevel())) {
+            flagged.add(trace);
+            flaggedCounter.increment();
+            return true;
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampled.add(trace);
+            sampledCounter.increment();
+            return true;
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Kept traces, newest first.
+     *
+     * @param userId only this user's traces, or all when null
+     * @param flaggedOnly skip sampled LOW-risk traces
+     */
+    public List<FraudDecisionTrace> recent(Long userId, boolean flaggedOnly, int limit) {
+        List<FraudDecisionTrace> traces = new ArrayList<>();
+        flagged.collect(userId, traces);
+        if (!flaggedOnly) {
+            sampled.collect(userId, traces);
+        }
+        traces.sort(Comparator.comparing(FraudDecisionTrace::getEvaluatedAt).reversed());
+        return traces.size() > limit ? new ArrayList<>(traces.subList(0, limit)) : traces;
+    }
+
+    private static final class Ring {
+        private final FraudDecisionTrace[] slots;
+        private int next;
+        private int size;
+
+        private Ring(int capacity) {
+            this.slots = new FraudDecisionTrace[capacity];
+        }
+
+        synchronized void add(FraudDecisionTrace trace) {
+            slots[next] = trace;
+            next = (next + 1) % slots.length;
+            size = Math.min(size + 1, slots.length);
+        }
+
+        synchronized void collect(Long userId, List<FraudDecisionTrace> into) {
+            for (int i = 0; i < size; i++) {
+                FraudDecisionTrace trace = slots[i];
+                if (userId == null || userId.equals(trace.getUserId())) {
+                    into.add(trace);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.finsight.service;
+
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationResult;
+import com.finsight.dto.LoadGenerationStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs admin load generation in the background, one run at a time.
+ *
+ * The request thread only validates and queues the run; progress and the final
+ * {@link LoadGenerationResult} are read back from {@link #getStatus()}. Only the
+ * latest run's status is kept.
+ */
+@Service
+@Slf4j
+public class LoadGenerationJobService {
+
+    private final LoadGeneratorService loadGeneratorService;
+    private final ExecutorService executor;
+    private final AtomicReference<LoadGenerationStatus> status = new AtomicReference<>();
+
+    public LoadGenerationJobService(LoadGeneratorService loadGeneratorService) {
+        this.loadGeneratorService = loadGeneratorService;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-gen-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Validates and queues a run.
+     *
+     * @throws IllegalArgumentException if the request exceeds the total transaction cap
+     * @throws IllegalStateException    if a run is already pending or running
+     */
+    public LoadGenerationStatus start(LoadGenerationRequest request) {
+        loadGeneratorService.validate(request);
+
+        LoadGenerationStatus pending = LoadGenerationStatus.pending(request);
+        LoadGenerationStatus previous = status.getAndUpdate(current ->
+            current == null || current.isFinished() ? pending : current);
+        if (previous != null && !previous.isFinished()) {
+            throw new IllegalStateException("Load generation is already running");
+        }
+
+        executor.execute(() -> run(request));
+        return pending;
+    }
+
+    public Optional<LoadGenerationStatus> getStatus() {
+        return Optional.ofNullable(status.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(LoadGenerationRequest request) {
+        update(LoadGenerationStatus::running);
+        try {
+            LoadGenerationResult result = loadGeneratorService.generate(request,
+                // Workers report concurrently, so counts can arrive out of order
+                usersDone -> update(current -> current.progress(Math.max(current.usersCompleted(), usersDone))));
+            update(current -> current.done(result));
+        } catch (Exception e) {
+            log.warn("Load generation failed: {}", e.getMessage());
+            update(current -> current.failed(e.getMessage()));
+        }
+    }
+
+    private void update(UnaryOperator<LoadGenerationStatus> change) {
+        status.updateAndGet(change);
+    }
+}
@@ -0,0 +1,348 @@
+package com.finsight.service;
+
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationResult;
+import com.finsight.model.AccountType;
+import com.finsight.model.FraudAlert;
+import com.finsight.model.RiskLevel;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.FraudAlertRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates large synthetic multi-user datasets for benchmarks and capacity tests.
+ *
+ * Each user is written in its own transaction on a run-scoped worker pool, with
+ * transactions inserted in chunks that are flushed and cleared so memory stays flat
+ * however many rows a user gets. Rows are pre-labelled rather than scored: fraud
+ * scenarios are injected at the requested rate with a fixed high score and an alert.
+ * Every user gets its own Random derived from the seed, so output does not depend
+ * on thread scheduling. Generated users are SYNTHETIC accounts, which the nightly
+ * subscription refresh and renewal reminders skip.
+ */
+@Service
+@Slf4j
+public class LoadGeneratorService {
+
+    // Not a BCrypt hash, so generated accounts can never log in
+    private static final String DISABLED_PASSWORD = "!disabled";
+
+    private static final Map<String, Integer> DEFAULT_CATEGORY_WEIGHTS = defaultCategoryWeights();
+
+    private static final Set<String> INCOME_CATEGORIES = Set.of("salary");
+
+    private static final String[][] FRAUD_SCENARIOS = {
+        {"luxury_electronics", "Expensive electronics purchase"},
+        {"jewelry_luxury", "Luxury jewelry purchase"},
+        {"crypto_exchange", "Large crypto exchange transaction"},
+        {"offshore_wire", "Offshore wire transfer"},
+        {"precious_metals", "Precious metals purchase"},
+        {"investment_offshore", "Offshore investment"}
+    };
+
+    private static final int HOME_LOCATIONS = 3;
+    private static final int REMOTE_LOCATIONS = 500;
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final FraudAlertRepository fraudAlertRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int batchSize;
+    private final long maxTotalTransactions;
+
+    public LoadGeneratorService(UserRepository userRepository,
+                                TransactionRepository transactionRepository,
+                                FraudAlertRepository fraudAlertRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${load-generator.parallelism:0}") int parallelism,
+                                @Value("${load-generator.batch-size:500}") int batchSize,
+                                @Value("${load-generator.max-total-transactions:10000000}") long maxTotalTransactions) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.fraudAlertRepository = fraudAlertRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxTotalTransactions = maxTotalTransactions;
+    }
+
+    /**
+     * Rejects requests whose users × transactionsPerUser exceeds
+     * {@code load-generator.max-total-transactions}; each factor alone is capped by validation.
+     */
+    public void validate(LoadGenerationRequest request) {
+        long total = (long) request.getUsers() * request.getTransactionsPerUser();
+        if (total > maxTotalTransactions) {
+            throw new IllegalArgumentException(String.format(
+                "Requested %,d transactions in total; the limit is %,d", total, maxTotalTransactions));
+        }
+    }
+
+    /**
+     * Creates the requested users and their transactions and waits for all of them.
+     *
+     * Users that finished before a failure stay committed; the failure is rethrown.
+     */
+    public LoadGenerationResult generate(LoadGenerationRequest request) {
+        return generate(request, usersDone -> { });
+    }
+
+    /**
+     * As {@link #generate(LoadGenerationRequest)}, reporting the number of users committed
+     * so far after each one.
+     */
+    public LoadGenerationResult generate(LoadGenerationRequest request, IntConsumer progress) {
+        validate(request);
+        long started = System.nanoTime();
+        Map<String, Integer> weights = request.getCategoryWeights() == null || request.getCategoryWeights().isEmpty()
+            ? DEFAULT_CATEGORY_WEIGHTS
+            : request.getCategoryWeights();
+        CategoryPicker categories = new CategoryPicker(weights);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        // Keeps usernames unique across runs with the same seed
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        AtomicInteger usersDone = new AtomicInteger();
+        List<Callable<UserOutcome>> tasks = new ArrayList<>(request.getUsers());
+        for (int i = 0; i < request.getUsers(); i++) {
+            int index = i;
+            tasks.add(() -> {
+                UserOutcome outcome = transactionTemplate.execute(status ->
+                    generateUser(request, categories, now, runId, index));
+                progress.accept(usersDone.incrementAndGet());
+                return outcome;
+            });
+        }
+
+        int threads = Math.min(parallelism, request.getUsers());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "load-gen-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Long> userIds = new ArrayList<>(request.getUsers());
+        long transactions = 0;
+        long alerts = 0;
+        try {
+            for (Future<UserOutcome> future : executor.invokeAll(tasks)) {
+                UserOutcome outcome = future.get();
+                userIds.add(outcome.userId());
+                transactions += outcome.transactions();
+                alerts += outcome.alerts();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load generation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Generated {} users, {} transactions and {} fraud alerts in {} ms",
+            userIds.size(), transactions, alerts, elapsedMillis);
+
+        return LoadGenerationResult.builder()
+            .usersCreated(userIds.size())
+            .transactionsCreated(transactions)
+            .fraudAlertsCreated(alerts)
+            .userIds(userIds)
+            .elapsedMillis(elapsedMillis)
+            .build();
+    }
+
+    private UserOutcome generateUser(LoadGenerationRequest request, CategoryPicker categories,
+                                     LocalDateTime now, String runId, int index) {
+        Random random = new Random(request.getSeed() * 1_000_003L + index);
+        String username = request.getUsernamePrefix() + "-" + runId + "-" + index;
+
+        User user = userRepository.save(User.builder()
+            .username(username)
+            .email(username + "@loadgen.invalid")
+            .password(DISABLED_PASSWORD)
+            .accountType(AccountType.SYNTHETIC)
+            .roles(Set.of("USER"))
+            .createdAt(now)
+            .build());
+        Long userId = user.getId();
+
+        long spanSeconds = request.getSpanDays() * 86_400L;
+        int remaining = request.getTransactionsPerUser();
+        long alertCount = 0;
+
+        while (remaining > 0) {
+            int chunk = Math.min(batchSize, remaining);
+            List<Transaction> transactions = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                LocalDateTime date = now.minusSeconds((long) (random.nextDouble() * spanSeconds));
+                transactions.add(random.nextDouble() < request.getFraudRate()
+                    ? fraudTransaction(user, date, random)
+                    : regularTransaction(user, date, categories, request.getLocationChurn(), random));
+            }
+            transactionRepository.saveAll(transactions);
+
+            List<FraudAlert> alerts = new ArrayList<>();
+            for (Transaction transaction : transactions) {
+                if (transaction.isFraudulent()) {
+                    alerts.add(fraudAlert(transaction));
+                }
+            }
+            fraudAlertRepository.saveAll(alerts);
+            alertCount += alerts.size();
+
+            // Keep the persistence context from growing with the dataset
+            entityManager.flush();
+            entityManager.clear();
+            user = userRepository.getReferenceById(userId);
+            remaining -= chunk;
+        }
+
+        return new UserOutcome(userId, request.getTransactionsPerUser(), alertCount);
+    }
+
+    private Transaction regularTransaction(User user, LocalDateTime date, CategoryPicker categories,
+                                           double locationChurn, Random random) {
+        String category = categories.pick(random);
+        String location = random.nextDouble() < locationChurn
+            ? "Remote Location " + (1 + random.nextInt(REMOTE_LOCATIONS))
+            : "Home Location " + (1 + random.nextInt(HOME_LOCATIONS));
+
+        return Transaction.builder()
+            .user(user)
+            .amount(amountFor(category, random))
+            .type(INCOME_CATEGORIES.contains(category) ? "INCOME" : "EXPENSE")
+            .category(category)
+            .description("Synthetic " + category)
+            .location(location)
+            .transactionDate(date)
+            .fraudulent(false)
+            .fraudScore((double) random.nextInt(30))
+            .createdAt(date)
+            .build();
+    }
+
+    private Transaction fraudTransaction(User user, LocalDateTime date, Random random) {
+        String[] scenario = FRAUD_SCENARIOS[random.nextInt(FRAUD_SCENARIOS.length)];
+
+        return Transaction.builder()
+            .user(user)
+            .amount(BigDecimal.valueOf(5000 + random.nextInt(15001)))
+            .type("EXPENSE")
+            .category(scenario[0])
+            .description("Synthetic: " + scenario[1])
+            .location("Foreign Location " + (1 + random.nextInt(REMOTE_LOCATIONS)))
+            .transactionDate(date)
+            .fraudulent(true)
+            .fraudScore((double) (70 + random.nextInt(31)))
+            .createdAt(date)
+            .build();
+    }
+
+    private FraudAlert fraudAlert(Transaction transaction) {
+        return FraudAlert.builder()
+            .user(transaction.getUser())
+            .transaction(transaction)
+            .message("Suspicious transaction detected: " + transaction.getDescription())
+            .severity(RiskLevel.HIGH)
+            .resolved(false)
+            .createdAt(transaction.getTransactionDate())
+            .build();
+    }
+
+    private BigDecimal amountFor(String category, Random random) {
+        return switch (category) {
+            case "groceries" -> BigDecimal.valueOf(20 + random.nextInt(131));
+            case "utilities" -> BigDecimal.valueOf(50 + random.nextInt(251));
+            case "entertainment" -> BigDecimal.valueOf(10 + random.nextInt(91));
+            case "transport" -> BigDecimal.valueOf(10 + random.nextInt(71));
+            case "subscriptions" -> BigDecimal.valueOf(5 + random.nextInt(46));
+            case "salary" -> BigDecimal.valueOf(2000 + random.nextInt(3001));
+            case "rent" -> BigDecimal.valueOf(800 + random.nextInt(1201));
+            default -> BigDecimal.valueOf(10 + random.nextInt(191));
+        };
+    }
+
+    private static Map<String, Integer> defaultCategoryWeights() {
+        // Same mix as the demo data
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("groceries", 40);
+        weights.put("utilities", 15);
+        weights.put("entertainment", 15);
+        weights.put("transport", 10);
+        weights.put("subscriptions", 10);
+        weights.put("salary", 5);
+        weights.put("rent", 5);
+        return weights;
+    }
+
+    private record UserOutcome(Long userId, long transactions, long alerts) {
+    }
+
+    /**
+     * Weighted category choice via cumulative weights.
+     */
+    private static final class CategoryPicker {
+        private final String[] categories;
+        private final int[] cumulative;
+
+        CategoryPicker(Map<String, Integer> weights) {
+            categories = new String[weights.size()];
+            cumulative = new int[weights.size()];
+            int total = 0;
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                if (entry.getValue() == null || entry.getValue() < 0) {
+                    throw new IllegalArgumentException("Category weight must be non-negative: " + entry.getKey());
+                }
+                total += entry.getValue();
+                categories[i] = entry.getKey();
+                cumulative[i] = total;
+                i++;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("At least one category weight must be positive");
+            }
+        }
+
+        String pick(Random random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return categories[i];
+                }
+            }
+            return categories[categories.length - 1];
+        }
+    }
+}
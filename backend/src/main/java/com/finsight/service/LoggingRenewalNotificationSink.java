@@ -0,0 +1,20 @@
+package com.finsight.service;
+
+import com.finsight.dto.RenewalNotification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default sink until a delivery channel (email, push) exists: writes each reminder to the log.
+ */
+@Component
+@Slf4j
+public class LoggingRenewalNotificationSink implements RenewalNotificationSink {
+
+    @Override
+    public void send(RenewalNotification notification) {
+        log.info("User {}: subscription '{}' ({}) {} on {}", notification.userId(), notification.merchant(),
+                notification.amount(), notification.kind() == RenewalNotification.Kind.DUE ? "renews" : "renews soon",
+                notification.dueDate());
+    }
+}
@@ -0,0 +1,79 @@
+package com.finsight.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free-text transaction descriptions into a canonical merchant string and
+ * compares them by character trigrams. Pure functions; see {@link MerchantResolver}
+ * for the per-user clustering built on top.
+ */
+final class MerchantNormalizer {
+
+    /** Tokens that say how someone paid, not who they paid. */
+    private static final Set<String> NOISE = Set.of(
+        "pos", "purchase", "payment", "pymt", "card", "visa", "mastercard", "amex", "debit", "credit",
+        "ref", "txn", "trx", "online", "recurring", "subscription", "autopay", "direct", "www", "com",
+        "net", "org", "inc", "ltd", "llc", "co", "the", "bill", "charge", "transfer", "via");
+
+    private static final int MAX_TOKENS = 3;
+
+    private MerchantNormalizer() {
+    }
+
+    /**
+     * Lower-cases, drops digits, punctuation, payment noise and short fragments, and keeps
+     * the first few remaining words: {@code "NETFLIX.COM 866-579 CA"} becomes {@code "netflix"}.
+     *
+     * @return the canonical merchant, or null if nothing meaningful is left
+     */
+    static String canonicalize(String description) {
+        if (description == null || description.isBlank()) {
+            return null;
+        }
+        String[] raw = description.toLowerCase(Locale.ROOT).replaceAll("[^a-z]+", " ").trim().split(" ");
+        List<String> tokens = new ArrayList<>(MAX_TOKENS);
+        for (String token : raw) {
+            if (token.length() >= 3 && !NOISE.contains(token)) {
+                tokens.add(token);
+                if (tokens.size() == MAX_TOKENS) {
+                    break;
+                }
+            }
+        }
+        return tokens.isEmpty() ? null : String.join(" ", tokens);
+    }
+
+    /** Character trigrams of the canonical string, padded so short names still produce some. */
+    static Set<String> trigrams(String canonical) {
+        String padded = " " + canonical + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Jaccard similarity of two trigram sets, 0 to 1: shared trigrams over all trigrams.
+     * Extra words count against a match, so a brand and its sub-brand ("amazon" and
+     * "amazon prime") stay apart while typos and truncations still match.
+     */
+    static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String gram : smaller) {
+            if (larger.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+}
@@ -0,0 +1,123 @@
+package com.finsight.service;
+
+import com.finsight.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns each transaction a stable merchant key derived from its description.
+ *
+ * Descriptions are canonicalized ({@link MerchantNormalizer}) and then matched against
+ * the user's known merchants by trigram similarity, so "SPOTIFY P1234" and
+ * "Spotify AB" share one key. The first spelling seen becomes the key and is stored on
+ * the transaction, so keys survive restarts; a user's known merchants are seeded from
+ * their stored keys on first use. Resolved descriptions are cached per user, for at
+ * most {@code merchant.cache-users} recently active users.
+ */
+@Service
+@Slf4j
+public class MerchantResolver {
+
+    private final TransactionRepository transactionRepository;
+    private final double similarityThreshold;
+    private final int cacheSize;
+    private final Map<Long, UserMerchants> merchantsByUser;
+
+    public MerchantResolver(TransactionRepository transactionRepository,
+                            @Value("${merchant.similarity-threshold:0.7}") double similarityThreshold,
+                            @Value("${merchant.cache-size:1000}") int cacheSize,
+                            @Value("${merchant.cache-users:10000}") int cacheUsers) {
+        this.transactionRepository = transactionRepository;
+        this.similarityThreshold = similarityThreshold;
+        this.cacheSize = cacheSize;
+        this.merchantsByUser = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserMerchants> eldest) {
+                return size() > cacheUsers;
+            }
+        });
+    }
+
+    /**
+     * Returns the merchant key for a description, or null when the description carries
+     * no merchant (blank, or only digits and payment noise).
+     */
+    public String resolve(Long userId, String description) {
+        String canonical = MerchantNormalizer.canonicalize(description);
+        if (canonical == null) {
+            return null;
+        }
+        UserMerchants merchants = merchantsByUser.get(userId);
+        if (merchants == null) {
+            // Loaded outside the map's lock so one user's query does not stall the others
+            UserMerchants loaded = loadKnownMerchants(userId);
+            merchants = merchantsByUser.putIfAbsent(userId, loaded);
+            if (merchants == null) {
+                merchants = loaded;
+            }
+        }
+        synchronized (merchants) {
+            return merchants.resolved.computeIfAbsent(canonical, merchants::cluster);
+        }
+    }
+
+    /**
+     * Known merchants may have been replaced wholesale.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataReset(UserDataResetEvent event) {
+        merchantsByUser.remove(event.userId());
+    }
+
+    private UserMerchants loadKnownMerchants(Long userId) {
+        UserMerchants merchants = new UserMerchants();
+        for (String key : transactionRepository.findDistinctMerchantKeysByUserId(userId)) {
+            merchants.clusters.add(new Cluster(key, MerchantNormalizer.trigrams(key)));
+            merchants.resolved.put(key, key);
+        }
+        log.debug("User {}: loaded {} known merchants", userId, merchants.clusters.size());
+        return merchants;
+    }
+
+    private record Cluster(String key, Set<String> trigrams) {
+    }
+
+    private final class UserMerchants {
+        private final List<Cluster> clusters = new ArrayList<>();
+        private final Map<String, String> resolved = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+        /** Best-matching known merchant above the threshold, else a new merchant keyed by this string. */
+        private String cluster(String canonical) {
+            Set<String> grams = MerchantNormalizer.trigrams(canonical);
+            Cluster best = null;
+            double bestScore = similarityThreshold;
+            for (Cluster cluster : clusters) {
+                double score = MerchantNormalizer.similarity(grams, cluster.trigrams());
+                if (score >= bestScore) {
+                    best = cluster;
+                    bestScore = score;
+                }
+            }
+            if (best != null) {
+                return best.key();
+            }
+            clusters.add(new Cluster(canonical, grams));
+            return canonical;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.finsight.service;
+
+import com.finsight.dto.ExpensePoint;
+import com.finsight.model.BillingCadence;
+import com.finsight.model.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Running evidence for one (user, merchant) pair, enough to decide whether it is a
+ * recurring payment without looking at the transactions again.
+ *
+ * Only a compact summary is kept: a histogram of day gaps between consecutive
+ * payments, the last payment date and the amount range. Its size depends on the
+ * number of distinct gap lengths, not on the number of payments. Payments must
+ * arrive in date order; {@link #add} refuses one dated before the last payment's
+ * day, and the caller rebuilds from history instead. Evaluation walks the distinct
+ * gap lengths only: the median gap picks the cadence, and the share of gaps inside
+ * that cadence's band is the regularity. Not thread-safe; callers synchronize per user.
+ */
+class MerchantSpendState {
+
+    /** Share of gaps that must fall inside the cadence's band. */
+    static final double MIN_REGULARITY = 0.75;
+
+    private final TreeMap<Long, Integer> gapCounts = new TreeMap<>();
+    private int payments;
+    private int gaps;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private LocalDateTime firstDate;
+    private BigDecimal firstAmount;
+    private String displayName;
+    private LocalDateTime lastDate;
+
+    /**
+     * @return false, leaving the state unchanged, if the payment is dated before the
+     *         last payment's day
+     */
+    boolean add(Transaction transaction) {
+        String displayName = transaction.getMerchantKey() != null ? transaction.getMerchantKey() : transaction.getCategory();
+        return add(transaction.getTransactionDate(), transaction.getAmount(), displayName);
+    }
+
+    /** Points streamed in date order always fit. */
+    void add(ExpensePoint point) {
+        add(point.date(), point.amount(), point.displayName());
+    }
+
+    private boolean add(LocalDateTime date, BigDecimal amount, String name) {
+        LocalDate day = date.toLocalDate();
+        if (lastDate != null) {
+            LocalDate lastDay = lastDate.toLocalDate();
+            if (day.isBefore(lastDay)) {
+                return false;
+            }
+            // Another payment on the last day is a zero-day gap
+            addGap(ChronoUnit.DAYS.between(lastDay, day));
+        }
+        payments++;
+
+        if (minAmount == null || amount.compareTo(minAmount) < 0) minAmount = amount;
+        if (maxAmount == null || amount.compareTo(maxAmount) > 0) maxAmount = amount;
+
+        if (firstDate == null || date.isBefore(firstDate)) {
+            firstDate = date;
+            firstAmount = amount;
+            displayName = name;
+        }
+        if (lastDate == null || date.isAfter(lastDate)) {
+            lastDate = date;
+        }
+        return true;
+    }
+
+    private void addGap(long days) {
+        gapCounts.merge(days, 1, Integer::sum);
+        gaps++;
+    }
+
+    /**
+     * The cadence this series repeats at, if it is a recurring payment: the median gap
+     * falls in a cadence band, enough payments were seen for that cadence, at least
+     * {@link #MIN_REGULARITY} of gaps are in the band, and all amounts are within the
+     * tolerance of each other.
+     */
+    Optional<BillingCadence> cadence(double amountTolerancePercent) {
+        if (gaps == 0 || amountVariancePercent() > amountTolerancePercent) {
+            return Optional.empty();
+        }
+        BillingCadence cadence = BillingCadence.fromGap(medianGapDays());
+        if (cadence == null || payments < cadence.getMinPayments() || regularity(cadence) < MIN_REGULARITY) {
+            return Optional.empty();
+        }
+        return Optional.of(cadence);
+    }
+
+    boolean isSubscription(double amountTolerancePercent) {
+        return cadence(amountTolerancePercent).isPresent();
+    }
+
+    /** Lower median of the gaps between consecutive payments, in days; -1 with fewer than two payments. */
+    long medianGapDays() {
+        if (gaps == 0) {
+            return -1;
+        }
+        int target = (gaps - 1) / 2;
+        int seen = 0;
+        for (Map.Entry<Long, Integer> entry : gapCounts.entrySet()) {
+            seen += entry.getValue();
+            if (seen > target) {
+                return entry.getKey();
+            }
+        }
+        return gapCounts.lastKey();
+    }
+
+    /** Share of gaps inside the cadence's band, 0 to 1. */
+    double regularity(BillingCadence cadence) {
+        if (gaps == 0) {
+            return 0.0;
+        }
+        int inBand = 0;
+        for (int count : gapCounts.subMap((long) cadence.getMinGapDays(), true,
+                (long) cadence.getMaxGapDays(), true).values()) {
+            inBand += count;
+        }
+        return (double) inBand / gaps;
+    }
+
+    double amountVariancePercent() {
+        if (minAmount == null || minAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0.0;
+        }
+        return maxAmount.subtract(minAmount)
+            .divide(minAmount, 6, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(100))
+            .doubleValue();
+    }
+
+    int payments() {
+        return payments;
+    }
+
+    /** Amount of the earliest payment; amounts are fixed once the rules pass. */
+    BigDecimal fixedAmount() {
+        return firstAmount;
+    }
+
+    /** Merchant key, or category as spelled on the earliest payment. */
+    String displayName() {
+        return displayName;
+    }
+
+    LocalDateTime lastPaidAt() {
+        return lastDate;
+    }
+
+    BigDecimal minAmount() {
+        return minAmount;
+    }
+
+    BigDecimal maxAmount() {
+        return maxAmount;
+    }
+}
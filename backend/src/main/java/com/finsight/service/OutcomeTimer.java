@@ -0,0 +1,49 @@
+package com.finsight.service;
+
+import com.finsight.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * A timer split by how the call ended: {@code outcome=success}, {@code overloaded} (a
+ * bounded resource refused the work) or {@code failure} (any other exception). All three
+ * series are registered up front so they are scraped as zero before the first call.
+ */
+final class OutcomeTimer {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer success;
+    private final Timer overloaded;
+    private final Timer failure;
+
+    OutcomeTimer(MeterRegistry meterRegistry, String name, String description) {
+        this.meterRegistry = meterRegistry;
+        this.success = register(meterRegistry, name, description, "success");
+        this.overloaded = register(meterRegistry, name, description, "overloaded");
+        this.failure = register(meterRegistry, name, description, "failure");
+    }
+
+    <T> T record(Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            sample.stop(success);
+            return result;
+        } catch (ServiceOverloadedException e) {
+            sample.stop(overloaded);
+            throw e;
+        } catch (RuntimeException e) {
+            sample.stop(failure);
+            throw e;
+        }
+    }
+
+    private static Timer register(MeterRegistry meterRegistry, String name, String description, String outcome) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
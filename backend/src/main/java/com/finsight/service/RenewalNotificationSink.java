@@ -0,0 +1,12 @@
+package com.finsight.service;
+
+import com.finsight.dto.RenewalNotification;
+
+/**
+ * Delivers renewal reminders fired by {@link RenewalReminderService}. Called from the
+ * scheduler thread, once per reminder.
+ */
+public interface RenewalNotificationSink {
+
+    void send(RenewalNotification notification);
+}
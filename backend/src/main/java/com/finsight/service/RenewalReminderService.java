@@ -0,0 +1,217 @@
+package com.finsight.service;
+
+import com.finsight.dto.RenewalDue;
+import com.finsight.dto.RenewalNotification;
+import com.finsight.model.Subscription;
+import com.finsight.model.SubscriptionStatus;
+import com.finsight.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sends renewal reminders for ACTIVE subscriptions without polling the subscriptions table.
+ *
+ * Each subscription has at most one pending timer in a {@link TimingWheel}: first at the
+ * start of the day {@code lead-days} before its next due date (DUE_SOON), then at the
+ * start of the due date (DUE). Timers are loaded from the database at startup and kept in
+ * sync as subscriptions are created, ignored and (re)detected; changes made inside a
+ * transaction apply once it commits. The wheel only holds ids and deadlines, so it can
+ * always be rebuilt with {@link #rebuild()}; reminders whose time passed while the
+ * application was down are not replayed.
+ *
+ * When a timer fires the subscription is re-read, so a stale timer for a row that was
+ * since ignored, deleted or moved never produces a reminder.
+ *
+ * Metrics: {@code subscription.renewal.notifications} (tagged kind=due_soon|due).
+ */
+@Service
+@Slf4j
+public class RenewalReminderService {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final RenewalNotificationSink notificationSink;
+    private final MeterRegistry meterRegistry;
+    private final int leadDays;
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile TimingWheel<Long> wheel;
+
+    public RenewalReminderService(SubscriptionRepository subscriptionRepository,
+                                  RenewalNotificationSink notificationSink,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${renewal-reminders.lead-days:3}") int leadDays,
+                                  @Value("${renewal-reminders.tick-millis:60000}") long tickMillis,
+                                  @Value("${renewal-reminders.wheel-size:64}") int wheelSize,
+                                  @Value("${renewal-reminders.levels:4}") int levels) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.notificationSink = notificationSink;
+        this.meterRegistry = meterRegistry;
+        this.leadDays = leadDays;
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, levels, System.currentTimeMillis());
+    }
+
+    /**
+     * Replaces the wheel with one loaded from every ACTIVE subscription's due date.
+     *
+     * @return number of pending reminders
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public int rebuild() {
+        long now = System.currentTimeMillis();
+        TimingWheel<Long> rebuilt = new TimingWheel<>(tickMillis, wheelSize, levels, now);
+        try (Stream<RenewalDue> renewals = subscriptionRepository.streamActiveRenewals()) {
+            renewals.forEach(renewal -> {
+                Long deadline = nextDeadline(renewal.nextDueDate(), now);
+                if (deadline != null) {
+                    rebuilt.schedule(renewal.subscriptionId(), deadline);
+                }
+            });
+        }
+        synchronized (this) {
+            wheel = rebuilt;
+        }
+        log.info("Renewal reminders rebuilt: {} pending", rebuilt.size());
+        return rebuilt.size();
+    }
+
+    /**
+     * Schedules the next reminder for a saved subscription, or cancels it when the
+     * subscription is no longer ACTIVE.
+     */
+    public void track(Subscription subscription) {
+        Long id = subscription.getId();
+        LocalDate nextDueDate = subscription.getStatus() == SubscriptionStatus.ACTIVE
+                ? subscription.getNextDueDate() : null;
+        afterCommit(() -> {
+            Long deadline = nextDueDate != null ? nextDeadline(nextDueDate, System.currentTimeMillis()) : null;
+            synchronized (this) {
+                if (deadline != null) {
+                    wheel.schedule(id, deadline);
+                } else {
+                    wheel.cancel(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels the reminder for a deleted subscription.
+     */
+    public void untrack(Long subscriptionId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                wheel.cancel(subscriptionId);
+            }
+        });
+    }
+
+    public synchronized int pendingCount() {
+        return wheel.size();
+    }
+
+    synchronized Long pendingDeadline(Long subscriptionId) {
+        return wheel.deadlineOf(subscriptionId);
+    }
+
+    @Scheduled(fixedDelayString = "${renewal-reminders.tick-millis:60000}",
+               initialDelayString = "${renewal-reminders.tick-millis:60000}")
+    public void tick() {
+        fireDue(System.currentTimeMillis());
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and sends a reminder for every expired
+     * timer whose subscription is still ACTIVE and due.
+     *
+     * @return number of reminders sent
+     */
+    int fireDue(long nowMillis) {
+        List<Long> expired;
+        synchronized (this) {
+            expired = wheel.advanceTo(nowMillis);
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate today = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        int sent = 0;
+        for (Subscription subscription : subscriptionRepository.findAllById(expired)) {
+            if (subscription.getStatus() != SubscriptionStatus.ACTIVE) {
+                continue;
+            }
+            LocalDate dueDate = subscription.getNextDueDate();
+            if (today.isBefore(dueDate.minusDays(leadDays))) {
+                // Due date moved out while the timer was pending
+                track(subscription);
+                continue;
+            }
+            RenewalNotification.Kind kind = today.isBefore(dueDate)
+                    ? RenewalNotification.Kind.DUE_SOON : RenewalNotification.Kind.DUE;
+            if (kind == RenewalNotification.Kind.DUE_SOON) {
+                synchronized (this) {
+                    wheel.schedule(subscription.getId(), startOf(dueDate));
+                }
+            }
+            try {
+                notificationSink.send(new RenewalNotification(kind, subscription.getId(),
+                        subscription.getUser().getId(), subscription.getMerchant(),
+                        subscription.getAvgAmount(), dueDate));
+                meterRegistry.counter("subscription.renewal.notifications",
+                        "kind", kind.name().toLowerCase()).increment();
+                sent++;
+            } catch (RuntimeException e) {
+                log.warn("Renewal reminder for subscription {} failed", subscription.getId(), e);
+            }
+        }
+        log.debug("Renewal reminders: {} timers expired, {} sent", expired.size(), sent);
+        return sent;
+    }
+
+    /** The next reminder still in the future, or null once the due date has started. */
+    private Long nextDeadline(LocalDate nextDueDate, long nowMillis) {
+        long dueSoon = startOf(nextDueDate.minusDays(leadDays));
+        if (dueSoon > nowMillis) {
+            return dueSoon;
+        }
+        long due = startOf(nextDueDate);
+        return due > nowMillis ? due : null;
+    }
+
+    private long startOf(LocalDate date) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
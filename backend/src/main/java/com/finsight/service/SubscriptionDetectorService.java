@@ -1,5 +1,7 @@
 package com.finsight.service;
 
+import com.finsight.dto.ExpensePoint;
+import com.finsight.model.BillingCadence;
 import com.finsight.model.Subscription;
 import com.finsight.model.SubscriptionStatus;
 import com.finsight.model.Transaction;
@@ -7,28 +9,47 @@ import com.finsight.model.User;
 import com.finsight.repository.SubscriptionRepository;
 import com.finsight.repository.TransactionRepository;
 import com.finsight.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
-
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Recurring-payment detection, in full from history and incrementally as expenses arrive.
+ *
+ * Metrics: {@code subscriptions.detect} timer, tagged outcome=success|failure|overloaded.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SubscriptionDetectorService {
 
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final SubscriptionRepository subscriptionRepository;
+    private final RenewalReminderService renewalReminderService;
+    private final UserWriteLocks userWriteLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final OutcomeTimer detectTimer;
+
+    /**
+     * Detector state per user, keyed by merchant key. Built from the full history
+     * on the user's first expense and then kept current by {@link #onExpenseSaved}.
+     * Least recently used users are dropped past {@code subscriptions.detector-cache-users}
+     * and rebuilt on their next expense.
+     */
+    private final Map<Long, Map<String, MerchantSpendState>> stateByUser;
 
     /**
      * Maximum allowed variance between transaction amounts to still be considered
@@ -37,165 +58,270 @@ public class SubscriptionDetectorService {
      */
     private static final double AMOUNT_TOLERANCE_PERCENT = 1.0;
 
+    public SubscriptionDetectorService(TransactionRepository transactionRepository,
+                                       UserRepository userRepository,
+                                       SubscriptionRepository subscriptionRepository,
+                                       RenewalReminderService renewalReminderService,
+                                       UserWriteLocks userWriteLocks,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${subscriptions.detector-cache-users:10000}") int cacheUsers) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.renewalReminderService = renewalReminderService;
+        this.userWriteLocks = userWriteLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.detectTimer = new OutcomeTimer(meterRegistry, "subscriptions.detect", "Full subscription detection runs");
+        this.stateByUser = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<String, MerchantSpendState>> eldest) {
+                return size() > cacheUsers;
+            }
+        });
+    }
+
     /**
      * Detects subscriptions from user's transaction history.
      *
      * Strict rules — ALL must pass:
-     *   1. EXPENSE transactions grouped by category (case-insensitive).
-     *   2. Exactly ONE transaction per month in every month it appears
-     *      (categories with 2+ transactions in any month are rejected — e.g. groceries).
-     *   3. Transactions appear in at least 2 consecutive calendar months.
+     *   1. EXPENSE transactions grouped by merchant key (see {@link MerchantResolver}),
+     *      falling back to the category (case-insensitive) when the description names no merchant.
+     *   2. The median gap between payments falls in a cadence band
+     *      (weekly, monthly, quarterly or annual — see {@link BillingCadence}),
+     *      with enough payments for that cadence (3 for weekly, otherwise 2).
+     *   3. At least 75% of gaps fall in that band, so one-off or bursty spending
+     *      (several payments in a month, skipped periods) is rejected.
      *   4. All transaction amounts are identical (within 1% tolerance).
      *      Variable-spend categories (electricity bills, groceries) are rejected.
      *
+     * The next due date is projected from the last payment by the detected cadence.
+     *
+     * Each merchant is evaluated as soon as its rows have streamed past, so only one
+     * merchant's summary is held at a time. The incremental state {@link #onExpenseSaved}
+     * keeps is neither read nor replaced, and a nightly run over every user does not fill
+     * the cache.
+     *
+     * Runs under the user's write lock until it commits, like transaction creation: the
+     * MERGE and {@link #onExpenseSaved} both insert on (user, merchant key), and without the
+     * lock a concurrent expense could hit the unique key and roll back its whole request.
+     *
      * @param userId The user to analyze
      * @return List of detected/updated subscriptions
      */
-    @Transactional
     public List<Subscription> detectSubscriptions(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-        // Preserve existing subscription statuses (especially IGNORED)
-        List<Subscription> existingSubs = subscriptionRepository.findByUser(user);
-        Map<String, Subscription> existingByCategory = existingSubs.stream()
-                .collect(Collectors.toMap(
-                        s -> s.getMerchant().toLowerCase().trim(),
-                        s -> s,
-                        (s1, s2) -> s1
-                ));
-
-        // Fetch ALL transactions — case-insensitive type filter handles
-        // any casing variation ("EXPENSE", "expense", "Expense")
-        List<Transaction> allTxns = transactionRepository.findByUserOrderByTransactionDateDesc(user);
-        List<Transaction> expenses = allTxns.stream()
-                .filter(t -> t.getType() != null && t.getType().equalsIgnoreCase("EXPENSE"))
-                .filter(t -> t.getCategory() != null && !t.getCategory().isBlank())
-                .collect(Collectors.toList());
-
-        log.info("User {}: {} total transactions, {} EXPENSE transactions found",
-                userId, allTxns.size(), expenses.size());
-
-        // Group by normalized (lowercase) category
-        Map<String, List<Transaction>> byCategory = expenses.stream()
-                .collect(Collectors.groupingBy(t -> t.getCategory().toLowerCase().trim()));
+        return userWriteLocks.withLock(userId,
+            () -> transactionTemplate.execute(status -> detectTimer.record(() -> detect(userId))));
+    }
+
+    private List<Subscription> detect(Long userId) {
+        User user = userRepository.getReferenceById(userId);
 
         List<Subscription> detectedSubscriptions = new ArrayList<>();
 
-        for (Map.Entry<String, List<Transaction>> entry : byCategory.entrySet()) {
-            String normalizedCategory = entry.getKey();
-            List<Transaction> txns = entry.getValue();
+        forEachMerchant(userId, (merchantKey, state) -> {
+            Optional<BillingCadence> cadence = state.cadence(AMOUNT_TOLERANCE_PERCENT);
+            if (cadence.isEmpty()) {
+                log.debug("Merchant '{}': not recurring (payments={}, median gap={}d, amount spread={}%)",
+                        merchantKey, state.payments(), state.medianGapDays(), state.amountVariancePercent());
+                return;
+            }
 
-            // Sort ascending by date
-            txns.sort(Comparator.comparing(Transaction::getTransactionDate));
+            log.debug("Merchant '{}': {} payments, regularity {} — detected as {} subscription",
+                    merchantKey, state.payments(), state.regularity(cadence.get()), cadence.get());
 
-            // Group by calendar month
-            Map<YearMonth, List<Transaction>> byMonth = txns.stream()
-                    .collect(Collectors.groupingBy(t ->
-                            YearMonth.from(t.getTransactionDate().toLocalDate())));
+            detectedSubscriptions.add(applyEvidence(user, state, cadence.get(), null));
+        });
 
-            // ── Rule 1: Exactly ONE transaction per month ──────────────────────
-            // If any month has more than 1 transaction, this is not a subscription
-            // (e.g. groceries bought 3x a month, or utility bills with adjustments)
-            boolean multipleInAnyMonth = byMonth.values().stream()
-                    .anyMatch(monthTxns -> monthTxns.size() > 1);
+        log.info("User {}: {} subscription(s) detected/updated", userId, detectedSubscriptions.size());
+        // One batched MERGE on (user, merchant key); existing rows keep their status (especially IGNORED)
+        List<Subscription> saved = subscriptionRepository.upsertAll(detectedSubscriptions);
+        saved.forEach(renewalReminderService::track);
+        return saved;
+    }
 
-            if (multipleInAnyMonth) {
-                log.info("Category '{}': multiple transactions in a single month — not a subscription (e.g. groceries)",
-                        normalizedCategory);
-                continue;
+    /**
+     * Folds a newly saved expense into the user's detector state and reconciles the
+     * matching subscription: created or updated while the rules pass, and an ACTIVE
+     * one removed when this expense breaks a pattern that was passing. IGNORED
+     * subscriptions are left alone since they record the user's choice.
+     *
+     * Cheap once the user's state is built, as long as expenses arrive in date order; a
+     * backdated expense rebuilds the user's state from history. Must run inside the transaction
+     * that saved the expense; if it rolls back, the user's state is discarded and
+     * rebuilt on next use.
+     */
+    @Transactional
+    public void onExpenseSaved(Transaction transaction) {
+        if (!isExpense(transaction)) {
+            return;
+        }
+        Long userId = transaction.getUser().getId();
+        String merchantKey = keyOf(transaction);
+
+        boolean wasSubscription;
+        Optional<BillingCadence> cadence;
+        MerchantSpendState state;
+        boolean fromHistory = false;
+        Map<String, MerchantSpendState> byMerchant = stateByUser.get(userId);
+        if (byMerchant == null) {
+            // First sight of this user: the history already includes this expense
+            Map<String, MerchantSpendState> loaded = loadState(transaction.getUser());
+            byMerchant = stateByUser.putIfAbsent(userId, loaded);
+            if (byMerchant == null) {
+                byMerchant = loaded;
+                fromHistory = true;
             }
-
-            // From here on, exactly one transaction per month — use those directly
-            List<YearMonth> months = byMonth.keySet().stream()
-                    .sorted()
-                    .collect(Collectors.toList());
-
-            log.info("Category '{}': 1 transaction/month in months: {}", normalizedCategory, months);
-
-            // ── Rule 2: At least 2 consecutive calendar months ─────────────────
-            boolean hasConsecutiveMonths = false;
-            for (int i = 1; i < months.size(); i++) {
-                if (ChronoUnit.MONTHS.between(months.get(i - 1), months.get(i)) == 1) {
-                    hasConsecutiveMonths = true;
-                    break;
-                }
+        }
+        synchronized (byMerchant) {
+            state = byMerchant.get(merchantKey);
+            wasSubscription = !fromHistory && state != null && state.isSubscription(AMOUNT_TOLERANCE_PERCENT);
+            if (!fromHistory && state != null && !state.add(transaction)) {
+                // Backdated: the summary only extends forwards, so rebuild from history, which includes it
+                byMerchant.clear();
+                byMerchant.putAll(loadState(transaction.getUser()));
+                state = byMerchant.get(merchantKey);
             }
-
-            if (!hasConsecutiveMonths) {
-                log.info("Category '{}': no consecutive monthly pattern — skipping", normalizedCategory);
-                continue;
+            // A new merchant, or one the loaded history keyed differently from keyOf()
+            if (state == null) {
+                state = new MerchantSpendState();
+                byMerchant.put(merchantKey, state);
+                state.add(transaction);
             }
+            cadence = state.cadence(AMOUNT_TOLERANCE_PERCENT);
+        }
+        discardStateOnRollback(userId);
 
-            // ── Rule 3: Fixed amount (all transactions within 1% of each other) ─
-            // Real subscriptions (Netflix, Spotify, gym) charge the exact same amount.
-            // Variable spend (groceries, electricity) will fail this check.
-            BigDecimal minAmount = txns.stream().map(Transaction::getAmount).min(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
-            BigDecimal maxAmount = txns.stream().map(Transaction::getAmount).max(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
-
-            if (minAmount.compareTo(BigDecimal.ZERO) > 0) {
-                double variancePercent = maxAmount.subtract(minAmount)
-                        .divide(minAmount, 6, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100))
-                        .doubleValue();
-
-                if (variancePercent > AMOUNT_TOLERANCE_PERCENT) {
-                    log.info("Category '{}': amount varies {:.2f}% (min={}, max={}) — not a fixed subscription",
-                            normalizedCategory, variancePercent, minAmount, maxAmount);
-                    continue;
-                }
-            }
+        if (cadence.isEmpty() && !wasSubscription) {
+            return;
+        }
 
-            log.info("Category '{}': all rules passed ✓ — detected as subscription", normalizedCategory);
-
-            // Use the single representative transaction per month for amounts
-            // (since amounts are fixed, just use the first transaction's amount)
-            BigDecimal fixedAmount = txns.get(0).getAmount();
-
-            Transaction lastTxn = txns.get(txns.size() - 1);
-            LocalDate lastPaidDate = lastTxn.getTransactionDate().toLocalDate();
-            LocalDate nextDueDate = lastPaidDate.plusDays(30);
-
-            String displayCategory = txns.get(0).getCategory();
-
-            Subscription existing = existingByCategory.get(normalizedCategory);
-            if (existing != null) {
-                existing.setAvgAmount(fixedAmount);
-                existing.setLastPaidDate(lastPaidDate);
-                existing.setNextDueDate(nextDueDate);
-                // Do NOT touch status — preserves IGNORED
-                detectedSubscriptions.add(existing);
-                log.info("Updated '{}': amount={}, nextDue={}, status={}",
-                        displayCategory, fixedAmount, nextDueDate, existing.getStatus());
-            } else {
-                Subscription sub = Subscription.builder()
-                        .user(user)
-                        .merchant(displayCategory)
-                        .avgAmount(fixedAmount)
-                        .lastPaidDate(lastPaidDate)
-                        .nextDueDate(nextDueDate)
-                        .status(SubscriptionStatus.ACTIVE)
-                        .createdAt(LocalDateTime.now())
-                        .build();
-                detectedSubscriptions.add(sub);
-                log.info("New subscription '{}': amount={}, nextDue={}", displayCategory, fixedAmount, nextDueDate);
-            }
+        Optional<Subscription> existing =
+                subscriptionRepository.findByUser_IdAndMerchantKey(userId, merchantKey);
+
+        if (cadence.isPresent()) {
+            Subscription subscription = applyEvidence(transaction.getUser(), state, cadence.get(), existing.orElse(null));
+            subscriptionRepository.save(subscription);
+            renewalReminderService.track(subscription);
+            log.info("User {}: subscription '{}' {} from new expense", userId, subscription.getMerchant(),
+                    existing.isPresent() ? "updated" : "detected");
+        } else {
+            existing.filter(s -> s.getStatus() == SubscriptionStatus.ACTIVE).ifPresent(s -> {
+                subscriptionRepository.delete(s);
+                renewalReminderService.untrack(s.getId());
+                log.info("User {}: subscription '{}' no longer matches its pattern — removed",
+                        userId, s.getMerchant());
+            });
         }
+    }
 
-        log.info("User {}: {} subscription(s) detected/updated", userId, detectedSubscriptions.size());
-        return subscriptionRepository.saveAll(detectedSubscriptions);
+    /**
+     * Drops the user's detector state after a bulk change to their transactions.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataReset(UserDataResetEvent event) {
+        stateByUser.remove(event.userId());
     }
 
     /**
      * Finds ACTIVE subscriptions due within the specified number of days.
      */
     public List<Subscription> findDueSoon(Long userId, int days) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        User user = userRepository.getReferenceById(userId);
 
         LocalDate start = LocalDate.now();
         LocalDate end = start.plusDays(days);
 
         return subscriptionRepository.findDueSoon(user, start, end);
     }
-}
\ No newline at end of file
+
+    /** Summaries of every merchant the user has paid, for incremental detection. */
+    private Map<String, MerchantSpendState> loadState(User user) {
+        Map<String, MerchantSpendState> byMerchant = new HashMap<>();
+        forEachMerchant(user.getId(), byMerchant::put);
+        return byMerchant;
+    }
+
+    /**
+     * One pass over the user's expenses, handing over each merchant's summary as soon as
+     * its last row has been read. The query filters EXPENSE rows (any casing), resolves
+     * the grouping key and sorts by key then date, so each merchant is complete before
+     * the next one starts and neither rows nor earlier merchants are held here.
+     */
+    private void forEachMerchant(Long userId, BiConsumer<String, MerchantSpendState> onMerchant) {
+        int expenses = 0;
+        int merchants = 0;
+        try (Stream<ExpensePoint> points = transactionRepository.streamExpensePoints(userId)) {
+            String currentKey = null;
+            MerchantSpendState current = null;
+            for (Iterator<ExpensePoint> it = points.iterator(); it.hasNext(); expenses++) {
+                ExpensePoint point = it.next();
+                if (!point.merchantKey().equals(currentKey)) {
+                    if (current != null) {
+                        onMerchant.accept(currentKey, current);
+                        merchants++;
+                    }
+                    currentKey = point.merchantKey();
+                    current = new MerchantSpendState();
+                }
+                current.add(point);
+            }
+            if (current != null) {
+                onMerchant.accept(currentKey, current);
+                merchants++;
+            }
+        }
+
+        log.debug("User {}: {} EXPENSE transactions from {} merchants", userId, expenses, merchants);
+    }
+
+    private Subscription applyEvidence(User user, MerchantSpendState state, BillingCadence cadence,
+                                       Subscription existing) {
+        BigDecimal fixedAmount = state.fixedAmount();
+        LocalDate lastPaidDate = state.lastPaidAt().toLocalDate();
+        LocalDate nextDueDate = cadence.nextDueAfter(lastPaidDate);
+
+        if (existing != null) {
+            existing.setCadence(cadence);
+            existing.setAvgAmount(fixedAmount);
+            existing.setLastPaidDate(lastPaidDate);
+            existing.setNextDueDate(nextDueDate);
+            // Do NOT touch status — preserves IGNORED
+            return existing;
+        }
+        return Subscription.builder()
+                .user(user)
+                .merchant(state.displayName())
+                .cadence(cadence)
+                .avgAmount(fixedAmount)
+                .lastPaidDate(lastPaidDate)
+                .nextDueDate(nextDueDate)
+                .status(SubscriptionStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void discardStateOnRollback(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    stateByUser.remove(userId);
+                }
+            }
+        });
+    }
+
+    private static boolean isExpense(Transaction txn) {
+        return txn.getType() != null && txn.getType().equalsIgnoreCase("EXPENSE")
+                && txn.getCategory() != null && !txn.getCategory().isBlank();
+    }
+
+    /** Same key the projection query groups by. */
+    private static String keyOf(Transaction txn) {
+        return txn.getMerchantKey() != null ? txn.getMerchantKey() : txn.getCategory().toLowerCase().trim();
+    }
+}
@@ -0,0 +1,256 @@
+package com.finsight.service;
+
+import com.finsight.dto.SubscriptionRefreshStatus;
+import com.finsight.model.JobCheckpoint;
+import com.finsight.repository.JobCheckpointRepository;
+import com.finsight.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-runs subscription detection for every user on a schedule.
+ *
+ * Users are walked in id order one keyset page at a time; each page is fanned out
+ * over a fixed worker pool, and every user is detected in its own transaction so one
+ * failure does not undo or stop the others. After each page the last user id is
+ * checkpointed, so a run cut short by a restart resumes from there as soon as the
+ * application is ready again, rather than at the next scheduled run.
+ *
+ * Metrics: {@code subscription.refresh.users} (tagged outcome=success|failure),
+ * {@code subscription.refresh.user.duration} and {@code subscription.refresh.run.duration}.
+ */
+@Service
+@Slf4j
+public class SubscriptionRefreshJobService {
+
+    static final String JOB_NAME = "subscription-refresh";
+
+    private final UserRepository userRepository;
+    private final SubscriptionDetectorService subscriptionDetectorService;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ExecutorService executor;
+    private final int pageSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile SubscriptionRefreshStatus status;
+
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Timer userTimer;
+    private final Timer runTimer;
+
+    public SubscriptionRefreshJobService(UserRepository userRepository,
+                                         SubscriptionDetectorService subscriptionDetectorService,
+                                         JobCheckpointRepository checkpointRepository,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${subscription-refresh.parallelism:0}") int parallelism,
+                                         @Value("${subscription-refresh.page-size:200}") int pageSize) {
+        this.userRepository = userRepository;
+        this.subscriptionDetectorService = subscriptionDetectorService;
+        this.checkpointRepository = checkpointRepository;
+        this.pageSize = Math.max(1, pageSize);
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "subscription-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.succeeded = Counter.builder("subscription.refresh.users")
+            .tag("outcome", "success")
+            .description("Users whose subscriptions were refreshed")
+            .register(meterRegistry);
+        this.failed = Counter.builder("subscription.refresh.users")
+            .tag("outcome", "failure")
+            .description("Users whose subscription refresh failed")
+            .register(meterRegistry);
+        this.userTimer = Timer.builder("subscription.refresh.user.duration")
+            .description("Detection time per user")
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("subscription.refresh.run.duration")
+            .description("Duration of a full refresh run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${subscription-refresh.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        run();
+    }
+
+    /**
+     * Resumes a run that a shutdown or crash left in progress. The run goes to a background
+     * thread so it does not hold up startup.
+     *
+     * @return whether a run was resumed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public boolean resumeInterrupted() {
+        Optional<JobCheckpoint> checkpoint = checkpointRepository.findById(JOB_NAME)
+            .filter(JobCheckpoint::isInProgress);
+        if (checkpoint.isEmpty()) {
+            return false;
+        }
+        log.info("Subscription refresh was interrupted after user {}; resuming", checkpoint.get().getLastProcessedId());
+        Thread resume = new Thread(this::run, "subscription-refresh-resume");
+        resume.setDaemon(true);
+        resume.start();
+        return true;
+    }
+
+    /**
+     * Runs (or resumes) a refresh over all users and blocks until it finishes.
+     *
+     * @return the final status, or empty if a run was already in progress
+     */
+    public Optional<SubscriptionRefreshStatus> run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Subscription refresh already running, skipping");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(runTimer.record(this::refreshAll));
+        } finally {
+            SubscriptionRefreshStatus last = status;
+            if (last != null && last.isRunning()) {
+                status = last.toBuilder().running(false).build();
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * Status of the current or most recent run, if there has been one since startup.
+     */
+    public Optional<SubscriptionRefreshStatus> getStatus() {
+        return Optional.ofNullable(status);
+    }
+
+    private SubscriptionRefreshStatus refreshAll() {
+        long started = System.nanoTime();
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+            .orElseGet(() -> JobCheckpoint.builder().jobName(JOB_NAME).build());
+
+        boolean resumed = checkpoint.isInProgress();
+        long afterId = resumed ? checkpoint.getLastProcessedId() : 0L;
+        if (resumed) {
+            log.info("Resuming subscription refresh started at {} after user {}", checkpoint.getStartedAt(), afterId);
+        } else {
+            checkpoint.setStartedAt(LocalDateTime.now());
+            checkpoint.setLastProcessedId(0L);
+            checkpoint.setInProgress(true);
+        }
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        status = SubscriptionRefreshStatus.builder()
+            .running(true)
+            .resumed(resumed)
+            .startedAt(checkpoint.getStartedAt())
+            .lastProcessedUserId(afterId)
+            .build();
+
+        long processed = 0;
+        long failures = 0;
+        List<Long> ids;
+        while (!(ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+            List<Future<Boolean>> results = new ArrayList<>(ids.size());
+            for (Long userId : ids) {
+                results.add(executor.submit(() -> refreshUser(userId)));
+            }
+            for (Future<Boolean> result : results) {
+                if (awaitUser(result)) {
+                    processed++;
+                } else {
+                    failures++;
+                }
+            }
+
+            afterId = ids.get(ids.size() - 1);
+            checkpoint.setLastProcessedId(afterId);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpoint = checkpointRepository.save(checkpoint);
+            status = progress(started, processed, failures, afterId, true);
+        }
+
+        checkpoint.setInProgress(false);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+
+        SubscriptionRefreshStatus finished = progress(started, processed, failures, afterId, false).toBuilder()
+            .finishedAt(LocalDateTime.now())
+            .build();
+        status = finished;
+        log.info("Subscription refresh finished: {} users ({} failed) in {} ms, {} users/s",
+            processed + failures, failures, finished.getDurationMillis(),
+            String.format("%.1f", finished.getUsersPerSecond()));
+        return finished;
+    }
+
+    private boolean refreshUser(Long userId) {
+        long started = System.nanoTime();
+        try {
+            subscriptionDetectorService.detectSubscriptions(userId);
+            succeeded.increment();
+            return true;
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Subscription refresh failed for user {}: {}", userId, e.getMessage());
+            return false;
+        } finally {
+            userTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean awaitUser(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            // Leave the checkpoint in progress so the next run resumes this page
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Subscription refresh interrupted", e);
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private SubscriptionRefreshStatus progress(long started, long processed, long failures,
+                                               Long lastUserId, boolean stillRunning) {
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        long users = processed + failures;
+        return status.toBuilder()
+            .running(stillRunning)
+            .usersProcessed(processed)
+            .usersFailed(failures)
+            .lastProcessedUserId(lastUserId)
+            .durationMillis(millis)
+            .usersPerSecond(millis > 0 ? users * 1000.0 / millis : users)
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
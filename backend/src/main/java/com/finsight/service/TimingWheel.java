@@ -0,0 +1,164 @@
+package com.finsight.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel keyed by an id, one pending deadline per key.
+ *
+ * Level 0 has {@code wheelSize} slots of one tick each; every level above covers
+ * {@code wheelSize} times the span of the one below. A timer goes into the lowest
+ * level whose span reaches its deadline, so scheduling and cancelling are O(1).
+ * When a lower level wraps, the next slot of the level above is cascaded down.
+ * Deadlines past the top level wait in its farthest slot and are re-placed on each
+ * cascade.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<Set<Timer<K>>>> levels;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = new ArrayList<>(levelCount);
+        for (int level = 0; level < levelCount; level++) {
+            List<Set<Timer<K>>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}, replacing any pending
+     * deadline for it. Deadlines at or before the current tick expire on the next advance.
+     */
+    void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Timer<K> timer = new Timer<>(key, Math.max(deadlineMillis / tickMillis, currentTick + 1));
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    /** @return true if a pending timer was removed */
+    boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        timer.slot.remove(timer);
+        return true;
+    }
+
+    boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    /** Deadline of the pending timer for {@code key}, truncated to the tick, or null. */
+    Long deadlineOf(K key) {
+        Timer<K> timer = timers.get(key);
+        return timer == null ? null : timer.deadlineTick * tickMillis;
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    void clear() {
+        timers.clear();
+        for (List<Set<Timer<K>>> slots : levels) {
+            slots.forEach(Set::clear);
+        }
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} one tick at a time.
+     *
+     * @return keys whose deadline was reached, in deadline order
+     */
+    List<K> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Set<Timer<K>> due = levels.get(0).get(slotIndex(currentTick, 0));
+            for (Timer<K> timer : due) {
+                timers.remove(timer.key);
+                expired.add(timer.key);
+            }
+            due.clear();
+        }
+        return expired;
+    }
+
+    /** Re-places timers from each upper level whose slot boundary was just crossed, top level first. */
+    private void cascade() {
+        for (int level = levels.size() - 1; level >= 1; level--) {
+            if (currentTick % span(level) != 0) {
+                continue;
+            }
+            Set<Timer<K>> slot = levels.get(level).get(slotIndex(currentTick, level));
+            List<Timer<K>> moving = new ArrayList<>(slot);
+            slot.clear();
+            moving.forEach(this::place);
+        }
+    }
+
+    private void place(Timer<K> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        int top = levels.size() - 1;
+        int level = 0;
+        while (level < top && delta >= span(level + 1)) {
+            level++;
+        }
+        int index;
+        if (delta >= span(top + 1)) {
+            // Beyond the wheel's horizon: park in the slot that cascades last
+            index = slotIndex(currentTick + span(top + 1) - span(top), top);
+        } else {
+            index = slotIndex(timer.deadlineTick, level);
+        }
+        timer.slot = levels.get(level).get(index);
+        timer.slot.add(timer);
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) ((tick / span(level)) % wheelSize);
+    }
+
+    /** Ticks covered by one slot of {@code level}. */
+    private long span(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+
+    private static final class Timer<K> {
+        private final K key;
+        private final long deadlineTick;
+        private Set<Timer<K>> slot;
+
+        private Timer(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -10,7 +10,8 @@ import com.finsight.model.User;
 import com.finsight.repository.FraudAlertRepository;
 import com.finsight.repository.TransactionRepository;
 import com.finsight.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -18,12 +19,21 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
 
+/**
+ * Transaction creation with fraud scoring, and filtered listing.
+ *
+ * Metrics: {@code transactions.create} timer, tagged outcome=success with the scored
+ * risk=low|medium|high, or outcome=failure with risk=none.
+ *
+ * Fraud decision traces go to the {@link FraudTraceBuffer} instead of the log.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
     
@@ -31,14 +41,72 @@ public class TransactionService {
     private final UserRepository userRepository;
     private final FraudDetectionService fraudDetectionService;
     private final FraudAlertRepository fraudAlertRepository;
+    private final SubscriptionDetectorService subscriptionDetectorService;
+    private final MerchantResolver merchantResolver;
+    private final UserWriteLocks userWriteLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final FraudTraceBuffer fraudTraceBuffer;
+    private final MeterRegistry meterRegistry;
+    private final Map<RiskLevel, Timer> createdTimers = new EnumMap<>(RiskLevel.class);
+    private final Timer failedTimer;
+    
+    public TransactionService(TransactionRepository transactionRepository,
+                              UserRepository userRepository,
+                              FraudDetectionService fraudDetectionService,
+                              FraudAlertRepository fraudAlertRepository,
+                              SubscriptionDetectorService subscriptionDetectorService,
+                              MerchantResolver merchantResolver,
+                              UserWriteLocks userWriteLocks,
+                              TransactionTemplate transactionTemplate,
+                              FraudTraceBuffer fraudTraceBuffer,
+                              MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.fraudDetectionService = fraudDetectionService;
+        this.fraudAlertRepository = fraudAlertRepository;
+        this.subscriptionDetectorService = subscriptionDetectorService;
+        this.merchantResolver = merchantResolver;
+        this.userWriteLocks = userWriteLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.fraudTraceBuffer = fraudTraceBuffer;
+        this.meterRegistry = meterRegistry;
+        for (RiskLevel risk : RiskLevel.values()) {
+            createdTimers.put(risk, createTimer("success", risk.name().toLowerCase()));
+        }
+        this.failedTimer = createTimer("failure", "none");
+    }
     
     /**
      * Creates a manual transaction with fraud detection.
+     *
+     * Rapid-fire and new-category scoring read the user's other transactions, so the
+     * save-score-alert sequence runs serialized per user, and the lock is held until
+     * the transaction commits. Different users are scored in parallel.
      */
-    @Transactional
     public TransactionResponse createTransaction(TransactionRequest request) {
-        User user = userRepository.findById(request.getUserId())
-            .orElseThrow(() -> new RuntimeException("User not found: " + request.getUserId()));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            TransactionResponse response = userWriteLocks.withLock(request.getUserId(),
+                () -> transactionTemplate.execute(status -> saveAndScore(request)));
+            sample.stop(createdTimers.get(RiskLevel.valueOf(response.getRiskLevel())));
+            return response;
+        } catch (RuntimeException e) {
+            sample.stop(failedTimer);
+            throw e;
+        }
+    }
+    
+    private Timer createTimer(String outcome, String risk) {
+        return Timer.builder("transactions.create")
+            .description("Transaction creation including fraud scoring")
+            .tag("outcome", outcome)
+            .tag("risk", risk)
+            .register(meterRegistry);
+    }
+    
+    private TransactionResponse saveAndScore(TransactionRequest request) {
+        // The id comes from a verified token, so a lazy reference is enough for the FK
+        User user = userRepository.getReferenceById(request.getUserId());
         
         Transaction transaction = Transaction.builder()
             .user(user)
@@ -46,6 +114,7 @@ public class TransactionService {
             .type(request.getType())
             .category(request.getCategory())
             .description(request.getDescription())
+            .merchantKey(merchantResolver.resolve(request.getUserId(), request.getDescription()))
             .location(request.getLocation())
             .transactionDate(request.getTransactionDate())
             .createdAt(LocalDateTime.now())
@@ -67,11 +136,15 @@ public class TransactionService {
         // Create fraud alert only for MEDIUM and HIGH severity (score >= 40)
         if (fraudResult.getFraudScore() >= 40 && !fraudResult.getReasons().isEmpty()) {
             createFraudAlert(transaction, fraudResult);
-            log.info("Created fraud alert for transaction {} with score {} ({})", 
-                transaction.getId(), fraudResult.getFraudScore(), fraudResult.getRiskLevel());
+        }
+        if (fraudResult.getTrace() != null) {
+            fraudTraceBuffer.offer(fraudResult.getTrace());
         }
         
-        log.info("Created transaction {} for user {} with fraud score {} (Risk: {})", 
+        // Keeps subscriptions current without a full re-detection
+        subscriptionDetectorService.onExpenseSaved(transaction);
+        
+        log.debug("Created transaction {} for user {} with fraud score {} (Risk: {})", 
             transaction.getId(), user.getId(), fraudResult.getFraudScore(), fraudResult.getRiskLevel());
         
         return toResponse(transaction, fraudResult);
@@ -84,13 +157,10 @@ public class TransactionService {
                                                      LocalDateTime startDate, LocalDateTime endDate,
                                                      Boolean fraudulent, String sortBy, String sortDir,
                                                      int page, int size) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-        
         Specification<Transaction> spec = Specification.where(null);
         
-        // User filter (always applied)
-        spec = spec.and((root, query, cb) -> cb.equal(root.get("user"), user));
+        // User filter (always applied) — compares the FK column, no User load needed
+        spec = spec.and((root, query, cb) -> cb.equal(root.get("user").get("id"), userId));
         
         // Type filter
         if (type != null && !type.isBlank()) {
@@ -0,0 +1,9 @@
+package com.finsight.service;
+
+/**
+ * Published when a user's transactions and alerts are replaced in bulk (reseeded
+ * or seeded with demo data) rather than saved one at a time. Anything caching state
+ * derived from that data should drop it for this user.
+ */
+public record UserDataResetEvent(Long userId) {
+}
@@ -0,0 +1,54 @@
+package com.finsight.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks that serialize writes for one user while other users proceed in parallel.
+ *
+ * Users hash onto a fixed set of fair locks, so memory stays bounded and waiters on the
+ * same user are served in arrival order. Two users may share a stripe; that only costs
+ * some parallelism, never correctness. The locks are per JVM.
+ */
+@Component
+public class UserWriteLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public UserWriteLocks(@Value("${transactions.lock-stripes:256}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("transactions.lock-stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Runs {@code action} holding the user's stripe. The action should include the commit,
+     * so the next writer for the user sees this one's rows.
+     */
+    public <T> T withLock(Long userId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ReentrantLock lockFor(Long userId) {
+        int h = Long.hashCode(userId);
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+}
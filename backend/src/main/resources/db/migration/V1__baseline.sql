@@ -0,0 +1,89 @@
+-- Baseline schema, matching the JPA entities. Plain SQL accepted by H2 (PostgreSQL mode) and PostgreSQL.
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role    VARCHAR(255),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE transactions (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT         NOT NULL,
+    amount           NUMERIC(19, 2) NOT NULL,
+    type             VARCHAR(20)    NOT NULL,
+    category         VARCHAR(50)    NOT NULL,
+    description      VARCHAR(255),
+    location         VARCHAR(100),
+    merchant_key     VARCHAR(100),
+    transaction_date TIMESTAMP(6)   NOT NULL,
+    fraudulent       BOOLEAN        NOT NULL,
+    fraud_score      FLOAT(53),
+    created_at       TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE fraud_alerts (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id        BIGINT       NOT NULL,
+    transaction_id BIGINT       NOT NULL,
+    message        VARCHAR(255) NOT NULL,
+    severity       VARCHAR(20)  NOT NULL CHECK (severity IN ('LOW', 'MEDIUM', 'HIGH')),
+    resolved       BOOLEAN      NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_fraud_alerts_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_fraud_alerts_transaction FOREIGN KEY (transaction_id) REFERENCES transactions (id)
+);
+
+CREATE TABLE subscriptions (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id        BIGINT         NOT NULL,
+    merchant       VARCHAR(100)   NOT NULL,
+    merchant_key   VARCHAR(100)   NOT NULL,
+    cadence        VARCHAR(20)    NOT NULL CHECK (cadence IN ('WEEKLY', 'MONTHLY', 'QUARTERLY', 'ANNUAL')),
+    avg_amount     NUMERIC(19, 2) NOT NULL,
+    last_paid_date DATE           NOT NULL,
+    next_due_date  DATE           NOT NULL,
+    status         VARCHAR(20)    NOT NULL CHECK (status IN ('ACTIVE', 'IGNORED')),
+    created_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT fk_subscriptions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    -- Natural key: one subscription per merchant per user
+    CONSTRAINT uk_subscriptions_user_merchant UNIQUE (user_id, merchant_key)
+);
+
+CREATE TABLE job_checkpoints (
+    job_name          VARCHAR(100) PRIMARY KEY,
+    last_processed_id BIGINT       NOT NULL,
+    in_progress       BOOLEAN      NOT NULL,
+    started_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6)
+);
+
+-- Transactions: listing and date-range summaries, fraud rules, subscription detection
+CREATE INDEX idx_transactions_user_date ON transactions (user_id, transaction_date);
+CREATE INDEX idx_transactions_fraudulent ON transactions (user_id, fraudulent);
+CREATE INDEX idx_transactions_category ON transactions (user_id, category);
+CREATE INDEX idx_transactions_merchant ON transactions (user_id, merchant_key);
+CREATE INDEX idx_transactions_user_amount ON transactions (user_id, amount);
+
+-- Fraud alerts: one index per list filter, newest first; the FK for transaction deletes
+CREATE INDEX idx_fraud_alerts_user_created ON fraud_alerts (user_id, created_at);
+CREATE INDEX idx_fraud_alerts_user_resolved ON fraud_alerts (user_id, resolved, severity, created_at);
+CREATE INDEX idx_fraud_alerts_user_severity ON fraud_alerts (user_id, severity, created_at);
+CREATE INDEX idx_fraud_alerts_transaction ON fraud_alerts (transaction_id);
+
+-- Subscriptions: due-soon lists and the renewal reminder rebuild
+CREATE INDEX idx_subscriptions_user ON subscriptions (user_id);
+CREATE INDEX idx_subscriptions_due_date ON subscriptions (user_id, next_due_date);
+CREATE INDEX idx_subscriptions_status_due ON subscriptions (status, next_due_date);
+
+CREATE INDEX idx_user_roles_user ON user_roles (user_id);
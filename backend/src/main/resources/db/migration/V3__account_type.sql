@@ -0,0 +1,8 @@
+-- Internal accounts (the demo template) are told apart by type rather than by a
+-- username that signup could also hand out.
+
+ALTER TABLE users ADD COLUMN account_type VARCHAR(20) DEFAULT 'STANDARD' NOT NULL;
+ALTER TABLE users ADD CONSTRAINT ck_users_account_type CHECK (account_type IN ('STANDARD', 'DEMO_TEMPLATE'));
+
+UPDATE users SET account_type = 'DEMO_TEMPLATE'
+WHERE username = '__demo_template__' AND password = '!disabled';
@@ -0,0 +1,8 @@
+-- Users created by the admin load generator are SYNTHETIC, so the nightly scans skip them.
+
+ALTER TABLE users DROP CONSTRAINT ck_users_account_type;
+ALTER TABLE users ADD CONSTRAINT ck_users_account_type
+    CHECK (account_type IN ('STANDARD', 'DEMO_TEMPLATE', 'SYNTHETIC'));
+
+UPDATE users SET account_type = 'SYNTHETIC'
+WHERE email LIKE '%@loadgen.invalid' AND password = '!disabled';
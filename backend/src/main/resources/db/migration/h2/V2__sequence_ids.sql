@@ -0,0 +1,16 @@
+-- Transactions, fraud alerts and subscriptions take ids from sequences (pooled-lo, 50 per
+-- allocation) instead of IDENTITY, so Hibernate can batch their inserts. Each sequence
+-- continues after the highest id already in use (RESTART WITH a subquery is H2 syntax;
+-- PostgreSQL would use setval).
+
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE transactions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions);
+
+ALTER TABLE fraud_alerts ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE fraud_alerts_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE fraud_alerts_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM fraud_alerts);
+
+ALTER TABLE subscriptions ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE subscriptions_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE subscriptions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM subscriptions);
@@ -0,0 +1,16 @@
+-- Transactions, fraud alerts and subscriptions take ids from sequences (pooled-lo, 50 per
+-- allocation) instead of IDENTITY, so Hibernate can batch their inserts. Each sequence
+-- continues after the highest id already in use; h2/V2__sequence_ids.sql does the same
+-- with RESTART WITH, as H2 has no setval.
+
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('transactions_seq', COALESCE(MAX(id), 0) + 1, false) FROM transactions;
+
+ALTER TABLE fraud_alerts ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE fraud_alerts_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('fraud_alerts_seq', COALESCE(MAX(id), 0) + 1, false) FROM fraud_alerts;
+
+ALTER TABLE subscriptions ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE subscriptions_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('subscriptions_seq', COALESCE(MAX(id), 0) + 1, false) FROM subscriptions;
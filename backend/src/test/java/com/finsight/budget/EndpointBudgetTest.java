@@ -0,0 +1,180 @@
+package com.finsight.budget;
+
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.model.FraudAlert;
+import com.finsight.model.Subscription;
+import com.finsight.model.User;
+import com.finsight.observability.SqlStats;
+import com.finsight.observability.SqlStatsAssert;
+import com.finsight.repository.FraudAlertRepository;
+import com.finsight.repository.SubscriptionRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import com.finsight.security.JwtUtil;
+import com.finsight.service.DashboardService;
+import com.finsight.service.LoadGeneratorService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement and row budgets for the API, against a fixed dataset: two generated users
+ * with {@value #TRANSACTIONS_PER_USER} transactions each. Budgets are upper bounds on
+ * counts, not timings, so they hold on any machine; raising one should be a deliberate
+ * change in the same commit as the code that needs it.
+ *
+ * Run only the budget tier with {@code mvn test -Dgroups=budget}.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:endpoint-budget;DB_CLOSE_DELAY=-1",
+    "spring.sql.init.mode=never",
+    "subscription-refresh.cron=-",
+    "logging.level.com.finsight=WARN"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Tag("budget")
+@DisplayName("Endpoint statement budgets")
+class EndpointBudgetTest {
+
+    private static final int TRANSACTIONS_PER_USER = 600;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private LoadGeneratorService loadGeneratorService;
+    @Autowired private DashboardService dashboardService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private FraudAlertRepository fraudAlertRepository;
+    @Autowired private SubscriptionRepository subscriptionRepository;
+
+    private Long userId;
+    private String token;
+    private Long alertId;
+    private Long subscriptionId;
+
+    @BeforeAll
+    void seed() {
+        List<Long> userIds = loadGeneratorService.generate(LoadGenerationRequest.builder()
+            .users(2)
+            .transactionsPerUser(TRANSACTIONS_PER_USER)
+            .usernamePrefix("budget")
+            .seed(7L)
+            .build()).getUserIds();
+        userId = userIds.get(0);
+
+        User user = userRepository.findById(userId).orElseThrow();
+        token = "Bearer " + jwtUtil.generateToken(userId, user.getUsername(), Set.of("USER"));
+        alertId = fraudAlertRepository.findByUserOrderByCreatedAtDesc(user).stream()
+            .map(FraudAlert::getId).findFirst().orElseThrow();
+        // Generated spending has no recurring merchants, so add the subscriptions directly
+        for (String merchant : List.of("Netflix", "Spotify", "City Gym")) {
+            subscriptionRepository.save(Subscription.builder()
+                .user(user)
+                .merchant(merchant)
+                .avgAmount(new BigDecimal("12.99"))
+                .lastPaidDate(LocalDate.now().minusDays(28))
+                .nextDueDate(LocalDate.now().plusDays(2))
+                .build());
+        }
+        subscriptionId = subscriptionRepository.findByUserId(userId).get(0).getId();
+    }
+
+    Stream<Arguments> endpoints() {
+        return Stream.of(
+            budget("GET /api/transactions", 2, fixture -> get("/api/transactions")),
+            budget("GET /api/transactions filtered", 2, fixture -> get("/api/transactions")
+                .param("type", "EXPENSE").param("category", "groceries").param("size", "50")),
+            // Scoring re-reads the user's history for the geo and category rules; one more
+            // for the id sequence whenever a block of 50 runs out (as it does here). The INSERT
+            // is flushed before those reads, so a non-zero score would add an UPDATE; this one scores 0
+            budget("POST /api/transactions", 9, fixture -> post("/api/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"amount": 42.50, "type": "EXPENSE", "category": "groceries",
+                     "description": "Budget Mart", "location": "Home Location 1",
+                     "transactionDate": "%s"}""".formatted(LocalDateTime.now().minusMinutes(1).withNano(0)))),
+            budget("GET /api/summary", 1, fixture -> get("/api/summary")),
+            budget("GET /api/summary for a month", 1, fixture -> get("/api/summary")
+                .param("startDate", LocalDate.now().minusMonths(1).toString())
+                .param("endDate", LocalDate.now().toString())),
+            budget("GET /api/fraud/alerts", 1, fixture -> get("/api/fraud/alerts")),
+            budget("PUT /api/fraud/alerts/{id}/resolve", 3, fixture -> put("/api/fraud/alerts/{id}/resolve", fixture.alertId)),
+            budget("GET /api/subscriptions", 1, fixture -> get("/api/subscriptions")),
+            budget("GET /api/subscriptions/due-soon", 1, fixture -> get("/api/subscriptions/due-soon")),
+            budget("POST /api/subscriptions/detect", 1, fixture -> post("/api/subscriptions/detect")),
+            budget("PUT /api/subscriptions/{id}/ignore", 2, fixture -> put("/api/subscriptions/{id}/ignore", fixture.subscriptionId))
+        );
+    }
+
+    private static Arguments budget(String name, int maxStatements,
+                                    Function<EndpointBudgetTest, MockHttpServletRequestBuilder> request) {
+        return Arguments.of(name, maxStatements, request);
+    }
+
+    @ParameterizedTest(name = "{0}: at most {1} statements")
+    @MethodSource("endpoints")
+    void endpoint_StaysWithinStatementBudget(String name, int maxStatements,
+                                             Function<EndpointBudgetTest, MockHttpServletRequestBuilder> request) {
+        SqlStats.Scope sql = SqlStatsAssert.capture(() -> perform(request.apply(this).header("Authorization", token)));
+        SqlStatsAssert.assertThat(sql)
+            .hasAtMostStatements(maxStatements)
+            .hasNoStatementRepeatedMoreThan(Math.max(1, maxStatements / 4));
+    }
+
+    @Test
+    @DisplayName("getSummary reads each of the user's transactions once and nothing else")
+    void getSummary_RowBudget() {
+        long userRows = transactionRepository.countByUser(userRepository.getReferenceById(userId));
+
+        SqlStats.Scope sql = SqlStatsAssert.capture(() -> dashboardService.getSummary(userId, null, null));
+        SqlStatsAssert.assertThat(sql).hasStatementCount(1).hasAtMostRows(userRows);
+    }
+
+    @Test
+    @DisplayName("A date-filtered getSummary reads only the rows in range")
+    void getSummary_DateRange_RowBudget() {
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(30);
+
+        SqlStats.Scope sql = SqlStatsAssert.capture(() -> dashboardService.getSummary(userId, start, end));
+
+        long inRange = transactionRepository.findByUserAndTransactionDateBetween(
+            userRepository.getReferenceById(userId), start.atStartOfDay(), end.atTime(23, 59, 59)).size();
+        assertThat(inRange).isLessThan(TRANSACTIONS_PER_USER);
+        SqlStatsAssert.assertThat(sql).hasAtMostRows(inRange);
+    }
+
+    private void perform(MockHttpServletRequestBuilder request) {
+        try {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.finsight.budget;
+
+import com.finsight.dto.FraudDetectionResult;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.service.FraudDetectionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated by one {@code analyzeTransaction}, measured with the HotSpot
+ * per-thread allocation counter over a warmed-up loop. The repository is an in-memory
+ * stub returning prebuilt results, so only the service's own allocations count and the
+ * figure does not depend on the database or machine speed.
+ *
+ * Run only the budget tier with {@code mvn test -Dgroups=budget}.
+ */
+@Tag("budget")
+@DisplayName("Fraud scoring allocation budget")
+class FraudScoringAllocationBudgetTest {
+
+    private static final int HISTORY = 1_000;
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 10_000;
+
+    /** About 1.3-1.4 KB today, with or without C2 and escape analysis. */
+    private static final long BUDGET_BYTES_PER_CALL = 2_048;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private FraudDetectionService service;
+    private Transaction probe;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counter not available");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        User user = User.builder().id(1L).username("budget").email("budget@example.com").password("x").build();
+        LocalDateTime now = LocalDateTime.of(2026, 6, 1, 12, 0);
+        List<Transaction> history = new ArrayList<>(HISTORY);
+        String[] categories = {"groceries", "dining", "transport", "utilities", "entertainment"};
+        for (int i = 0; i < HISTORY; i++) {
+            history.add(Transaction.builder()
+                .id((long) i + 1)
+                .user(user)
+                .amount(BigDecimal.valueOf(20 + i % 80))
+                .type("EXPENSE")
+                .category(categories[i % categories.length])
+                .location("Home Location 1")
+                .transactionDate(now.minusHours(3L * i))
+                .build());
+        }
+        probe = history.get(0);
+        service = new FraudDetectionService(stubRepository(history), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("analyzeTransaction allocates at most the budget per call")
+    void analyzeTransaction_StaysWithinAllocationBudget() {
+        for (int i = 0; i < WARMUP; i++) {
+            service.analyzeTransaction(probe);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        FraudDetectionResult last = null;
+        for (int i = 0; i < MEASURED; i++) {
+            last = service.analyzeTransaction(probe);
+        }
+        long perCall = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED;
+
+        assertThat(last.getTrace().getRules()).hasSize(4);
+        assertThat(perCall)
+            .as("bytes allocated per analyzeTransaction")
+            .isLessThanOrEqualTo(BUDGET_BYTES_PER_CALL);
+    }
+
+    private static TransactionRepository stubRepository(List<Transaction> history) {
+        BigDecimal average = BigDecimal.valueOf(59.5);
+        List<String> categories = history.stream().map(Transaction::getCategory).distinct().toList();
+        return (TransactionRepository) Proxy.newProxyInstance(TransactionRepository.class.getClassLoader(),
+            new Class<?>[]{TransactionRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "calculateAverageAmount" -> average;
+                case "countByUserAndTransactionDateBetween" -> 1L;
+                case "findByUserOrderByTransactionDateDesc" -> history;
+                case "findDistinctCategoriesByUser" -> categories;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,91 @@
+package com.finsight.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrometheusScrapeEndpointTest {
+
+    private SimpleMeterRegistry registry;
+    private PrometheusScrapeEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        endpoint = new PrometheusScrapeEndpoint(registry);
+    }
+
+    @Test
+    void countersGetTotalSuffixAndTags() {
+        Counter.builder("subscription.renewal.notifications")
+            .description("Reminders sent")
+            .tag("kind", "due_soon")
+            .register(registry)
+            .increment(3);
+
+        assertThat(endpoint.scrape()).contains(
+            "# HELP subscription_renewal_notifications_total Reminders sent\n",
+            "# TYPE subscription_renewal_notifications_total counter\n",
+            "subscription_renewal_notifications_total{kind=\"due_soon\"} 3\n");
+    }
+
+    @Test
+    void timersAreExportedInSecondsWithMax() {
+        Timer timer = Timer.builder("dashboard.summary").tag("outcome", "success").register(registry);
+        timer.record(Duration.ofMillis(250));
+        timer.record(Duration.ofMillis(750));
+
+        assertThat(endpoint.scrape()).contains(
+            "# TYPE dashboard_summary_seconds summary\n",
+            "dashboard_summary_seconds_count{outcome=\"success\"} 2\n",
+            "dashboard_summary_seconds_sum{outcome=\"success\"} 1\n",
+            "# TYPE dashboard_summary_seconds_max gauge\n",
+            "dashboard_summary_seconds_max{outcome=\"success\"} 0.75\n");
+    }
+
+    @Test
+    void percentileHistogramAddsCumulativeBuckets() {
+        Timer timer = Timer.builder("transactions.create")
+            .serviceLevelObjectives(Duration.ofMillis(100), Duration.ofSeconds(1))
+            .register(registry);
+        timer.record(Duration.ofMillis(50));
+        timer.record(Duration.ofMillis(500));
+        timer.record(Duration.ofSeconds(5));
+
+        assertThat(endpoint.scrape()).contains(
+            "# TYPE transactions_create_seconds histogram\n",
+            "transactions_create_seconds_bucket{le=\"0.1\"} 1\n",
+            "transactions_create_seconds_bucket{le=\"1\"} 2\n",
+            "transactions_create_seconds_bucket{le=\"+Inf\"} 3\n",
+            "transactions_create_seconds_count 3\n");
+    }
+
+    @Test
+    void gaugesUseTheBaseUnitAndLabelValuesAreEscaped() {
+        AtomicInteger pending = new AtomicInteger(7);
+        Gauge.builder("cache.size", pending, AtomicInteger::get)
+            .baseUnit("entries")
+            .tag("name", "say \"hi\"")
+            .register(registry);
+
+        assertThat(endpoint.scrape()).contains(
+            "# TYPE cache_size_entries gauge\n",
+            "cache_size_entries{name=\"say \\\"hi\\\"\"} 7\n");
+    }
+
+    @Test
+    void formatsSpecialValues() {
+        assertThat(PrometheusScrapeEndpoint.format(Double.NaN)).isEqualTo("NaN");
+        assertThat(PrometheusScrapeEndpoint.format(Double.POSITIVE_INFINITY)).isEqualTo("+Inf");
+        assertThat(PrometheusScrapeEndpoint.format(0.5)).isEqualTo("0.5");
+        assertThat(PrometheusScrapeEndpoint.sanitize("jvm.gc-pause")).isEqualTo("jvm_gc_pause");
+    }
+}
@@ -0,0 +1,82 @@
+package com.finsight.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Schema migrator")
+class SchemaMigratorTest {
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migrator-" + UUID.randomUUID()
+            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("Applies pending migrations and records them")
+    void migrate_AppliesPendingMigrations() {
+        int applied = new SchemaMigrator(dataSource, "classpath:db/migration").migrate();
+
+        assertThat(applied).isPositive();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM schema_history", Integer.class)).isEqualTo(applied);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class)).isZero();
+        assertThat(jdbc.queryForList("SELECT index_name FROM information_schema.indexes WHERE table_name = 'fraud_alerts'",
+            String.class)).contains("idx_fraud_alerts_user_resolved", "idx_fraud_alerts_transaction");
+    }
+
+    @Test
+    @DisplayName("Second run applies nothing")
+    void migrate_IsNoOpWhenUpToDate() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, "classpath:db/migration");
+        migrator.migrate();
+
+        assertThat(migrator.migrate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Fails when an applied migration was edited")
+    void migrate_FailsOnChecksumMismatch() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, "classpath:db/migration");
+        migrator.migrate();
+        jdbc.update("UPDATE schema_history SET checksum = checksum + 1 WHERE version = 1");
+
+        assertThatThrownBy(migrator::migrate)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("V1 was changed");
+    }
+
+    @Test
+    @DisplayName("Fails when the database is ahead of the application")
+    void migrate_FailsOnUnknownAppliedVersion() {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, "classpath:db/migration");
+        migrator.migrate();
+        jdbc.update("INSERT INTO schema_history (version, description, script, checksum, installed_on, execution_ms) "
+            + "VALUES (999, 'future', 'V999__future.sql', 0, CURRENT_TIMESTAMP, 0)");
+
+        assertThatThrownBy(migrator::migrate)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("V999");
+    }
+
+    @Test
+    @DisplayName("Reads the subfolder of the connected database and no other")
+    void migrate_AppliesOnlyMatchingVendorScripts() {
+        int applied = new SchemaMigrator(dataSource, "classpath:db/vendor-migration").migrate();
+
+        assertThat(applied).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT vendor FROM notes", String.class)).containsExactly("h2");
+    }
+}
@@ -0,0 +1,243 @@
+package com.finsight.controller;
+
+import com.finsight.config.SecurityConfig;
+import com.finsight.dto.FraudDecisionTrace;
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationResult;
+import com.finsight.dto.LoadGenerationStatus;
+import com.finsight.security.JwtUtil;
+import com.finsight.dto.SubscriptionRefreshStatus;
+import com.finsight.observability.FlightRecorderService;
+import com.finsight.service.FraudTraceBuffer;
+import com.finsight.service.LoadGenerationJobService;
+import com.finsight.service.SubscriptionRefreshJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the real security filter chain, since the point of these endpoints is who may call them.
+ */
+@WebMvcTest(AdminController.class)
+@Import({SecurityConfig.class, JwtUtil.class})
+@DisplayName("AdminController")
+class AdminControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private ObjectMapper objectMapper;
+    @MockBean  private LoadGenerationJobService loadGenerationJobService;
+    @MockBean  private SubscriptionRefreshJobService subscriptionRefreshJobService;
+    @MockBean  private FlightRecorderService flightRecorderService;
+    @MockBean  private FraudTraceBuffer fraudTraceBuffer;
+
+    private String body(LoadGenerationRequest request) throws Exception {
+        return objectMapper.writeValueAsString(request);
+    }
+
+    private String bearer(Set<String> roles) {
+        return "Bearer " + jwtUtil.generateToken(1L, "ops", roles);
+    }
+
+    @Test
+    @DisplayName("202 — admin starts load generation in the background")
+    void admin_generates() throws Exception {
+        LoadGenerationRequest request = LoadGenerationRequest.builder().users(2).transactionsPerUser(10).build();
+        when(loadGenerationJobService.start(any())).thenReturn(LoadGenerationStatus.pending(request));
+
+        mockMvc.perform(post("/api/admin/load-generation")
+                .header("Authorization", bearer(Set.of("USER", "ADMIN")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(request)))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.state").value("PENDING"))
+            .andExpect(jsonPath("$.transactionsRequested").value(20));
+    }
+
+    @Test
+    @DisplayName("400 — total rows over the cap")
+    void admin_overTotalCap_400() throws Exception {
+        when(loadGenerationJobService.start(any()))
+            .thenThrow(new IllegalArgumentException("Requested 200 transactions in total; the limit is 100"));
+
+        mockMvc.perform(post("/api/admin/load-generation")
+                .header("Authorization", bearer(Set.of("ADMIN")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(LoadGenerationRequest.builder().users(2).transactionsPerUser(100).build())))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("200 — load generation status with the result once done")
+    void loadGenerationStatus_ok() throws Exception {
+        LoadGenerationStatus done = LoadGenerationStatus.pending(
+                LoadGenerationRequest.builder().users(2).transactionsPerUser(10).build())
+            .done(LoadGenerationResult.builder()
+                .usersCreated(2).transactionsCreated(20).userIds(List.of(5L, 6L)).build());
+        when(loadGenerationJobService.getStatus()).thenReturn(Optional.of(done));
+
+        mockMvc.perform(get("/api/admin/load-generation")
+                .header("Authorization", bearer(Set.of("ADMIN"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.finished").value(true))
+            .andExpect(jsonPath("$.usersCompleted").value(2))
+            .andExpect(jsonPath("$.result.userIds[1]").value(6));
+    }
+
+    @Test
+    @DisplayName("404 — no load generation has run yet")
+    void loadGenerationStatus_none() throws Exception {
+        when(loadGenerationJobService.getStatus()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/admin/load-generation")
+                .header("Authorization", bearer(Set.of("ADMIN"))))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("403 — regular user")
+    void user_forbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/load-generation")
+                .header("Authorization", bearer(Set.of("USER")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(LoadGenerationRequest.builder().users(2).transactionsPerUser(10).build())))
+            .andExpect(status().isForbidden());
+        verifyNoInteractions(loadGenerationJobService);
+    }
+
+    @Test
+    @DisplayName("401 — no token")
+    void anonymous_unauthorized() throws Exception {
+        mockMvc.perform(post("/api/admin/load-generation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(LoadGenerationRequest.builder().users(2).transactionsPerUser(10).build())))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("400 — invalid shape")
+    void invalidRequest_400() throws Exception {
+        mockMvc.perform(post("/api/admin/load-generation")
+                .header("Authorization", bearer(Set.of("ADMIN")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(LoadGenerationRequest.builder().users(0).transactionsPerUser(10).fraudRate(2.0).build())))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(loadGenerationJobService);
+    }
+
+    @Test
+    @DisplayName("200 — subscription refresh status for admin")
+    void refreshStatus_ok() throws Exception {
+        when(subscriptionRefreshJobService.getStatus()).thenReturn(Optional.of(
+            SubscriptionRefreshStatus.builder().usersProcessed(12).usersFailed(1).build()));
+
+        mockMvc.perform(get("/api/admin/subscription-refresh")
+                .header("Authorization", bearer(Set.of("ADMIN"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.usersProcessed").value(12))
+            .andExpect(jsonPath("$.usersFailed").value(1));
+    }
+
+    @Test
+    @DisplayName("404 — no refresh has run yet")
+    void refreshStatus_none() throws Exception {
+        when(subscriptionRefreshJobService.getStatus()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/admin/subscription-refresh")
+                .header("Authorization", bearer(Set.of("ADMIN"))))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("200 — admin downloads the last minutes of the flight recording")
+    void admin_dumpsFlightRecording() throws Exception {
+        Path dump = Files.createTempFile("dump", ".jfr");
+        Files.write(dump, new byte[]{1, 2, 3});
+        when(flightRecorderService.isRecording()).thenReturn(true);
+        when(flightRecorderService.getMaxAge()).thenReturn(Duration.ofMinutes(30));
+        when(flightRecorderService.dump(Duration.ofMinutes(5))).thenReturn(dump);
+
+        mockMvc.perform(get("/api/admin/flight-recording").param("minutes", "5")
+                .header("Authorization", bearer(Set.of("USER", "ADMIN"))))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.startsWith("attachment; filename=\"finsight-")))
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    @DisplayName("404 — flight recording disabled")
+    void flightRecording_disabled() throws Exception {
+        when(flightRecorderService.isRecording()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/flight-recording")
+                .header("Authorization", bearer(Set.of("USER", "ADMIN"))))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("400 — window longer than the recording keeps")
+    void flightRecording_windowTooLong() throws Exception {
+        when(flightRecorderService.isRecording()).thenReturn(true);
+        when(flightRecorderService.getMaxAge()).thenReturn(Duration.ofMinutes(30));
+
+        mockMvc.perform(get("/api/admin/flight-recording").param("minutes", "60")
+                .header("Authorization", bearer(Set.of("USER", "ADMIN"))))
+            .andExpect(status().isBadRequest());
+        verify(flightRecorderService, never()).dump(any());
+    }
+
+    @Test
+    @DisplayName("403 — regular user cannot dump the flight recording")
+    void flightRecording_userForbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/flight-recording")
+                .header("Authorization", bearer(Set.of("USER"))))
+            .andExpect(status().isForbidden());
+        verify(flightRecorderService, never()).dump(any());
+    }
+
+    @Test
+    @DisplayName("200 — admin queries flagged fraud traces for a user")
+    void admin_queriesFraudTraces() throws Exception {
+        when(fraudTraceBuffer.recent(7L, true, 20)).thenReturn(List.of(FraudDecisionTrace.builder()
+            .transactionId(99L).userId(7L).score(75.0).riskLevel("HIGH").build()));
+
+        mockMvc.perform(get("/api/admin/fraud-traces").param("userId", "7").param("flaggedOnly", "true").param("limit", "20")
+                .header("Authorization", bearer(Set.of("USER", "ADMIN"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].transactionId").value(99))
+            .andExpect(jsonPath("$[0].riskLevel").value("HIGH"))
+            .andExpect(jsonPath("$[0].previousLocation").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("400 — fraud trace limit out of range")
+    void fraudTraces_limitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/admin/fraud-traces").param("limit", "0")
+                .header("Authorization", bearer(Set.of("USER", "ADMIN"))))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(fraudTraceBuffer);
+    }
+}
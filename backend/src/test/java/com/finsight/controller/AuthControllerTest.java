@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finsight.dto.AuthResponse;
 import com.finsight.dto.LoginRequest;
 import com.finsight.dto.SignupRequest;
+import com.finsight.exception.ServiceOverloadedException;
 import com.finsight.service.AuthService;
 import org.junit.jupiter.api.*;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -237,6 +238,24 @@ class AuthControllerTest {
                             .content(loginJson("alice", "bad")))
                     .andExpect(jsonPath("$.token").doesNotExist());
         }
+
+        @Test @DisplayName("503 + Retry-After when password hashing is saturated")
+        void login_overloaded_503() throws Exception {
+            when(authService.login(any())).thenThrow(new ServiceOverloadedException("busy", 2));
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                            .content(loginJson("alice", "Secret123!")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"));
+        }
+
+        @Test @DisplayName("503 + Retry-After on signup too")
+        void signup_overloaded_503() throws Exception {
+            when(authService.signup(any())).thenThrow(new ServiceOverloadedException("busy", 1));
+            mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                            .content(signupJson("alice", "alice@example.com", "Secret123!")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        }
     }
 
     // ── helpers ───────────────────────────────────────────────────────────────
@@ -6,6 +6,7 @@ import com.finsight.model.Subscription;
 import com.finsight.model.SubscriptionStatus;
 import com.finsight.model.User;
 import com.finsight.repository.SubscriptionRepository;
+import com.finsight.service.RenewalReminderService;
 import com.finsight.service.SubscriptionDetectorService;
 import org.junit.jupiter.api.*;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -14,13 +15,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
+import static com.finsight.security.TestPrincipals.asUser;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -39,6 +43,7 @@ class SubscriptionControllerCreateTest {
     @Autowired private ObjectMapper mapper;
     @MockBean private SubscriptionDetectorService detectorService;
     @MockBean private SubscriptionRepository subRepo;
+    @MockBean private RenewalReminderService renewalReminderService;
 
     private User user;
 
@@ -61,12 +66,13 @@ class SubscriptionControllerCreateTest {
         when(subRepo.save(any())).thenReturn(saved);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Netflix", "15.99", lastPaid, nextDue)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.merchant").value("Netflix"))
                 .andExpect(jsonPath("$.avgAmount").value(15.99));
+        verify(renewalReminderService).track(saved);
     }
 
     @Test
@@ -79,7 +85,7 @@ class SubscriptionControllerCreateTest {
         when(subRepo.save(any())).thenReturn(saved);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Spotify", "9.99", lastPaid, nextDue)))
                 .andExpect(status().isOk());
@@ -95,7 +101,7 @@ class SubscriptionControllerCreateTest {
         when(subRepo.save(any())).thenReturn(saved);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Gym", "50.00", lastPaid, nextDue)))
                 .andExpect(status().isOk());
@@ -111,7 +117,7 @@ class SubscriptionControllerCreateTest {
         when(subRepo.save(any())).thenReturn(saved);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isOk());
@@ -127,7 +133,7 @@ class SubscriptionControllerCreateTest {
         when(subRepo.save(any())).thenReturn(saved);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isOk());
@@ -144,7 +150,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(24);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest())
@@ -158,7 +164,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(36);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest())
@@ -172,7 +178,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.minusDays(1);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -189,7 +195,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -205,7 +211,7 @@ class SubscriptionControllerCreateTest {
         String longName = "A".repeat(101);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson(longName, "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -220,7 +226,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "0.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -235,7 +241,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "-10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -250,7 +256,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10000.01", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -265,7 +271,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -280,7 +286,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = LocalDate.now().minusDays(1);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -289,15 +295,19 @@ class SubscriptionControllerCreateTest {
     }
 
     @Test
-    @DisplayName("400 — missing userId parameter")
-    void create_missingUserId_400() throws Exception {
+    @DisplayName("userId query param cannot override the authenticated user")
+    void create_userIdParamIgnored() throws Exception {
         LocalDate lastPaid = LocalDate.now().minusDays(10);
         LocalDate nextDue = lastPaid.plusDays(30);
+        when(subRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         mockMvc.perform(post("/api/subscriptions")
+                        .param("userId", "2")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson("Service", "10.00", lastPaid, nextDue)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isOk());
+        verify(subRepo).save(argThat(s -> s.getUser().getId().equals(1L)));
     }
 
     @Test
@@ -307,7 +317,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(subscriptionJson(null, "10.00", lastPaid, nextDue)))
                 .andExpect(status().isBadRequest());
@@ -320,7 +330,7 @@ class SubscriptionControllerCreateTest {
         LocalDate nextDue = lastPaid.plusDays(30);
 
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"merchant\":\"Service\",\"lastPaidDate\":\"" + lastPaid + "\",\"nextDueDate\":\"" + nextDue + "\"}"))
                 .andExpect(status().isBadRequest());
@@ -330,12 +340,48 @@ class SubscriptionControllerCreateTest {
     @DisplayName("400 — empty JSON body")
     void create_emptyBody_400() throws Exception {
         mockMvc.perform(post("/api/subscriptions")
-                        .param("userId", "1")
+                        .with(asUser(1))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{}"))
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("400 — merchant already has a subscription")
+    void create_duplicateMerchant_400() throws Exception {
+        LocalDate lastPaid = LocalDate.now().minusDays(5);
+        LocalDate nextDue = lastPaid.plusDays(30);
+        when(subRepo.findByUser_IdAndMerchantKey(1L, "netflix"))
+                .thenReturn(Optional.of(buildSubscription(3L, "Netflix", "15.99", lastPaid, nextDue)));
+
+        mockMvc.perform(post("/api/subscriptions")
+                        .with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(" NETFLIX", "15.99", lastPaid, nextDue)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A subscription for 'Netflix' already exists"));
+        verify(subRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("400 — a concurrent create wins the unique key after the pre-check passed")
+    void create_duplicateRace_400() throws Exception {
+        LocalDate lastPaid = LocalDate.now().minusDays(5);
+        LocalDate nextDue = lastPaid.plusDays(30);
+        when(subRepo.findByUser_IdAndMerchantKey(1L, "netflix"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(buildSubscription(3L, "Netflix", "15.99", lastPaid, nextDue)));
+        when(subRepo.save(any())).thenThrow(new DataIntegrityViolationException("uk_subscriptions_user_merchant"));
+
+        mockMvc.perform(post("/api/subscriptions")
+                        .with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(subscriptionJson(" NETFLIX", "15.99", lastPaid, nextDue)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A subscription for 'Netflix' already exists"));
+        verify(renewalReminderService, never()).track(any());
+    }
+
     // ── helpers ───────────────────────────────────────────────────────────────
 
     private String subscriptionJson(String merchant, String amount, LocalDate lastPaid, LocalDate nextDue) throws Exception {
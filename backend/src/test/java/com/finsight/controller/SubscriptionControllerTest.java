@@ -3,6 +3,7 @@ package com.finsight.controller;
 //import com.finsight.dto.SubscriptionDto;
 import com.finsight.model.*;
 import com.finsight.repository.SubscriptionRepository;
+import com.finsight.service.RenewalReminderService;
 import com.finsight.service.SubscriptionDetectorService;
 import org.junit.jupiter.api.*;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -20,6 +21,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static com.finsight.security.TestPrincipals.asUser;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +44,7 @@ class SubscriptionControllerTest {
     @Autowired private MockMvc mockMvc;
     @MockBean  private SubscriptionDetectorService detectorService;
     @MockBean  private SubscriptionRepository      subRepo;
+    @MockBean  private RenewalReminderService      renewalReminderService;
 
     private User user;
 
@@ -59,7 +62,7 @@ class SubscriptionControllerTest {
         @Test @DisplayName("200 OK — returns subscriptions from repository")
         void valid_200() throws Exception {
             when(subRepo.findByUserId(1L)).thenReturn(List.of(activeSub(1L, "netflix", "15.99", 3)));
-            mockMvc.perform(get("/api/subscriptions").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(1)))
                     .andExpect(jsonPath("$[0].merchant").value("netflix"))
@@ -69,7 +72,7 @@ class SubscriptionControllerTest {
         @Test @DisplayName("200 OK — empty array when no subscriptions")
         void noSubscriptions_emptyArray() throws Exception {
             when(subRepo.findByUserId(1L)).thenReturn(List.of());
-            mockMvc.perform(get("/api/subscriptions").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
         }
@@ -81,7 +84,7 @@ class SubscriptionControllerTest {
                 activeSub(2L, "spotify", "9.99",  5),
                 ignoredSub(3L, "gym",    "50.00")
             ));
-            mockMvc.perform(get("/api/subscriptions").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(3)));
         }
@@ -89,21 +92,24 @@ class SubscriptionControllerTest {
         @Test @DisplayName("SubscriptionDetectorService NOT called by GET /api/subscriptions")
         void doesNotCallDetector() throws Exception {
             when(subRepo.findByUserId(1L)).thenReturn(List.of());
-            mockMvc.perform(get("/api/subscriptions").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions").with(asUser(1)))
                     .andExpect(status().isOk());
             verifyNoInteractions(detectorService);
         }
 
-        @Test @DisplayName("4xx error — missing userId param")
-        void missingUserId_400() throws Exception {
-            mockMvc.perform(get("/api/subscriptions"))
-                    .andExpect(status().is4xxClientError());
+        @Test @DisplayName("userId query param is ignored — principal's id is used")
+        void userIdParam_ignored() throws Exception {
+            when(subRepo.findByUserId(1L)).thenReturn(List.of());
+            mockMvc.perform(get("/api/subscriptions").param("userId", "2").with(asUser(1)))
+                    .andExpect(status().isOk());
+            verify(subRepo).findByUserId(1L);
+            verify(subRepo, never()).findByUserId(2L);
         }
 
         @Test @DisplayName("Response DTO contains all expected fields")
         void dtoFieldsComplete() throws Exception {
             when(subRepo.findByUserId(1L)).thenReturn(List.of(activeSub(1L, "netflix", "15.99", 3)));
-            mockMvc.perform(get("/api/subscriptions").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions").with(asUser(1)))
                     .andExpect(jsonPath("$[0].id").value(1))
                     .andExpect(jsonPath("$[0].merchant").value("netflix"))
                     .andExpect(jsonPath("$[0].avgAmount").value(15.99))
@@ -123,7 +129,7 @@ class SubscriptionControllerTest {
         void valid_200() throws Exception {
             when(detectorService.detectSubscriptions(1L))
                     .thenReturn(List.of(activeSub(1L, "netflix", "15.99", 3)));
-            mockMvc.perform(post("/api/subscriptions/detect").param("userId", "1"))
+            mockMvc.perform(post("/api/subscriptions/detect").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(1)))
                     .andExpect(jsonPath("$[0].merchant").value("netflix"));
@@ -132,21 +138,23 @@ class SubscriptionControllerTest {
         @Test @DisplayName("200 OK — empty array when nothing detected")
         void noDetections_emptyArray() throws Exception {
             when(detectorService.detectSubscriptions(1L)).thenReturn(List.of());
-            mockMvc.perform(post("/api/subscriptions/detect").param("userId", "1"))
+            mockMvc.perform(post("/api/subscriptions/detect").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
         }
 
-        @Test @DisplayName("4xx error — missing userId param")
-        void missingUserId_400() throws Exception {
-            mockMvc.perform(post("/api/subscriptions/detect"))
-                    .andExpect(status().is4xxClientError());
+        @Test @DisplayName("userId query param is ignored — principal's id is used")
+        void userIdParam_ignored() throws Exception {
+            mockMvc.perform(post("/api/subscriptions/detect").param("userId", "2").with(asUser(1)))
+                    .andExpect(status().isOk());
+            verify(detectorService).detectSubscriptions(1L);
+            verify(detectorService, never()).detectSubscriptions(2L);
         }
 
         @Test @DisplayName("detectSubscriptions() called with correct userId")
         void callsServiceWithCorrectUserId() throws Exception {
             when(detectorService.detectSubscriptions(42L)).thenReturn(List.of());
-            mockMvc.perform(post("/api/subscriptions/detect").param("userId", "42"))
+            mockMvc.perform(post("/api/subscriptions/detect").with(asUser(42)))
                     .andExpect(status().isOk());
             verify(detectorService).detectSubscriptions(42L);
         }
@@ -155,7 +163,7 @@ class SubscriptionControllerTest {
         void ignoredInResult_statusReflected() throws Exception {
             when(detectorService.detectSubscriptions(1L))
                     .thenReturn(List.of(ignoredSub(2L, "gym", "50.00")));
-            mockMvc.perform(post("/api/subscriptions/detect").param("userId", "1"))
+            mockMvc.perform(post("/api/subscriptions/detect").with(asUser(1)))
                     .andExpect(jsonPath("$[0].status").value("IGNORED"));
         }
     }
@@ -170,7 +178,7 @@ class SubscriptionControllerTest {
         void default7Days_200() throws Exception {
             when(subRepo.findDueSoonByUserId(eq(1L), any(), any()))
                     .thenReturn(List.of(activeSub(1L, "netflix", "15.99", 2)));
-            mockMvc.perform(get("/api/subscriptions/due-soon").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions/due-soon").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(1)))
                     .andExpect(jsonPath("$[0].merchant").value("netflix"));
@@ -179,7 +187,7 @@ class SubscriptionControllerTest {
         @Test @DisplayName("200 OK — empty array when nothing due")
         void nothingDue_emptyArray() throws Exception {
             when(subRepo.findDueSoonByUserId(eq(1L), any(), any())).thenReturn(List.of());
-            mockMvc.perform(get("/api/subscriptions/due-soon").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions/due-soon").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
         }
@@ -188,22 +196,24 @@ class SubscriptionControllerTest {
         void customDays_accepted() throws Exception {
             when(subRepo.findDueSoonByUserId(eq(1L), any(), any())).thenReturn(List.of());
             mockMvc.perform(get("/api/subscriptions/due-soon")
-                            .param("userId", "1").param("days", "14"))
+                            .with(asUser(1)).param("days", "14"))
                     .andExpect(status().isOk());
             verify(subRepo).findDueSoonByUserId(eq(1L), any(), any());
         }
 
-        @Test @DisplayName("4xx error — missing userId param")
-        void missingUserId_400() throws Exception {
-            mockMvc.perform(get("/api/subscriptions/due-soon"))
-                    .andExpect(status().is4xxClientError());
+        @Test @DisplayName("userId query param is ignored — principal's id is used")
+        void userIdParam_ignored() throws Exception {
+            mockMvc.perform(get("/api/subscriptions/due-soon").param("userId", "2").with(asUser(1)))
+                    .andExpect(status().isOk());
+            verify(subRepo).findDueSoonByUserId(eq(1L), any(), any());
+            verify(subRepo, never()).findDueSoonByUserId(eq(2L), any(), any());
         }
 
         @Test @DisplayName("ACTIVE subscription returned with ACTIVE status")
         void activeReturned() throws Exception {
             when(subRepo.findDueSoonByUserId(eq(1L), any(), any()))
                     .thenReturn(List.of(activeSub(1L, "netflix", "15.99", 2)));
-            mockMvc.perform(get("/api/subscriptions/due-soon").param("userId", "1"))
+            mockMvc.perform(get("/api/subscriptions/due-soon").with(asUser(1)))
                     .andExpect(jsonPath("$[0].status").value("ACTIVE"));
         }
     }
@@ -223,7 +233,7 @@ class SubscriptionControllerTest {
                 s.setStatus(SubscriptionStatus.IGNORED);
                 return s;
             });
-            mockMvc.perform(put("/api/subscriptions/1/ignore").param("userId", "1"))
+            mockMvc.perform(put("/api/subscriptions/1/ignore").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.status").value("IGNORED"))
                     .andExpect(jsonPath("$.merchant").value("netflix"));
@@ -234,7 +244,7 @@ class SubscriptionControllerTest {
             Subscription sub = activeSub(1L, "netflix", "15.99", 3);
             when(subRepo.findById(1L)).thenReturn(Optional.of(sub));
             when(subRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
-            mockMvc.perform(put("/api/subscriptions/1/ignore").param("userId", "1"))
+            mockMvc.perform(put("/api/subscriptions/1/ignore").with(asUser(1)))
                     .andExpect(status().isOk());
             verify(subRepo).save(argThat(s -> s.getStatus() == SubscriptionStatus.IGNORED));
         }
@@ -244,15 +254,28 @@ class SubscriptionControllerTest {
             Subscription sub = activeSub(1L, "netflix", "15.99", 3);
             when(subRepo.findById(1L)).thenReturn(Optional.of(sub));
             when(subRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
-            mockMvc.perform(put("/api/subscriptions/1/ignore").param("userId", "1"))
+            mockMvc.perform(put("/api/subscriptions/1/ignore").with(asUser(1)))
                     .andExpect(status().isOk());
             verify(subRepo, times(1)).save(any());
         }
 
-        @Test @DisplayName("4xx error — missing userId param")
-        void missingUserId_400() throws Exception {
-            mockMvc.perform(put("/api/subscriptions/1/ignore"))
+        @Test @DisplayName("Renewal reminder is re-synced for the ignored subscription")
+        void reminderSynced() throws Exception {
+            Subscription sub = activeSub(1L, "netflix", "15.99", 3);
+            when(subRepo.findById(1L)).thenReturn(Optional.of(sub));
+            when(subRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            mockMvc.perform(put("/api/subscriptions/1/ignore").with(asUser(1)))
+                    .andExpect(status().isOk());
+            verify(renewalReminderService).track(argThat(s -> s.getStatus() == SubscriptionStatus.IGNORED));
+        }
+
+        @Test @DisplayName("4xx error — subscription belongs to another user")
+        void otherUsersSubscription_rejected() throws Exception {
+            Subscription sub = activeSub(1L, "netflix", "15.99", 3);
+            when(subRepo.findById(1L)).thenReturn(Optional.of(sub));
+            mockMvc.perform(put("/api/subscriptions/1/ignore").with(asUser(2)))
                     .andExpect(status().is4xxClientError());
+            verify(subRepo, never()).save(any());
         }
 
         @Test @DisplayName("Ignoring already-IGNORED subscription is idempotent — 200 OK")
@@ -260,7 +283,7 @@ class SubscriptionControllerTest {
             Subscription ignored = ignoredSub(1L, "netflix", "15.99");
             when(subRepo.findById(1L)).thenReturn(Optional.of(ignored));
             when(subRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
-            mockMvc.perform(put("/api/subscriptions/1/ignore").param("userId", "1"))
+            mockMvc.perform(put("/api/subscriptions/1/ignore").with(asUser(1)))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.status").value("IGNORED"));
         }
@@ -0,0 +1,60 @@
+package com.finsight.observability;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecorderServiceTest {
+
+    @Test
+    @DisplayName("Disabled by default: nothing is recorded and dumps are refused")
+    void disabled_DoesNotRecord() {
+        FlightRecorderService service = new FlightRecorderService(false, "default", Duration.ofMinutes(30), DataSize.ofMegabytes(10));
+        service.start();
+
+        assertThat(service.isRecording()).isFalse();
+        assertThatThrownBy(() -> service.dump(Duration.ofMinutes(5))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Dumps contain the FinSight events committed while recording")
+    void enabled_DumpContainsFinSightEvents() throws Exception {
+        FlightRecorderService service = new FlightRecorderService(true, "default", Duration.ofMinutes(30), DataSize.ofMegabytes(10));
+        service.start();
+        Path file = null;
+        try {
+            assertThat(service.isRecording()).isTrue();
+            DashboardBuildEvent event = new DashboardBuildEvent();
+            event.begin();
+            event.setUserId(42L);
+            event.setRows(1234);
+            event.commit();
+
+            file = service.dump(Duration.ofMinutes(5));
+
+            List<RecordedEvent> builds = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.finsight.DashboardBuild"))
+                .toList();
+            assertThat(builds).anySatisfy(recorded -> {
+                assertThat(recorded.getLong("userId")).isEqualTo(42L);
+                assertThat(recorded.getInt("rows")).isEqualTo(1234);
+            });
+        } finally {
+            service.stop();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+        assertThat(service.isRecording()).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+package com.finsight.observability;
+
+import org.assertj.core.api.AbstractAssert;
+
+import java.util.Map;
+
+/**
+ * AssertJ assertions on the statements captured by a {@link SqlStats.Scope}, so that
+ * query-count regressions fail tests:
+ *
+ * <pre>
+ * SqlStats.Scope sql = SqlStatsAssert.capture(() -&gt; service.findByUser(userId, null, null));
+ * SqlStatsAssert.assertThat(sql).hasStatementCount(1);
+ * </pre>
+ *
+ * The DataSource must be wrapped, e.g. by importing {@link SqlStatsDataSourcePostProcessor}
+ * into a slice test.
+ */
+public class SqlStatsAssert extends AbstractAssert<SqlStatsAssert, SqlStats.Scope> {
+
+    private SqlStatsAssert(SqlStats.Scope actual) {
+        super(actual, SqlStatsAssert.class);
+    }
+
+    public static SqlStatsAssert assertThat(SqlStats.Scope actual) {
+        return new SqlStatsAssert(actual);
+    }
+
+    /** Runs {@code work} on this thread and returns the statements it executed. */
+    public static SqlStats.Scope capture(Runnable work) {
+        try (SqlStats.Scope scope = SqlStats.open()) {
+            work.run();
+            return scope;
+        }
+    }
+
+    public SqlStatsAssert hasStatementCount(int expected) {
+        isNotNull();
+        if (actual.statements() != expected) {
+            failWithMessage("Expected %d SQL statements but %d were executed: %s",
+                expected, actual.statements(), actual.repeatedStatements(1));
+        }
+        return this;
+    }
+
+    public SqlStatsAssert hasAtMostStatements(int max) {
+        isNotNull();
+        if (actual.statements() > max) {
+            failWithMessage("Expected at most %d SQL statements but %d were executed: %s",
+                max, actual.statements(), actual.repeatedStatements(1));
+        }
+        return this;
+    }
+
+    public SqlStatsAssert hasAtMostRows(long max) {
+        isNotNull();
+        if (actual.rows() > max) {
+            failWithMessage("Expected at most %d rows to be read but %d were", max, actual.rows());
+        }
+        return this;
+    }
+
+    /** Fails on the N+1 signature: the same statement executed more than {@code max} times. */
+    public SqlStatsAssert hasNoStatementRepeatedMoreThan(int max) {
+        isNotNull();
+        Map<String, Integer> repeated = actual.repeatedStatements(max + 1);
+        if (!repeated.isEmpty()) {
+            failWithMessage("Expected no SQL statement to run more than %d times but found %s", max, repeated);
+        }
+        return this;
+    }
+}
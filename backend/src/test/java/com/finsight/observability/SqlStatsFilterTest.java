@@ -0,0 +1,43 @@
+package com.finsight.observability;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatsFilterTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fraud/alerts");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    /** Stands in for a controller that runs two queries and writes a body. */
+    private final FilterChain chain = (req, res) -> {
+        SqlStats.record("select * from fraud_alerts where user_id=?", 2_000_000);
+        SqlStats.record("select * from users where id=?", 1_000_000);
+        res.getWriter().write("[]");
+    };
+
+    @Test
+    @DisplayName("Dev mode sends the statement count and JDBC time as headers and keeps the body")
+    void headersEnabled_AddsStatementHeaders() throws Exception {
+        new SqlStatsFilter(true, 25, 10).doFilter(request, response, chain);
+
+        assertThat(response.getHeader(SqlStatsFilter.STATEMENTS_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(SqlStatsFilter.TIME_HEADER)).isEqualTo("3");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+        assertThat(SqlStats.isRecording()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Headers are off by default")
+    void headersDisabled_NoHeaders() throws Exception {
+        new SqlStatsFilter(false, 25, 10).doFilter(request, response, chain);
+
+        assertThat(response.getHeader(SqlStatsFilter.STATEMENTS_HEADER)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+        assertThat(SqlStats.isRecording()).isFalse();
+    }
+}
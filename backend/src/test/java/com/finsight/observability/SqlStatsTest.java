@@ -0,0 +1,69 @@
+package com.finsight.observability;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatsTest {
+
+    @Test
+    @DisplayName("Statements outside a scope are not recorded")
+    void record_WithoutScope_IsIgnored() {
+        SqlStats.record("select 1", 10);
+
+        assertThat(SqlStats.isRecording()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A scope counts statements, JDBC time and repeats")
+    void scope_CountsStatementsAndTime() {
+        try (SqlStats.Scope scope = SqlStats.open()) {
+            SqlStats.record("select * from users where id=?", 1_000_000);
+            SqlStats.record("select * from users where id=?", 2_000_000);
+            SqlStats.record("select * from transactions", 500_000);
+
+            assertThat(scope.statements()).isEqualTo(3);
+            assertThat(scope.jdbcTime()).isEqualTo(Duration.ofNanos(3_500_000));
+            assertThat(scope.repeatedStatements(2)).containsExactly(Map.entry("select * from users where id=?", 2));
+            assertThat(scope.mostRepeated()).contains(Map.entry("select * from users where id=?", 2));
+        }
+        assertThat(SqlStats.isRecording()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Nested scopes both count, and closing the inner one restores the outer")
+    void nestedScopes_CountTowardsEveryOpenScope() {
+        try (SqlStats.Scope outer = SqlStats.open()) {
+            SqlStats.record("a", 1);
+            try (SqlStats.Scope inner = SqlStats.open()) {
+                SqlStats.record("b", 1);
+                assertThat(inner.statements()).isEqualTo(1);
+            }
+            SqlStats.record("c", 1);
+
+            assertThat(outer.statements()).isEqualTo(3);
+            assertThat(SqlStats.isRecording()).isTrue();
+        }
+        assertThat(SqlStats.isRecording()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Assertion API reports repeated statements")
+    void assertApi_DetectsRepeats() {
+        SqlStats.Scope scope = SqlStatsAssert.capture(() -> {
+            for (int i = 0; i < 3; i++) {
+                SqlStats.record("select * from transactions where id=?", 1);
+            }
+        });
+
+        SqlStatsAssert.assertThat(scope).hasStatementCount(3).hasAtMostStatements(5);
+        org.assertj.core.api.Assertions.assertThatThrownBy(
+                () -> SqlStatsAssert.assertThat(scope).hasNoStatementRepeatedMoreThan(2))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("select * from transactions where id=?");
+    }
+}
@@ -0,0 +1,87 @@
+package com.finsight.repository;
+
+import com.finsight.model.FraudAlert;
+import com.finsight.model.RiskLevel;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.observability.SqlStats;
+import com.finsight.observability.SqlStatsAssert;
+import com.finsight.observability.SqlStatsDataSourcePostProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards JDBC batching of inserts, which only works while ids come from a pooled
+ * sequence: one IDENTITY entity would bring back one INSERT per row.
+ */
+@DataJpaTest
+@Import(SqlStatsDataSourcePostProcessor.class)
+@DisplayName("Batched inserts")
+class BatchInsertTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private FraudAlertRepository fraudAlertRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = em.persistAndFlush(User.builder().username("alice").email("alice@example.com").password("x").build());
+    }
+
+    @Test
+    @DisplayName("Transactions and alerts flushed together go out in batches of 50")
+    void saveAll_InsertsInBatches() {
+        SqlStats.Scope sql = SqlStatsAssert.capture(() -> {
+            List<Transaction> transactions = new ArrayList<>();
+            List<FraudAlert> alerts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Transaction transaction = Transaction.builder()
+                    .user(user)
+                    .amount(new BigDecimal("25.00"))
+                    .type("EXPENSE")
+                    .category("groceries")
+                    .transactionDate(BASE.plusMinutes(i))
+                    .build();
+                transactions.add(transaction);
+                if (i % 2 == 0) {
+                    alerts.add(FraudAlert.builder()
+                        .user(user).transaction(transaction)
+                        .message("Suspicious transaction detected")
+                        .severity(RiskLevel.MEDIUM)
+                        .createdAt(BASE)
+                        .build());
+                }
+            }
+            // Interleaved persists: ordered inserts regroup them by table
+            for (int i = 0; i < transactions.size(); i++) {
+                transactionRepository.save(transactions.get(i));
+                if (i % 2 == 0) {
+                    fraudAlertRepository.save(alerts.get(i / 2));
+                }
+            }
+            em.flush();
+        });
+
+        // 4 transaction batches + 2 alert batches, and one sequence call per 50 ids of each
+        SqlStatsAssert.assertThat(sql).hasAtMostStatements(6 + 4 + 2);
+        em.clear();
+        assertThat(transactionRepository.countByUser(user)).isEqualTo(200L);
+        assertThat(fraudAlertRepository.findByUserOrderByCreatedAtDesc(user)).hasSize(100);
+    }
+}
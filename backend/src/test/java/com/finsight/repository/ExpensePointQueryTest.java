@@ -0,0 +1,87 @@
+package com.finsight.repository;
+
+import com.finsight.dto.ExpensePoint;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Filtering, normalization and ordering of the detector's projection happen in SQL,
+ * so they are checked against H2.
+ */
+@DataJpaTest
+@DisplayName("Expense projection query")
+class ExpensePointQueryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = em.persist(user("alice"));
+        User bob = em.persist(user("bob"));
+
+        em.persist(transaction(alice, "EXPENSE", "Netflix", "15.99", BASE.plusMonths(1)));
+        em.persist(transaction(alice, "expense", " netflix ", "15.99", BASE));
+        em.persist(transaction(alice, "EXPENSE", "Gym", "40.00", BASE.plusDays(3)));
+        em.persist(transaction(alice, "INCOME", "salary", "3000.00", BASE));
+        em.persist(transaction(alice, "EXPENSE", "  ", "5.00", BASE));
+        Transaction spotify = transaction(alice, "EXPENSE", "Entertainment", "9.99", BASE.plusDays(1));
+        spotify.setMerchantKey("spotify");
+        em.persist(spotify);
+        em.persist(transaction(bob, "EXPENSE", "netflix", "15.99", BASE));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Only the user's EXPENSE rows with a category, keyed by merchant or normalized category, sorted by key then date")
+    void streamExpensePoints_filteredNormalizedSorted() {
+        List<ExpensePoint> points;
+        try (Stream<ExpensePoint> stream = transactionRepository.streamExpensePoints(alice.getId())) {
+            points = stream.toList();
+        }
+
+        assertThat(points)
+            .extracting(ExpensePoint::merchantKey, ExpensePoint::displayName, ExpensePoint::date)
+            .containsExactly(
+                tuple("gym", "Gym", BASE.plusDays(3)),
+                tuple("netflix", " netflix ", BASE),
+                tuple("netflix", "Netflix", BASE.plusMonths(1)),
+                tuple("spotify", "spotify", BASE.plusDays(1)));
+        assertThat(points.get(0).amount()).isEqualByComparingTo("40.00");
+    }
+
+    private static User user(String name) {
+        return User.builder().username(name).email(name + "@example.com").password("x").build();
+    }
+
+    private static Transaction transaction(User owner, String type, String category, String amount,
+                                           LocalDateTime date) {
+        return Transaction.builder()
+            .user(owner)
+            .amount(new BigDecimal(amount))
+            .type(type)
+            .category(category)
+            .transactionDate(date)
+            .createdAt(date)
+            .build();
+    }
+}
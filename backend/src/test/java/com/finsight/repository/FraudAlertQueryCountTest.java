@@ -0,0 +1,87 @@
+package com.finsight.repository;
+
+import com.finsight.dto.FraudAlertDto;
+import com.finsight.model.FraudAlert;
+import com.finsight.model.RiskLevel;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.observability.SqlStats;
+import com.finsight.observability.SqlStatsAssert;
+import com.finsight.observability.SqlStatsDataSourcePostProcessor;
+import com.finsight.service.FraudAlertService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the statement count of the alert listing, which renders each alert's
+ * transaction and used to load them one query per alert.
+ */
+@DataJpaTest
+@Import({SqlStatsDataSourcePostProcessor.class, FraudAlertService.class})
+@DisplayName("Fraud alert listing query count")
+class FraudAlertQueryCountTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private FraudAlertService fraudAlertService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = em.persist(User.builder().username("alice").email("alice@example.com").password("x").build());
+        for (int i = 0; i < 5; i++) {
+            Transaction transaction = em.persist(Transaction.builder()
+                .user(user)
+                .amount(new BigDecimal("9000.00"))
+                .type("EXPENSE")
+                .category("crypto_exchange")
+                .description("Exchange " + i)
+                .location("Demo Location 1")
+                .transactionDate(BASE.plusHours(i))
+                .fraudScore(85.0)
+                .fraudulent(true)
+                .createdAt(BASE.plusHours(i))
+                .build());
+            em.persist(FraudAlert.builder()
+                .user(user).transaction(transaction)
+                .message("Suspicious transaction detected")
+                .severity(i % 2 == 0 ? RiskLevel.HIGH : RiskLevel.MEDIUM)
+                .createdAt(BASE.plusHours(i))
+                .build());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Listing alerts loads their transactions in the same statement")
+    void findByUser_IsOneStatement() {
+        AtomicReference<List<FraudAlertDto>> alerts = new AtomicReference<>();
+        SqlStats.Scope sql = SqlStatsAssert.capture(() -> alerts.set(fraudAlertService.findByUser(user.getId(), null, null)));
+
+        assertThat(alerts.get()).hasSize(5).allSatisfy(alert -> assertThat(alert.getTransaction().getAmount()).isNotNull());
+        SqlStatsAssert.assertThat(sql).hasStatementCount(1).hasAtMostRows(5);
+    }
+
+    @Test
+    @DisplayName("Filtered listings are one statement as well")
+    void findByUser_Filtered_IsOneStatement() {
+        SqlStats.Scope sql = SqlStatsAssert.capture(() -> fraudAlertService.findByUser(user.getId(), false, "HIGH"));
+
+        SqlStatsAssert.assertThat(sql).hasStatementCount(1).hasNoStatementRepeatedMoreThan(1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.finsight.repository;
+
+import com.finsight.config.SchemaMigrationConfig;
+import com.finsight.model.Subscription;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots JPA the way the prod profile does: schema from db/migration, Hibernate only
+ * validating it. Fails when an entity changes without a matching migration.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:migrated-schema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.sql.init.mode=never",
+    "schema-migrations.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchemaMigrationConfig.class)
+@DisplayName("Migrated schema")
+class MigratedSchemaTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private SubscriptionRepository subscriptionRepository;
+
+    @Test
+    @DisplayName("Entities validate against the migrations and persist")
+    void entities_PersistOnMigratedSchema() {
+        User user = em.persist(User.builder().username("alice").email("alice@example.com").password("x").build());
+        transactionRepository.save(Transaction.builder()
+            .user(user)
+            .amount(new BigDecimal("42.50"))
+            .type("EXPENSE")
+            .category("Food")
+            .transactionDate(LocalDateTime.of(2026, 1, 10, 12, 0))
+            .build());
+        subscriptionRepository.save(Subscription.builder()
+            .user(user)
+            .merchant("Netflix")
+            .avgAmount(new BigDecimal("15.99"))
+            .lastPaidDate(LocalDate.of(2026, 1, 1))
+            .nextDueDate(LocalDate.of(2026, 2, 1))
+            .build());
+        em.flush();
+        em.clear();
+
+        assertThat(transactionRepository.findAll()).hasSize(1);
+        assertThat(subscriptionRepository.findByUser_IdAndMerchantKey(user.getId(), "netflix")).isPresent();
+    }
+}
@@ -0,0 +1,122 @@
+package com.finsight.repository;
+
+import com.finsight.model.BillingCadence;
+import com.finsight.model.Subscription;
+import com.finsight.model.SubscriptionStatus;
+import com.finsight.model.User;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the subscription MERGE against H2, since matching and status preservation
+ * happen in SQL.
+ */
+@DataJpaTest
+@DisplayName("Subscription upsert")
+class SubscriptionUpsertTest {
+
+    private static final LocalDate PAID = LocalDate.of(2026, 3, 1);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private SubscriptionRepository subscriptionRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = em.persist(user("alice"));
+        bob = em.persist(user("bob"));
+        em.flush();
+    }
+
+    @Test
+    @DisplayName("New merchants are inserted as ACTIVE with their natural key")
+    void newRows_inserted() {
+        List<Subscription> stored = subscriptionRepository.upsertAll(List.of(
+            detected(alice, "Netflix", "15.99"), detected(alice, "gym", "50.00")));
+
+        assertThat(stored).extracting(Subscription::getMerchant).containsExactly("Netflix", "gym");
+        assertThat(stored).allSatisfy(s -> {
+            assertThat(s.getId()).isNotNull();
+            assertThat(s.getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
+        });
+        assertThat(stored.get(0).getMerchantKey()).isEqualTo("netflix");
+    }
+
+    @Test
+    @DisplayName("Existing rows get the new amount and dates but keep status and spelling")
+    void existingRows_updatedStatusKept() {
+        Subscription ignored = detected(alice, "Netflix", "9.99");
+        ignored.setStatus(SubscriptionStatus.IGNORED);
+        em.persistAndFlush(ignored);
+
+        Subscription redetected = detected(alice, " netflix ", "15.99");
+        redetected.setCadence(BillingCadence.ANNUAL);
+        redetected.setNextDueDate(PAID.plusYears(1));
+        List<Subscription> stored = subscriptionRepository.upsertAll(List.of(redetected));
+
+        assertThat(stored).hasSize(1);
+        Subscription row = stored.get(0);
+        assertThat(row.getId()).isEqualTo(ignored.getId());
+        assertThat(row.getStatus()).isEqualTo(SubscriptionStatus.IGNORED);
+        assertThat(row.getMerchant()).isEqualTo("Netflix");
+        assertThat(row.getAvgAmount()).isEqualByComparingTo("15.99");
+        assertThat(row.getCadence()).isEqualTo(BillingCadence.ANNUAL);
+        assertThat(row.getNextDueDate()).isEqualTo(PAID.plusYears(1));
+    }
+
+    @Test
+    @DisplayName("Repeated runs never create a second row for the same merchant")
+    void repeatedRuns_noDuplicates() {
+        subscriptionRepository.upsertAll(List.of(detected(alice, "netflix", "15.99")));
+        subscriptionRepository.upsertAll(List.of(detected(alice, "Netflix", "15.99")));
+        subscriptionRepository.upsertAll(List.of(detected(bob, "netflix", "15.99")));
+
+        assertThat(subscriptionRepository.findByUserId(alice.getId())).hasSize(1);
+        assertThat(subscriptionRepository.findByUserId(bob.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("The unique (user, merchant key) constraint rejects a duplicate insert")
+    void uniqueConstraint_rejectsDuplicate() {
+        em.persistAndFlush(detected(alice, "Netflix", "15.99"));
+
+        assertThatThrownBy(() -> em.persistAndFlush(detected(alice, "NETFLIX ", "15.99")))
+            .isInstanceOf(PersistenceException.class);
+    }
+
+    @Test
+    @DisplayName("Empty input touches nothing")
+    void empty_noop() {
+        assertThat(subscriptionRepository.upsertAll(List.of())).isEmpty();
+    }
+
+    private static User user(String name) {
+        return User.builder().username(name).email(name + "@example.com").password("x").build();
+    }
+
+    private static Subscription detected(User owner, String merchant, String amount) {
+        return Subscription.builder()
+            .user(owner)
+            .merchant(merchant)
+            .cadence(BillingCadence.MONTHLY)
+            .avgAmount(new BigDecimal(amount))
+            .lastPaidDate(PAID)
+            .nextDueDate(PAID.plusMonths(1))
+            .status(SubscriptionStatus.ACTIVE)
+            .build();
+    }
+}
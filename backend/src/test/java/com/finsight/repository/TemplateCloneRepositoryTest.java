@@ -0,0 +1,151 @@
+package com.finsight.repository;
+
+import com.finsight.model.FraudAlert;
+import com.finsight.model.RiskLevel;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the set-based demo template statements against H2, since their
+ * correctness depends on the generated SQL rather than on Java logic.
+ */
+@DataJpaTest
+@DisplayName("Template clone statements")
+class TemplateCloneRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 10, 12, 0);
+    private static final long SHIFT = Duration.ofDays(3).plusHours(2).toSeconds();
+
+    @Autowired private TestEntityManager em;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private FraudAlertRepository fraudAlertRepository;
+
+    private User template;
+    private User target;
+
+    @BeforeEach
+    void setUp() {
+        template = em.persist(user("template"));
+        target = em.persist(user("alice"));
+
+        em.persist(transaction(template, "groceries", "42.50", BASE, 5.0));
+        Transaction flagged = em.persist(transaction(template, "crypto_exchange", "9000.00", BASE.plusDays(1), 85.0));
+        em.persist(FraudAlert.builder()
+            .user(template).transaction(flagged)
+            .message("Suspicious transaction detected: big")
+            .severity(RiskLevel.HIGH)
+            .resolved(true)
+            .createdAt(BASE.plusDays(1))
+            .build());
+        em.flush();
+    }
+
+    @Test
+    @DisplayName("Transactions are copied to the target user with shifted dates and original scores")
+    void cloneTransactions_shiftsDates() {
+        int copied = transactionRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        em.clear();
+
+        List<Transaction> cloned = transactionRepository.findByUserOrderByTransactionDateDesc(target);
+        assertThat(copied).isEqualTo(2);
+        assertThat(cloned).extracting(Transaction::getTransactionDate)
+            .containsExactly(BASE.plusDays(1).plusSeconds(SHIFT), BASE.plusSeconds(SHIFT));
+        assertThat(cloned).extracting(Transaction::getFraudScore).containsExactly(85.0, 5.0);
+        assertThat(cloned.get(0).getAmount()).isEqualByComparingTo("9000.00");
+    }
+
+    @Test
+    @DisplayName("Cloned ids fill whole pooled-lo blocks and do not collide with Hibernate's ids")
+    void cloneTransactions_idsFromSequenceBlocks() {
+        for (int i = 0; i < 60; i++) {
+            em.persist(transaction(template, "groceries", "10.00", BASE.minusHours(i + 1), 0.0));
+        }
+        em.flush();
+
+        int copied = transactionRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        em.clear();
+        List<Long> ids = transactionRepository.findByUserOrderByTransactionDateDesc(target).stream()
+            .map(Transaction::getId).sorted().toList();
+        Transaction next = em.persistFlushFind(transaction(target, "groceries", "1.00", BASE.plusDays(2), 0.0));
+
+        assertThat(copied).isEqualTo(62);
+        assertThat(ids).hasSize(62).doesNotHaveDuplicates().doesNotContain(next.getId());
+        // 62 rows take two blocks of 50, so the copies are consecutive rather than one block each
+        assertThat(ids.get(61) - ids.get(0)).isEqualTo(61);
+    }
+
+    @Test
+    @DisplayName("Alerts are re-attached to the cloned transaction and start unresolved")
+    void cloneAlerts_pointAtClonedTransactions() {
+        transactionRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        int copied = fraudAlertRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        em.clear();
+
+        List<FraudAlert> alerts = fraudAlertRepository.findByUserOrderByCreatedAtDesc(target);
+        assertThat(copied).isEqualTo(1);
+        assertThat(alerts).hasSize(1);
+        FraudAlert alert = alerts.get(0);
+        assertThat(alert.isResolved()).isFalse();
+        assertThat(alert.getSeverity()).isEqualTo(RiskLevel.HIGH);
+        assertThat(alert.getTransaction().getUser().getId()).isEqualTo(target.getId());
+        assertThat(alert.getTransaction().getCategory()).isEqualTo("crypto_exchange");
+    }
+
+    @Test
+    @DisplayName("Template rows are left untouched by cloning")
+    void clone_leavesTemplateIntact() {
+        transactionRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        fraudAlertRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        em.clear();
+
+        assertThat(transactionRepository.countByUser(template)).isEqualTo(2);
+        assertThat(fraudAlertRepository.findByUserOrderByCreatedAtDesc(template)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Bulk deletes remove only the given user's rows")
+    void deleteByUserId_onlyThatUser() {
+        transactionRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+        fraudAlertRepository.cloneFromTemplate(template.getId(), target.getId(), SHIFT);
+
+        assertThat(fraudAlertRepository.deleteByUserId(target.getId())).isEqualTo(1);
+        assertThat(transactionRepository.deleteByUserId(target.getId())).isEqualTo(2);
+        em.clear();
+
+        assertThat(transactionRepository.countByUser(target)).isZero();
+        assertThat(transactionRepository.countByUser(template)).isEqualTo(2);
+    }
+
+    private static User user(String name) {
+        return User.builder().username(name).email(name + "@example.com").password("x").build();
+    }
+
+    private static Transaction transaction(User owner, String category, String amount,
+                                           LocalDateTime date, double score) {
+        return Transaction.builder()
+            .user(owner)
+            .amount(new BigDecimal(amount))
+            .type("EXPENSE")
+            .category(category)
+            .description("Demo " + category)
+            .location("Demo Location 1")
+            .transactionDate(date)
+            .fraudScore(score)
+            .fraudulent(score >= 70)
+            .createdAt(date)
+            .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.finsight.repository;
+
+import com.finsight.model.AccountType;
+import com.finsight.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("UserRepository")
+class UserRepositoryTest {
+
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    @DisplayName("findIdsAfter() walks all ids in order, one keyset page at a time")
+    void findIdsAfter_keysetPages() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(userRepository.save(User.builder()
+                .username("user" + i).email("user" + i + "@example.com").password("x").build()).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        long afterId = 0L;
+        List<Long> page;
+        while (!(page = userRepository.findIdsAfter(afterId, PageRequest.of(0, 2))).isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            seen.addAll(page);
+            afterId = page.get(page.size() - 1);
+        }
+
+        // Other users may already exist in the shared database
+        assertThat(seen).isSorted().doesNotHaveDuplicates().containsSubsequence(created);
+    }
+
+    @Test
+    @DisplayName("findIdsAfter() skips internal accounts such as the demo template")
+    void findIdsAfter_skipsInternalAccounts() {
+        Long template = userRepository.save(User.builder()
+            .username("__demo_template__").email("t@example.invalid").password("!disabled")
+            .accountType(AccountType.DEMO_TEMPLATE).build()).getId();
+        Long standard = userRepository.save(User.builder()
+            .username("standard").email("standard@example.com").password("x").build()).getId();
+
+        List<Long> ids = userRepository.findIdsAfter(template - 1, PageRequest.of(0, 10));
+
+        assertThat(ids).contains(standard).doesNotContain(template);
+        assertThat(userRepository.findFirstByAccountTypeOrderByIdAsc(AccountType.DEMO_TEMPLATE))
+            .get().extracting(User::getId).isEqualTo(template);
+    }
+}
@@ -0,0 +1,126 @@
+package com.finsight.security;
+
+import com.finsight.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("encode() and matches() produce the same results as the delegate")
+    void delegatesToBcrypt() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 1);
+
+        String hash = encoder.encode("Secret123!");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("Secret123!", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Hashing runs on the dedicated pool, not the caller's thread")
+    void runsOnPoolThread() {
+        String[] threadName = new String[1];
+        encoder = new BoundedPasswordEncoder(recording(threadName), 1, 1, 1);
+
+        encoder.encode("x");
+
+        assertThat(threadName[0]).startsWith("password-hash-");
+    }
+
+    @Test
+    @DisplayName("Full pool and queue → ServiceOverloadedException carrying Retry-After")
+    void saturated_rejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), 1, 1, 3);
+
+        callers.submit(() -> encoder.encode("occupies-the-thread"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> encoder.encode("sits-in-the-queue"));
+        await(() -> encoder.getQueuedCount() == 1);
+
+        assertThatThrownBy(() -> encoder.matches("rejected", "hash"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Runtime exceptions from the delegate reach the caller unwrapped")
+    void delegateException_propagates() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 1);
+
+        assertThatThrownBy(() -> encoder.encode(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PasswordEncoder recording(String[] threadName) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                threadName[0] = Thread.currentThread().getName();
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return false;
+            }
+        };
+    }
+
+    private static PasswordEncoder blocking(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return false;
+            }
+        };
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.finsight.security;
+
+import com.finsight.config.SecurityConfig;
+import com.finsight.controller.SubscriptionController;
+import com.finsight.repository.SubscriptionRepository;
+import com.finsight.service.RenewalReminderService;
+import com.finsight.service.SubscriptionDetectorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the real security filter chain (no {@code addFilters = false}) against a
+ * representative controller to check how bearer tokens are turned into principals.
+ */
+@WebMvcTest(SubscriptionController.class)
+@Import({SecurityConfig.class, JwtUtil.class})
+@DisplayName("JwtAuthenticationFilter")
+class JwtAuthenticationFilterTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JwtUtil jwtUtil;
+    @MockBean  private SubscriptionDetectorService detectorService;
+    @MockBean  private SubscriptionRepository      subRepo;
+    @MockBean  private RenewalReminderService      renewalReminderService;
+
+    @Test
+    @DisplayName("401 — no Authorization header")
+    void noToken_401() throws Exception {
+        mockMvc.perform(get("/api/subscriptions"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(subRepo);
+    }
+
+    @Test
+    @DisplayName("401 — malformed bearer token")
+    void invalidToken_401() throws Exception {
+        mockMvc.perform(get("/api/subscriptions").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(subRepo);
+    }
+
+    @Test
+    @DisplayName("200 — valid token; controller sees the token's userId, not the query param")
+    void validToken_usesTokenUserId() throws Exception {
+        when(subRepo.findByUserId(anyLong())).thenReturn(List.of());
+        String token = jwtUtil.generateToken(7L, "alice", Set.of("USER"));
+
+        mockMvc.perform(get("/api/subscriptions")
+                        .param("userId", "1")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        verify(subRepo).findByUserId(7L);
+        verify(subRepo, never()).findByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Auth endpoints stay open without a token")
+    void authEndpoints_permitted() throws Exception {
+        // No AuthController in this slice; all that matters is that security lets it through
+        mockMvc.perform(get("/api/auth/anything"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotEqualTo(401));
+    }
+}
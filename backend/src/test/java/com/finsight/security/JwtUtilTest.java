@@ -0,0 +1,115 @@
+package com.finsight.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtUtil")
+class JwtUtilTest {
+
+    private static final String SECRET = "finsight-secret-key-change-in-production-minimum-256-bits-required";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L, 16);
+    }
+
+    @Test
+    @DisplayName("parse() returns the userId and username the token was issued for")
+    void parse_roundTrip() {
+        String token = jwtUtil.generateToken(42L, "alice", Set.of("USER"));
+
+        JwtClaims claims = jwtUtil.parse(token);
+
+        assertThat(claims.getUserId()).isEqualTo(42L);
+        assertThat(claims.getUsername()).isEqualTo("alice");
+        assertThat(claims.getRoles()).containsExactly("USER");
+        assertThat(claims.getExpiresAt()).isAfter(java.time.Instant.now());
+    }
+
+    @Test
+    @DisplayName("Repeated parse() of the same token returns the cached claims")
+    void parse_repeatedToken_cached() {
+        String token = jwtUtil.generateToken(42L, "alice", Set.of("USER"));
+
+        assertThat(jwtUtil.parse(token)).isSameAs(jwtUtil.parse(token));
+    }
+
+    @Test
+    @DisplayName("Legacy accessors agree with parse()")
+    void accessors_delegateToParse() {
+        String token = jwtUtil.generateToken(7L, "bob", Set.of("USER"));
+
+        assertThat(jwtUtil.getUserIdFromToken(token)).isEqualTo(7L);
+        assertThat(jwtUtil.getUsernameFromToken(token)).isEqualTo("bob");
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Tampered signature is rejected")
+    void parse_tamperedToken_rejected() {
+        String token = jwtUtil.generateToken(42L, "alice", Set.of("USER"));
+        // Change a character inside the signature; the last one may only carry padding bits
+        int i = token.length() - 10;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+
+        assertThatThrownBy(() -> jwtUtil.parse(tampered)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.validateToken(tampered)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Token signed with a different secret is rejected")
+    void parse_foreignKey_rejected() {
+        JwtUtil other = new JwtUtil(SECRET.replace('f', 'x'), 60_000L, 16);
+        String token = other.generateToken(42L, "alice", Set.of("USER"));
+
+        assertThat(jwtUtil.validateToken(token)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Expired token is rejected")
+    void parse_expiredToken_rejected() {
+        JwtUtil shortLived = new JwtUtil(SECRET, -1_000L, 16);
+        String token = shortLived.generateToken(42L, "alice", Set.of("USER"));
+
+        assertThatThrownBy(() -> shortLived.parse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Validly signed token without an expiry is rejected")
+    void parse_tokenWithoutExpiry_rejected() {
+        String token = Jwts.builder()
+                .claim("userId", 42L)
+                .setSubject("alice")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThatThrownBy(() -> jwtUtil.parse(token)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.validateToken(token)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Cache stays bounded — evicted tokens are simply re-verified")
+    void parse_cacheBounded() {
+        JwtUtil tiny = new JwtUtil(SECRET, 60_000L, 2);
+        String first = tiny.generateToken(1L, "u1", Set.of("USER"));
+        JwtClaims firstClaims = tiny.parse(first);
+        tiny.parse(tiny.generateToken(2L, "u2", Set.of("USER")));
+        tiny.parse(tiny.generateToken(3L, "u3", Set.of("USER")));
+
+        JwtClaims reparsed = tiny.parse(first);
+
+        assertThat(reparsed).isNotSameAs(firstClaims).isEqualTo(firstClaims);
+    }
+}
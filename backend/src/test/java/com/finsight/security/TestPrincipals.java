@@ -0,0 +1,29 @@
+package com.finsight.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Set;
+
+/**
+ * MockMvc helper that puts an {@link AuthenticatedUser} into the security context,
+ * exactly as {@link JwtAuthenticationFilter} would after verifying a token.
+ *
+ * Writes straight to {@link TestSecurityContextHolder} so it also works with
+ * {@code addFilters = false}; Spring Security's test listener clears it after each test.
+ */
+public final class TestPrincipals {
+
+    private TestPrincipals() {
+    }
+
+    public static RequestPostProcessor asUser(long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId, Set.of("USER"));
+        return request -> {
+            TestSecurityContextHolder.setAuthentication(new UsernamePasswordAuthenticationToken(
+                    principal, null, principal.getAuthorities()));
+            return request;
+        };
+    }
+}
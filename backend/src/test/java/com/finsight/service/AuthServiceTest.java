@@ -3,19 +3,23 @@ package com.finsight.service;
 import com.finsight.dto.AuthResponse;
 import com.finsight.dto.LoginRequest;
 import com.finsight.dto.SignupRequest;
+import com.finsight.exception.ServiceOverloadedException;
 import com.finsight.model.User;
 import com.finsight.repository.UserRepository;
 import com.finsight.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -30,7 +34,7 @@ import static org.mockito.Mockito.*;
  *
  * STRICTNESS=LENIENT solves UnnecessaryStubbingException in
  * demo-data resilience tests where the shared stubSignupSuccess() sets up
- * demoDataService.seedUserIfEmpty but the test then overrides it.
+ * the happy path but the test then overrides part of it.
  */
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -40,7 +44,8 @@ class AuthServiceTest {
     @Mock private UserRepository  userRepository;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private JwtUtil         jwtUtil;
-    @Mock private DemoDataService demoDataService;
+    @Mock private DemoSeedJobService demoSeedJobService;
+    @Spy  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks private AuthService authService;
 
@@ -100,6 +105,16 @@ class AuthServiceTest {
             assertThat(cap.getValue().getRoles()).containsExactly("USER");
         }
 
+        @Test @DisplayName("Configured admin username also gets ADMIN role")
+        void signup_adminUsername_adminRole() {
+            stubSignup();
+            ReflectionTestUtils.setField(authService, "adminUsernames", Set.of("alice"));
+            ArgumentCaptor<User> cap = ArgumentCaptor.forClass(User.class);
+            authService.signup(signupReq());
+            verify(userRepository).save(cap.capture());
+            assertThat(cap.getValue().getRoles()).containsExactlyInAnyOrder("USER", "ADMIN");
+        }
+
         @Test @DisplayName("createdAt populated on saved user")
         void signup_createdAtSet() {
             stubSignup();
@@ -114,16 +129,16 @@ class AuthServiceTest {
         void signup_jwtUsesPersistedIds() {
             stubSignup();
             authService.signup(signupReq());
-            verify(jwtUtil).generateToken(1L, "alice");
+            verify(jwtUtil).generateToken(1L, "alice", Set.of("USER"));
         }
 
-        @Test @DisplayName("demo data seeded AFTER save()")
+        @Test @DisplayName("demo data queued AFTER save()")
         void signup_demoDataAfterSave() {
             stubSignup();
             authService.signup(signupReq());
-            InOrder order = inOrder(userRepository, demoDataService);
+            InOrder order = inOrder(userRepository, demoSeedJobService);
             order.verify(userRepository).save(any(User.class));
-            order.verify(demoDataService).seedUserIfEmpty(1L);
+            order.verify(demoSeedJobService).enqueue(1L);
         }
 
         @Test @DisplayName("save() called exactly once")
@@ -150,6 +165,17 @@ class AuthServiceTest {
             verify(userRepository, never()).save(any());
         }
 
+        @Test @DisplayName("Reserved \"__\" usernames rejected without touching the DB")
+        void signup_reservedUsername_throws() {
+            SignupRequest req = signupReq();
+            req.setUsername("__demo_template__");
+            assertThatThrownBy(() -> authService.signup(req))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessageContaining("Username is reserved");
+            verify(userRepository, never()).findByUsername(any());
+            verify(userRepository, never()).save(any());
+        }
+
         @Test @DisplayName("Throws when email already registered")
         void signup_duplicateEmail_throws() {
             when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
@@ -177,14 +203,14 @@ class AuthServiceTest {
 
         // ── Demo-data resilience ──────────────────────────────────────────────
 
-        @Test @DisplayName("Signup succeeds even when DemoDataService throws")
+        @Test @DisplayName("Signup succeeds even when queuing demo data throws")
         void signup_demoDataThrows_signupStillSucceeds() {
             when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
             when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.empty());
             when(passwordEncoder.encode(RAW)).thenReturn(HASH);
             when(userRepository.save(any())).thenReturn(savedUser);
-            when(jwtUtil.generateToken(1L, "alice")).thenReturn(JWT);
-            when(demoDataService.seedUserIfEmpty(anyLong())).thenThrow(new RuntimeException("DB down"));
+            when(jwtUtil.generateToken(1L, "alice", Set.of("USER"))).thenReturn(JWT);
+            doThrow(new RuntimeException("DB down")).when(demoSeedJobService).enqueue(anyLong());
             assertThatCode(() -> authService.signup(signupReq())).doesNotThrowAnyException();
         }
 
@@ -194,8 +220,8 @@ class AuthServiceTest {
             when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.empty());
             when(passwordEncoder.encode(RAW)).thenReturn(HASH);
             when(userRepository.save(any())).thenReturn(savedUser);
-            when(jwtUtil.generateToken(1L, "alice")).thenReturn(JWT);
-            when(demoDataService.seedUserIfEmpty(anyLong())).thenThrow(new RuntimeException("timeout"));
+            when(jwtUtil.generateToken(1L, "alice", Set.of("USER"))).thenReturn(JWT);
+            doThrow(new RuntimeException("timeout")).when(demoSeedJobService).enqueue(anyLong());
             AuthResponse r = authService.signup(signupReq());
             assertThat(r.getToken()).isEqualTo(JWT);
         }
@@ -214,8 +240,7 @@ class AuthServiceTest {
             when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.empty());
             when(passwordEncoder.encode(RAW)).thenReturn(HASH);
             when(userRepository.save(any(User.class))).thenReturn(savedUser);
-            when(jwtUtil.generateToken(1L, "alice")).thenReturn(JWT);
-            when(demoDataService.seedUserIfEmpty(1L)).thenReturn(30);
+            when(jwtUtil.generateToken(1L, "alice", Set.of("USER"))).thenReturn(JWT);
         }
     }
 
@@ -239,7 +264,7 @@ class AuthServiceTest {
         void login_jwtUsesDbFields() {
             stubLogin();
             authService.login(loginReq("alice", RAW));
-            verify(jwtUtil).generateToken(1L, "alice");
+            verify(jwtUtil).generateToken(1L, "alice", Set.of("USER"));
         }
 
         @Test @DisplayName("matches() called with raw password and stored hash")
@@ -270,7 +295,7 @@ class AuthServiceTest {
         void login_unknownUsername_noToken() {
             when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
             assertThatThrownBy(() -> authService.login(loginReq("ghost", RAW)));
-            verify(jwtUtil, never()).generateToken(anyLong(), anyString());
+            verify(jwtUtil, never()).generateToken(anyLong(), anyString(), anyCollection());
         }
 
         @Test @DisplayName("No token generated for wrong password")
@@ -278,7 +303,7 @@ class AuthServiceTest {
             when(userRepository.findByUsername("alice")).thenReturn(Optional.of(savedUser));
             when(passwordEncoder.matches("bad", HASH)).thenReturn(false);
             assertThatThrownBy(() -> authService.login(loginReq("alice", "bad")));
-            verify(jwtUtil, never()).generateToken(anyLong(), anyString());
+            verify(jwtUtil, never()).generateToken(anyLong(), anyString(), anyCollection());
         }
 
         @Test @DisplayName("Error messages identical for unknown-user and wrong-password (no enumeration)")
@@ -295,11 +320,11 @@ class AuthServiceTest {
             assertThat(msgA).isEqualTo(msgB);
         }
 
-        @Test @DisplayName("login() never calls DemoDataService")
+        @Test @DisplayName("login() never queues demo data")
         void login_neverSeedsData() {
             stubLogin();
             authService.login(loginReq("alice", RAW));
-            verifyNoInteractions(demoDataService);
+            verifyNoInteractions(demoSeedJobService);
         }
 
         @Test @DisplayName("login() never modifies any user record")
@@ -322,7 +347,41 @@ class AuthServiceTest {
         private void stubLogin() {
             when(userRepository.findByUsername("alice")).thenReturn(Optional.of(savedUser));
             when(passwordEncoder.matches(RAW, HASH)).thenReturn(true);
-            when(jwtUtil.generateToken(1L, "alice")).thenReturn(JWT);
+            when(jwtUtil.generateToken(1L, "alice", Set.of("USER"))).thenReturn(JWT);
+        }
+    }
+
+    // ── metrics ───────────────────────────────────────────────────────────────
+
+    @Nested @DisplayName("metrics")
+    class MetricsTests {
+
+        @Test @DisplayName("Successful login is timed with outcome=success")
+        void login_success_timed() {
+            when(userRepository.findByUsername("alice")).thenReturn(Optional.of(savedUser));
+            when(passwordEncoder.matches(RAW, HASH)).thenReturn(true);
+            authService.login(loginReq("alice", RAW));
+            assertThat(meterRegistry.get("auth.login").tag("outcome", "success").timer().count()).isEqualTo(1);
+        }
+
+        @Test @DisplayName("Rejected login is timed with outcome=failure")
+        void login_badPassword_timedAsFailure() {
+            when(userRepository.findByUsername("alice")).thenReturn(Optional.of(savedUser));
+            when(passwordEncoder.matches("wrong", HASH)).thenReturn(false);
+            assertThatThrownBy(() -> authService.login(loginReq("alice", "wrong")))
+                .isInstanceOf(RuntimeException.class);
+            assertThat(meterRegistry.get("auth.login").tag("outcome", "failure").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("auth.login").tag("outcome", "success").timer().count()).isZero();
+        }
+
+        @Test @DisplayName("Signup refused by the hashing pool is timed with outcome=overloaded")
+        void signup_overloaded_timed() {
+            when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+            when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.empty());
+            when(passwordEncoder.encode(RAW)).thenThrow(new ServiceOverloadedException("busy", 1));
+            assertThatThrownBy(() -> authService.signup(signupReq()))
+                .isInstanceOf(ServiceOverloadedException.class);
+            assertThat(meterRegistry.get("auth.signup").tag("outcome", "overloaded").timer().count()).isEqualTo(1);
         }
     }
 
@@ -1,35 +1,44 @@
 package com.finsight.service;
 
-import com.finsight.dto.FraudDetectionResult;
 import com.finsight.model.FraudAlert;
-import com.finsight.model.RiskLevel;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
 import com.finsight.repository.FraudAlertRepository;
 import com.finsight.repository.TransactionRepository;
 import com.finsight.repository.UserRepository;
+import com.finsight.service.DemoDataService.SeedProgressListener;
+import com.finsight.service.DemoTemplateService.DemoTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Demo Data Service Tests")
 class DemoDataServiceTest {
 
+    private static final Long TEMPLATE_USER_ID = 99L;
+
     @Mock
     private TransactionRepository transactionRepository;
 
@@ -37,15 +46,19 @@ class DemoDataServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private FraudDetectionService fraudDetectionService;
+    private FraudAlertRepository fraudAlertRepository;
 
     @Mock
-    private FraudAlertRepository fraudAlertRepository;
+    private DemoTemplateService demoTemplateService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private DemoDataService demoDataService;
 
     private User testUser;
+    private DemoTemplate template;
 
     @BeforeEach
     void setUp() {
@@ -55,339 +68,134 @@ class DemoDataServiceTest {
             .email("test@example.com")
             .password("password")
             .build();
+        template = new DemoTemplate(TEMPLATE_USER_ID, LocalDateTime.now().minusDays(3), 240);
     }
 
     @Test
-    @DisplayName("Seed user if empty - creates transactions when user has none")
-    void seedUserIfEmpty_NoExistingTransactions_CreatesTransactions() {
+    @DisplayName("Seed user if empty - clones the template when user has no transactions")
+    void seedUserIfEmpty_NoExistingTransactions_ClonesTemplate() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId(1L);
-                }
-                return txn;
-            });
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(false)
-                .fraudScore(0.0)
-                .riskLevel(RiskLevel.LOW)
-                .reasons(List.of())
-                .build());
+        when(demoTemplateService.ensureTemplate()).thenReturn(template);
+        when(transactionRepository.cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong())).thenReturn(240);
 
         // When
         int count = demoDataService.seedUserIfEmpty(1L);
 
         // Then
-        assertThat(count).isGreaterThan(0);
-        verify(transactionRepository, atLeastOnce()).save(any(Transaction.class));
-        verify(fraudDetectionService, atLeastOnce()).analyzeTransaction(any(Transaction.class));
-    }
-
-    @Test
-    @DisplayName("Seed user if empty - skips when user has transactions")
-    void seedUserIfEmpty_ExistingTransactions_SkipsSeeding() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(transactionRepository.countByUser(testUser)).thenReturn(10L);
-
-        // When
-        int count = demoDataService.seedUserIfEmpty(1L);
-
-        // Then
-        assertThat(count).isEqualTo(0);
+        assertThat(count).isEqualTo(240);
+        verify(fraudAlertRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong());
         verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(fraudAlertRepository, never()).save(any(FraudAlert.class));
+        verify(eventPublisher).publishEvent(new UserDataResetEvent(1L));
     }
 
     @Test
-    @DisplayName("Seed user if empty - user not found throws exception")
-    void seedUserIfEmpty_UserNotFound_ThrowsException() {
-        // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
-
-        // When/Then
-        assertThatThrownBy(() -> demoDataService.seedUserIfEmpty(999L))
-            .isInstanceOf(RuntimeException.class)
-            .hasMessageContaining("User not found");
-    }
-
-    @Test
-    @DisplayName("Force reseed - deletes existing and creates new transactions")
-    void forceReseedUser_DeletesAndCreatesNew() {
-        // Given
-        List<Transaction> existingTransactions = new ArrayList<>();
-        existingTransactions.add(Transaction.builder().id(1L).user(testUser).build());
-        
-        List<FraudAlert> existingAlerts = new ArrayList<>();
-        existingAlerts.add(FraudAlert.builder().id(1L).user(testUser).build());
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(fraudAlertRepository.findByUserOrderByCreatedAtDesc(testUser))
-            .thenReturn(existingAlerts);
-        when(transactionRepository.findByUserOrderByTransactionDateDesc(testUser))
-            .thenReturn(existingTransactions);
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId(2L);
-                }
-                return txn;
-            });
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(false)
-                .fraudScore(0.0)
-                .riskLevel(RiskLevel.LOW)
-                .reasons(List.of())
-                .build());
-
-        // When
-        int count = demoDataService.forceReseedUser(1L);
-
-        // Then
-        assertThat(count).isGreaterThan(0);
-        verify(fraudAlertRepository).deleteAll(existingAlerts);
-        verify(transactionRepository).deleteAll(existingTransactions);
-        verify(transactionRepository, atLeastOnce()).save(any(Transaction.class));
-    }
-
-    @Test
-    @DisplayName("Demo transactions span multiple months")
-    void demoTransactions_SpanMultipleMonths() {
+    @DisplayName("Seed user if empty - dates are shifted by the template's age")
+    void seedUserIfEmpty_ShiftsByTemplateAge() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        
-        List<Transaction> capturedTransactions = new ArrayList<>();
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId((long) (capturedTransactions.size() + 1));
-                }
-                capturedTransactions.add(txn);
-                return txn;
-            });
-        
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(false)
-                .fraudScore(0.0)
-                .riskLevel(RiskLevel.LOW)
-                .reasons(List.of())
-                .build());
+        when(demoTemplateService.ensureTemplate()).thenReturn(template);
 
         // When
         demoDataService.seedUserIfEmpty(1L);
 
         // Then
-        assertThat(capturedTransactions).isNotEmpty();
-        
-        // Check that transactions span multiple months
-        long distinctMonths = capturedTransactions.stream()
-            .map(txn -> txn.getTransactionDate().getMonth())
-            .distinct()
-            .count();
-        
-        assertThat(distinctMonths).isGreaterThan(1);
+        ArgumentCaptor<Long> txnShift = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> alertShift = ArgumentCaptor.forClass(Long.class);
+        verify(transactionRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), txnShift.capture());
+        verify(fraudAlertRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), alertShift.capture());
+        assertThat(txnShift.getValue()).isCloseTo(Duration.ofDays(3).toSeconds(), within(5L));
+        assertThat(alertShift.getValue()).isEqualTo(txnShift.getValue());
     }
 
     @Test
-    @DisplayName("Demo transactions include fraud scenarios")
-    void demoTransactions_IncludeFraudScenarios() {
+    @DisplayName("Seed user if empty - transactions are cloned before their alerts")
+    void seedUserIfEmpty_TransactionsBeforeAlerts() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        
-        List<Transaction> capturedTransactions = new ArrayList<>();
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId((long) (capturedTransactions.size() + 1));
-                }
-                capturedTransactions.add(txn);
-                return txn;
-            });
-        
-        // Return high fraud score for some transactions
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                boolean isFraud = txn.getAmount().compareTo(BigDecimal.valueOf(1000)) > 0;
-                return FraudDetectionResult.builder()
-                    .fraudulent(isFraud)
-                    .fraudScore(isFraud ? 85.0 : 0.0)
-                    .riskLevel(isFraud ? RiskLevel.HIGH : RiskLevel.LOW)
-                    .reasons(isFraud ? List.of("High amount") : List.of())
-                    .build();
-            });
+        when(demoTemplateService.ensureTemplate()).thenReturn(template);
 
         // When
         demoDataService.seedUserIfEmpty(1L);
 
         // Then
-        assertThat(capturedTransactions).isNotEmpty();
-        
-        // Check that some transactions have high amounts (fraud triggers)
-        long highAmountTransactions = capturedTransactions.stream()
-            .filter(txn -> txn.getAmount().compareTo(BigDecimal.valueOf(1000)) > 0)
-            .count();
-        
-        assertThat(highAmountTransactions).isGreaterThan(0);
+        InOrder order = inOrder(transactionRepository, fraudAlertRepository);
+        order.verify(transactionRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong());
+        order.verify(fraudAlertRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong());
     }
 
     @Test
-    @DisplayName("Fraud alerts created for fraudulent transactions")
-    void fraudAlerts_CreatedForFraudulentTransactions() {
+    @DisplayName("Seed user if empty - reports progress before and after the copy")
+    void seedUserIfEmpty_ReportsProgress() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId(1L);
-                }
-                return txn;
-            });
-        
-        // Return fraud result with score > 0
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(true)
-                .fraudScore(85.0)
-                .riskLevel(RiskLevel.HIGH)
-                .reasons(List.of("High amount anomaly"))
-                .build());
+        when(demoTemplateService.ensureTemplate()).thenReturn(template);
+        when(transactionRepository.cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong())).thenReturn(240);
+        List<int[]> updates = new ArrayList<>();
+        SeedProgressListener listener = (processed, total) -> updates.add(new int[]{processed, total});
 
         // When
-        demoDataService.seedUserIfEmpty(1L);
+        demoDataService.seedUserIfEmpty(1L, listener);
 
         // Then
-        verify(fraudAlertRepository, atLeastOnce()).save(any(FraudAlert.class));
+        assertThat(updates).containsExactly(new int[]{0, 240}, new int[]{240, 240});
     }
 
     @Test
-    @DisplayName("Transactions have valid categories")
-    void transactions_HaveValidCategories() {
+    @DisplayName("Seed user if empty - skips when user has transactions")
+    void seedUserIfEmpty_ExistingTransactions_SkipsSeeding() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        
-        List<Transaction> capturedTransactions = new ArrayList<>();
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId((long) (capturedTransactions.size() + 1));
-                }
-                capturedTransactions.add(txn);
-                return txn;
-            });
-        
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(false)
-                .fraudScore(0.0)
-                .riskLevel(RiskLevel.LOW)
-                .reasons(List.of())
-                .build());
+        when(transactionRepository.countByUser(testUser)).thenReturn(10L);
 
         // When
-        demoDataService.seedUserIfEmpty(1L);
+        int count = demoDataService.seedUserIfEmpty(1L);
 
         // Then
-        assertThat(capturedTransactions).isNotEmpty();
-        assertThat(capturedTransactions).allMatch(txn -> txn.getCategory() != null && !txn.getCategory().isEmpty());
+        assertThat(count).isEqualTo(0);
+        verifyNoInteractions(demoTemplateService);
+        verify(transactionRepository, never()).cloneFromTemplate(anyLong(), anyLong(), anyLong());
     }
 
     @Test
-    @DisplayName("Transactions have valid amounts")
-    void transactions_HaveValidAmounts() {
+    @DisplayName("Seed user if empty - user not found throws exception")
+    void seedUserIfEmpty_UserNotFound_ThrowsException() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        
-        List<Transaction> capturedTransactions = new ArrayList<>();
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId((long) (capturedTransactions.size() + 1));
-                }
-                capturedTransactions.add(txn);
-                return txn;
-            });
-        
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(false)
-                .fraudScore(0.0)
-                .riskLevel(RiskLevel.LOW)
-                .reasons(List.of())
-                .build());
-
-        // When
-        demoDataService.seedUserIfEmpty(1L);
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
-        // Then
-        assertThat(capturedTransactions).isNotEmpty();
-        assertThat(capturedTransactions).allMatch(txn -> 
-            txn.getAmount() != null && txn.getAmount().compareTo(BigDecimal.ZERO) >= 0
-        );
+        // When/Then
+        assertThatThrownBy(() -> demoDataService.seedUserIfEmpty(999L))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("User not found");
     }
 
     @Test
-    @DisplayName("Deterministic generation based on user ID")
-    void generation_IsDeterministic() {
+    @DisplayName("Force reseed - bulk deletes alerts then transactions and clones the template")
+    void forceReseedUser_DeletesAndClones() {
         // Given
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(transactionRepository.countByUser(testUser)).thenReturn(0L);
-        
-        List<Transaction> firstRun = new ArrayList<>();
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId((long) (firstRun.size() + 1));
-                }
-                firstRun.add(txn);
-                return txn;
-            });
-        
-        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
-            .thenReturn(FraudDetectionResult.builder()
-                .fraudulent(false)
-                .fraudScore(0.0)
-                .riskLevel(RiskLevel.LOW)
-                .reasons(List.of())
-                .build());
+        when(fraudAlertRepository.deleteByUserId(1L)).thenReturn(8);
+        when(transactionRepository.deleteByUserId(1L)).thenReturn(240);
+        when(demoTemplateService.ensureTemplate()).thenReturn(template);
+        when(transactionRepository.cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong())).thenReturn(240);
 
         // When
-        int count1 = demoDataService.seedUserIfEmpty(1L);
-
-        // Reset for second run
-        List<Transaction> secondRun = new ArrayList<>();
-        when(transactionRepository.save(any(Transaction.class)))
-            .thenAnswer(invocation -> {
-                Transaction txn = invocation.getArgument(0);
-                if (txn.getId() == null) {
-                    txn.setId((long) (secondRun.size() + 1));
-                }
-                secondRun.add(txn);
-                return txn;
-            });
-
-        int count2 = demoDataService.seedUserIfEmpty(1L);
+        int count = demoDataService.forceReseedUser(1L);
 
         // Then
-        assertThat(count1).isEqualTo(count2);
-        assertThat(firstRun).hasSameSizeAs(secondRun);
+        assertThat(count).isEqualTo(240);
+        InOrder inOrder = inOrder(fraudAlertRepository, transactionRepository, eventPublisher);
+        inOrder.verify(fraudAlertRepository).deleteByUserId(1L);
+        inOrder.verify(transactionRepository).deleteByUserId(1L);
+        inOrder.verify(eventPublisher).publishEvent(new UserDataResetEvent(1L));
+        inOrder.verify(transactionRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong());
+        inOrder.verify(fraudAlertRepository).cloneFromTemplate(eq(TEMPLATE_USER_ID), eq(1L), anyLong());
+        verify(fraudAlertRepository, never()).findByUserOrderByCreatedAtDesc(any());
+        verify(transactionRepository, never()).findByUserOrderByTransactionDateDesc(any());
     }
 }
@@ -0,0 +1,183 @@
+package com.finsight.service;
+
+import com.finsight.dto.DemoSeedStatus;
+import com.finsight.dto.DemoSeedStatus.State;
+import com.finsight.service.DemoDataService.SeedProgressListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DemoSeedJobService")
+class DemoSeedJobServiceTest {
+
+    @Mock private DemoDataService demoDataService;
+
+    private DemoSeedJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new DemoSeedJobService(demoDataService, 1, 1, Duration.ofMinutes(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("No job queued → empty status")
+    void unknownUser_noStatus() {
+        assertThat(jobService.getStatus(99L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Job runs in the background and ends DONE with progress and count")
+    void enqueue_runsToDone() throws Exception {
+        when(demoDataService.seedUserIfEmpty(eq(1L), any())).thenAnswer(inv -> {
+            SeedProgressListener progress = inv.getArgument(1);
+            progress.onProgress(1, 2);
+            progress.onProgress(2, 2);
+            return 2;
+        });
+
+        jobService.enqueue(1L);
+
+        DemoSeedStatus status = awaitFinished(1L);
+        assertThat(status.state()).isEqualTo(State.DONE);
+        assertThat(status.processed()).isEqualTo(2);
+        assertThat(status.total()).isEqualTo(2);
+        assertThat(status.transactionsCreated()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Seeding failure is reported as FAILED with the error message")
+    void seedingThrows_failed() throws Exception {
+        when(demoDataService.seedUserIfEmpty(eq(1L), any())).thenThrow(new RuntimeException("DB down"));
+
+        jobService.enqueue(1L);
+
+        DemoSeedStatus status = awaitFinished(1L);
+        assertThat(status.state()).isEqualTo(State.FAILED);
+        assertThat(status.message()).isEqualTo("DB down");
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the job stays PENDING until commit")
+    void insideTransaction_submittedAfterCommit() throws Exception {
+        when(demoDataService.seedUserIfEmpty(eq(1L), any())).thenReturn(5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        jobService.enqueue(1L);
+
+        assertThat(jobService.getStatus(1L)).get()
+                .extracting(DemoSeedStatus::state).isEqualTo(State.PENDING);
+        verifyNoInteractions(demoDataService);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(awaitFinished(1L).state()).isEqualTo(State.DONE);
+    }
+
+    @Test
+    @DisplayName("Rolled-back signup never seeds and leaves no status behind")
+    void rolledBack_discarded() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        jobService.enqueue(1L);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(jobService.getStatus(1L)).isEmpty();
+        verifyNoInteractions(demoDataService);
+    }
+
+    @Test
+    @DisplayName("Worker and queue both full → job marked FAILED instead of blocking signup")
+    void queueFull_failedImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(demoDataService.seedUserIfEmpty(eq(1L), any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+        lenient().when(demoDataService.seedUserIfEmpty(eq(2L), any())).thenReturn(0);
+
+        jobService.enqueue(1L);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        jobService.enqueue(2L);
+        jobService.enqueue(3L);
+
+        assertThat(jobService.getStatus(3L)).get()
+                .extracting(DemoSeedStatus::state).isEqualTo(State.FAILED);
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("User data reset drops a finished status")
+    void userDataReset_dropsFinishedStatus() throws Exception {
+        when(demoDataService.seedUserIfEmpty(eq(1L), any())).thenReturn(2);
+        jobService.enqueue(1L);
+        awaitFinished(1L);
+
+        jobService.onUserDataReset(new UserDataResetEvent(1L));
+
+        assertThat(jobService.getStatus(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Finished statuses past their retention are evicted without a new signup")
+    void evictFinished_dropsExpiredStatuses() throws Exception {
+        DemoSeedJobService shortRetention = new DemoSeedJobService(demoDataService, 1, 1, Duration.ZERO);
+        when(demoDataService.seedUserIfEmpty(eq(1L), any())).thenReturn(2);
+        try {
+            shortRetention.enqueue(1L);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!shortRetention.getStatus(1L).orElseThrow().isFinished() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(5);
+
+            assertThat(shortRetention.evictFinished()).isEqualTo(1);
+            assertThat(shortRetention.getStatus(1L)).isEmpty();
+        } finally {
+            shortRetention.shutdown();
+        }
+    }
+
+    private void completeTransaction(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private DemoSeedStatus awaitFinished(Long userId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            DemoSeedStatus status = jobService.getStatus(userId).orElseThrow();
+            if (status.isFinished()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("seeding job for user " + userId + " did not finish");
+    }
+}
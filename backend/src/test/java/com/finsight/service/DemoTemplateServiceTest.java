@@ -0,0 +1,261 @@
+package com.finsight.service;
+
+import com.finsight.dto.FraudDetectionResult;
+import com.finsight.model.AccountType;
+import com.finsight.model.FraudAlert;
+import com.finsight.model.RiskLevel;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.FraudAlertRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import com.finsight.service.DemoTemplateService.DemoTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Demo Template Service Tests")
+class DemoTemplateServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FraudDetectionService fraudDetectionService;
+
+    @Mock
+    private FraudAlertRepository fraudAlertRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DemoTemplateService demoTemplateService;
+
+    private final List<Transaction> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findFirstByAccountTypeOrderByIdAsc(AccountType.DEMO_TEMPLATE)).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(99L);
+            return user;
+        });
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction txn = invocation.getArgument(0);
+            if (txn.getId() == null) {
+                txn.setId((long) (saved.size() + 1));
+                saved.add(txn);
+            }
+            return txn;
+        });
+        when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(lowRisk());
+    }
+
+    @Test
+    @DisplayName("Generates and scores the template under a hidden user when none exists")
+    void ensureTemplate_NoTemplate_GeneratesAndScores() {
+        // When
+        DemoTemplate template = demoTemplateService.ensureTemplate();
+
+        // Then
+        assertThat(template.userId()).isEqualTo(99L);
+        assertThat(template.transactionCount()).isEqualTo(saved.size()).isGreaterThan(0);
+        verify(fraudDetectionService, times(saved.size())).analyzeTransaction(any(Transaction.class));
+        verify(userRepository).save(argThat(user ->
+            user.getUsername().equals(DemoTemplateService.TEMPLATE_USERNAME)
+                && user.getAccountType() == AccountType.DEMO_TEMPLATE
+                && !user.getPassword().startsWith("$2")));
+    }
+
+    @Test
+    @DisplayName("Second call in the same month reuses the template without touching the DB")
+    void ensureTemplate_SameMonth_Cached() {
+        // When
+        DemoTemplate first = demoTemplateService.ensureTemplate();
+        DemoTemplate second = demoTemplateService.ensureTemplate();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findFirstByAccountTypeOrderByIdAsc(AccountType.DEMO_TEMPLATE);
+    }
+
+    @Test
+    @DisplayName("Template already generated this month (e.g. before a restart) is reused")
+    void ensureTemplate_PersistedThisMonth_Reused() {
+        // Given
+        LocalDateTime generatedAt = LocalDateTime.now().withDayOfMonth(1).withHour(0);
+        User existing = User.builder().id(7L).username(DemoTemplateService.TEMPLATE_USERNAME)
+            .createdAt(generatedAt).build();
+        when(userRepository.findFirstByAccountTypeOrderByIdAsc(AccountType.DEMO_TEMPLATE)).thenReturn(Optional.of(existing));
+        when(transactionRepository.countByUser(existing)).thenReturn(240L);
+
+        // When
+        DemoTemplate template = demoTemplateService.ensureTemplate();
+
+        // Then
+        assertThat(template).isEqualTo(new DemoTemplate(7L, generatedAt, 240));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Template from an earlier month is wiped with bulk deletes and regenerated")
+    void ensureTemplate_Stale_Regenerated() {
+        // Given
+        User existing = User.builder().id(7L).username(DemoTemplateService.TEMPLATE_USERNAME)
+            .createdAt(LocalDateTime.now().minusMonths(1)).build();
+        when(userRepository.findFirstByAccountTypeOrderByIdAsc(AccountType.DEMO_TEMPLATE)).thenReturn(Optional.of(existing));
+        doReturn(existing).when(userRepository).save(existing);
+
+        // When
+        DemoTemplate template = demoTemplateService.ensureTemplate();
+
+        // Then
+        verify(fraudAlertRepository).deleteByUserId(7L);
+        verify(transactionRepository).deleteByUserId(7L);
+        assertThat(template.userId()).isEqualTo(7L);
+        assertThat(template.generatedAt().getMonth()).isEqualTo(LocalDateTime.now().getMonth());
+        assertThat(saved).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Demo transactions span multiple months")
+    void demoTransactions_SpanMultipleMonths() {
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        long distinctMonths = saved.stream()
+            .map(txn -> txn.getTransactionDate().getMonth())
+            .distinct()
+            .count();
+
+        assertThat(distinctMonths).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Template transaction dates are unique, so alerts can be re-attached by date")
+    void demoTransactions_UniqueDates() {
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        assertThat(saved).extracting(Transaction::getTransactionDate).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("No demo transaction is dated in the future")
+    void demoTransactions_NotInFuture() {
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(saved).allMatch(txn -> !txn.getTransactionDate().isAfter(now));
+    }
+
+    @Test
+    @DisplayName("Demo transactions include fraud scenarios")
+    void demoTransactions_IncludeFraudScenarios() {
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        long highAmountTransactions = saved.stream()
+            .filter(txn -> txn.getAmount().compareTo(BigDecimal.valueOf(1000)) > 0)
+            .count();
+
+        assertThat(highAmountTransactions).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("Fraud alerts created for fraudulent transactions")
+    void fraudAlerts_CreatedForFraudulentTransactions() {
+        // Given
+        when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
+            .thenReturn(FraudDetectionResult.builder()
+                .fraudulent(true)
+                .fraudScore(85.0)
+                .riskLevel(RiskLevel.HIGH)
+                .reasons(List.of("High amount anomaly"))
+                .build());
+
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        verify(fraudAlertRepository, times(saved.size())).save(any(FraudAlert.class));
+    }
+
+    @Test
+    @DisplayName("Transactions have valid categories")
+    void transactions_HaveValidCategories() {
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        assertThat(saved).allMatch(txn -> txn.getCategory() != null && !txn.getCategory().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Transactions have valid amounts")
+    void transactions_HaveValidAmounts() {
+        // When
+        demoTemplateService.ensureTemplate();
+
+        // Then
+        assertThat(saved).allMatch(txn ->
+            txn.getAmount() != null && txn.getAmount().compareTo(BigDecimal.ZERO) >= 0
+        );
+    }
+
+    @Test
+    @DisplayName("Generation is deterministic")
+    void generation_IsDeterministic() {
+        // When
+        demoTemplateService.ensureTemplate();
+        List<Transaction> firstRun = new ArrayList<>(saved);
+        saved.clear();
+        new DemoTemplateService(transactionRepository, userRepository, fraudDetectionService,
+            fraudAlertRepository, transactionManager).ensureTemplate();
+
+        // Then
+        assertThat(saved).hasSameSizeAs(firstRun);
+        for (int i = 0; i < saved.size(); i++) {
+            assertThat(saved.get(i).getCategory()).isEqualTo(firstRun.get(i).getCategory());
+            assertThat(saved.get(i).getAmount()).isEqualTo(firstRun.get(i).getAmount());
+        }
+    }
+
+    private static FraudDetectionResult lowRisk() {
+        return FraudDetectionResult.builder()
+            .fraudulent(false)
+            .fraudScore(0.0)
+            .riskLevel(RiskLevel.LOW)
+            .reasons(List.of())
+            .build();
+    }
+}
@@ -88,7 +88,7 @@ class FraudAlertServiceTest {
                 .build()
         );
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudAlertRepository.findByUserOrderByCreatedAtDesc(testUser))
             .thenReturn(alerts);
 
@@ -116,7 +116,7 @@ class FraudAlertServiceTest {
 
         List<FraudAlert> unresolvedAlerts = List.of(unresolvedAlert);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudAlertRepository.findByUserAndResolvedOrderByCreatedAtDesc(testUser, false))
             .thenReturn(unresolvedAlerts);
 
@@ -134,7 +134,7 @@ class FraudAlertServiceTest {
         // Given
         List<FraudAlert> highSeverityAlerts = List.of(testAlert);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudAlertRepository.findByUserAndSeverityOrderByCreatedAtDesc(testUser, RiskLevel.HIGH))
             .thenReturn(highSeverityAlerts);
 
@@ -151,7 +151,7 @@ class FraudAlertServiceTest {
         // Given
         List<FraudAlert> filteredAlerts = List.of(testAlert);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudAlertRepository.findByUserAndResolvedAndSeverityOrderByCreatedAtDesc(
             testUser, false, RiskLevel.HIGH))
             .thenReturn(filteredAlerts);
@@ -166,14 +166,16 @@ class FraudAlertServiceTest {
     }
 
     @Test
-    void findByUser_UserNotFound_ThrowsException() {
+    void findByUser_UsesUserReference_WithoutLoadingUser() {
         // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(fraudAlertRepository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(List.of());
 
-        // When/Then
-        assertThatThrownBy(() -> fraudAlertService.findByUser(999L, null, null))
-            .isInstanceOf(RuntimeException.class)
-            .hasMessageContaining("User not found");
+        // When
+        fraudAlertService.findByUser(1L, null, null);
+
+        // Then
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -256,7 +258,7 @@ class FraudAlertServiceTest {
             FraudAlert.builder().id(3L).user(testUser).transaction(testTransaction).message("Alert 3").severity(RiskLevel.LOW).resolved(false).createdAt(LocalDateTime.now()).build()
         );
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudAlertRepository.findByUserOrderByCreatedAtDesc(testUser))
             .thenReturn(alerts);
 
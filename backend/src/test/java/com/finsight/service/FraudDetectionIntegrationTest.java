@@ -5,6 +5,7 @@ import com.finsight.model.RiskLevel;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
 import com.finsight.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,7 +34,7 @@ class FraudDetectionIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        fraudDetectionService = new FraudDetectionService(transactionRepository);
+        fraudDetectionService = new FraudDetectionService(transactionRepository, new SimpleMeterRegistry());
         testUser = User.builder()
             .id(1L)
             .username("testuser")
@@ -5,6 +5,7 @@ import com.finsight.model.RiskLevel;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
 import com.finsight.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import net.jqwik.api.*;
 import org.mockito.Mockito;
 
@@ -25,7 +26,7 @@ class FraudDetectionServicePropertyTest {
     void fraudScoreIsAlwaysBetween0And100(@ForAll("transactions") Transaction transaction) {
         // Setup service with mocks for each test
         TransactionRepository repo = Mockito.mock(TransactionRepository.class);
-        FraudDetectionService service = new FraudDetectionService(repo);
+        FraudDetectionService service = new FraudDetectionService(repo, new SimpleMeterRegistry());
         
         // Setup mocks
         when(repo.calculateAverageAmount(any())).thenReturn(BigDecimal.valueOf(100));
@@ -72,7 +73,7 @@ class FraudDetectionServicePropertyTest {
     void fraudDetectionIsDeterministic(@ForAll("transactions") Transaction transaction) {
         // Setup service with mocks for each test
         TransactionRepository repo = Mockito.mock(TransactionRepository.class);
-        FraudDetectionService service = new FraudDetectionService(repo);
+        FraudDetectionService service = new FraudDetectionService(repo, new SimpleMeterRegistry());
         
         // Setup mocks with fixed values
         when(repo.calculateAverageAmount(any())).thenReturn(BigDecimal.valueOf(100));
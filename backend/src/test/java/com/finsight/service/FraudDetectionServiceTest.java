@@ -1,10 +1,15 @@
 package com.finsight.service;
 
+import com.finsight.dto.FraudDecisionTrace;
 import com.finsight.dto.FraudDetectionResult;
 import com.finsight.model.RiskLevel;
 import com.finsight.model.Transaction;
 import com.finsight.model.User;
 import com.finsight.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +17,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
@@ -29,11 +37,14 @@ class FraudDetectionServiceTest {
     
     private FraudDetectionService fraudDetectionService;
     
+    private SimpleMeterRegistry meterRegistry;
+    
     private User testUser;
     
     @BeforeEach
     void setUp() {
-        fraudDetectionService = new FraudDetectionService(transactionRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        fraudDetectionService = new FraudDetectionService(transactionRepository, meterRegistry);
         testUser = User.builder()
             .id(1L)
             .username("testuser")
@@ -59,6 +70,105 @@ class FraudDetectionServiceTest {
         assertThat(result.getReasons()).anyMatch(reason -> reason.contains("exceeds 3x user average"));
     }
     
+    @Test
+    void analyzeTransaction_TimesEachRuleByOutcome() {
+        // Given: high amount and rapid-fire trigger, no location, known category
+        Transaction transaction = createTransaction(BigDecimal.valueOf(400), "groceries");
+        transaction.setLocation(null);
+        when(transactionRepository.calculateAverageAmount(any())).thenReturn(BigDecimal.valueOf(100));
+        when(transactionRepository.countByUserAndTransactionDateBetween(any(), any(), any())).thenReturn(5L);
+        when(transactionRepository.findDistinctCategoriesByUser(any())).thenReturn(List.of("groceries"));
+        when(transactionRepository.findByUserOrderByTransactionDateDesc(any())).thenReturn(List.of(transaction, transaction));
+        
+        // When
+        FraudDetectionResult result = fraudDetectionService.analyzeTransaction(transaction);
+        
+        // Then
+        assertThat(result.getRiskLevel()).isEqualTo(RiskLevel.MEDIUM);
+        assertThat(ruleCount("high_amount", "triggered")).isEqualTo(1);
+        assertThat(ruleCount("rapid_fire", "triggered")).isEqualTo(1);
+        assertThat(ruleCount("geo_anomaly", "skipped")).isEqualTo(1);
+        assertThat(ruleCount("unusual_category", "passed")).isEqualTo(1);
+        assertThat(meterRegistry.get("fraud.analysis").tag("risk", "medium").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fraud.analysis").tag("risk", "low").timer().count()).isZero();
+    }
+    
+    @Test
+    void analyzeTransaction_EmitsFlightRecorderEvent() throws Exception {
+        // Given: same rules as above, recorded by a JFR recording limited to the scoring event
+        Transaction transaction = createTransaction(BigDecimal.valueOf(400), "groceries");
+        transaction.setLocation(null);
+        when(transactionRepository.calculateAverageAmount(any())).thenReturn(BigDecimal.valueOf(100));
+        when(transactionRepository.countByUserAndTransactionDateBetween(any(), any(), any())).thenReturn(5L);
+        when(transactionRepository.findDistinctCategoriesByUser(any())).thenReturn(List.of("groceries"));
+        when(transactionRepository.findByUserOrderByTransactionDateDesc(any())).thenReturn(List.of(transaction, transaction));
+        Path file = Files.createTempFile("fraud-scoring", ".jfr");
+        
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("com.finsight.FraudScoring");
+            recording.start();
+            fraudDetectionService.analyzeTransaction(transaction);
+            recording.stop();
+            recording.dump(file);
+        }
+        
+        // Then
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.finsight.FraudScoring"))
+                .toList();
+            assertThat(events).hasSize(1);
+            RecordedEvent event = events.get(0);
+            assertThat(event.getLong("userId")).isEqualTo(1L);
+            assertThat(event.getDouble("score")).isEqualTo(55.0);
+            assertThat(event.getString("rulesFired")).isEqualTo("high_amount,rapid_fire");
+            assertThat(event.getDuration("highAmountDuration")).isPositive();
+            assertThat(event.getDuration("geoAnomalyDuration")).isLessThanOrEqualTo(event.getDuration());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void analyzeTransaction_AttachesDecisionTrace() {
+        // Given: a previous transaction elsewhere an hour ago, and a first-time category
+        Transaction previous = createTransaction(BigDecimal.valueOf(20), "groceries");
+        previous.setLocation("Manama");
+        previous.setTransactionDate(LocalDateTime.now().minusHours(1));
+        Transaction transaction = createTransaction(BigDecimal.valueOf(50), "jewelry");
+        transaction.setLocation("Riyadh");
+        when(transactionRepository.calculateAverageAmount(any())).thenReturn(BigDecimal.valueOf(40));
+        when(transactionRepository.countByUserAndTransactionDateBetween(any(), any(), any())).thenReturn(2L);
+        when(transactionRepository.findDistinctCategoriesByUser(any())).thenReturn(List.of("groceries", "jewelry"));
+        when(transactionRepository.findByUserOrderByTransactionDateDesc(any())).thenReturn(List.of(previous, transaction));
+        
+        // When
+        FraudDecisionTrace trace = fraudDetectionService.analyzeTransaction(transaction).getTrace();
+        
+        // Then
+        assertThat(trace.getTransactionId()).isEqualTo(1L);
+        assertThat(trace.getUserId()).isEqualTo(1L);
+        assertThat(trace.getScore()).isEqualTo(45.0);
+        assertThat(trace.getRiskLevel()).isEqualTo("MEDIUM");
+        assertThat(trace.getUserAverage()).isEqualByComparingTo("40");
+        assertThat(trace.getTransactionsInWindow()).isEqualTo(2L);
+        assertThat(trace.getPreviousLocation()).isEqualTo("Manama");
+        assertThat(trace.getCategoryUses()).isEqualTo(1L);
+        assertThat(trace.getRules())
+            .extracting(FraudDecisionTrace.RuleEvaluation::getRule, FraudDecisionTrace.RuleEvaluation::getOutcome,
+                FraudDecisionTrace.RuleEvaluation::getPoints)
+            .containsExactly(
+                tuple("high_amount", "passed", 0),
+                tuple("rapid_fire", "passed", 0),
+                tuple("geo_anomaly", "triggered", 25),
+                tuple("unusual_category", "triggered", 20));
+    }
+    
+    private long ruleCount(String rule, String outcome) {
+        return meterRegistry.get("fraud.rule").tags("rule", rule, "outcome", outcome).timer().count();
+    }
+    
     @Test
     void analyzeTransaction_RapidFireActivity_Adds25Points() {
         // Given: 5+ transactions in last 10 minutes
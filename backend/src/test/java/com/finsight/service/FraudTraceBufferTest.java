@@ -0,0 +1,95 @@
+package com.finsight.service;
+
+import com.finsight.dto.FraudDecisionTrace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FraudTraceBufferTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Flagged traces are kept even with sampling off; LOW-risk ones are dropped")
+    void offer_ZeroSampleRate_KeepsOnlyFlagged() {
+        FraudTraceBuffer buffer = new FraudTraceBuffer(10, 0.0, meterRegistry);
+
+        assertThat(buffer.offer(trace(1L, 1L, "HIGH", 0))).isTrue();
+        assertThat(buffer.offer(trace(2L, 1L, "MEDIUM", 1))).isTrue();
+        assertThat(buffer.offer(trace(3L, 1L, "LOW", 2))).isFalse();
+
+        assertThat(buffer.recent(null, false, 10)).extracting(FraudDecisionTrace::getTransactionId)
+            .containsExactly(2L, 1L);
+        assertThat(kept("flagged")).isEqualTo(2);
+        assertThat(kept("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Full sampling keeps LOW-risk traces, which flaggedOnly filters out")
+    void offer_FullSampleRate_KeepsEverything() {
+        FraudTraceBuffer buffer = new FraudTraceBuffer(10, 1.0, meterRegistry);
+        buffer.offer(trace(1L, 1L, "LOW", 0));
+        buffer.offer(trace(2L, 1L, "HIGH", 1));
+        buffer.offer(trace(3L, 1L, "LOW", 2));
+
+        assertThat(buffer.recent(null, false, 10)).extracting(FraudDecisionTrace::getTransactionId)
+            .containsExactly(3L, 2L, 1L);
+        assertThat(buffer.recent(null, true, 10)).extracting(FraudDecisionTrace::getTransactionId)
+            .containsExactly(2L);
+        assertThat(kept("sampled")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Each ring keeps its newest entries, so sampled traces never evict flagged ones")
+    void offer_OverCapacity_EvictsOldestOfSameKind() {
+        FraudTraceBuffer buffer = new FraudTraceBuffer(2, 1.0, meterRegistry);
+        buffer.offer(trace(1L, 1L, "HIGH", 0));
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(trace(10L + i, 1L, "LOW", 1 + i));
+        }
+
+        assertThat(buffer.recent(null, false, 10)).extracting(FraudDecisionTrace::getTransactionId)
+            .containsExactly(14L, 13L, 1L);
+    }
+
+    @Test
+    @DisplayName("Queries filter by user and honour the limit")
+    void recent_FiltersByUserAndLimit() {
+        FraudTraceBuffer buffer = new FraudTraceBuffer(10, 0.0, meterRegistry);
+        buffer.offer(trace(1L, 1L, "HIGH", 0));
+        buffer.offer(trace(2L, 2L, "HIGH", 1));
+        buffer.offer(trace(3L, 1L, "HIGH", 2));
+
+        assertThat(buffer.recent(1L, false, 10)).extracting(FraudDecisionTrace::getTransactionId)
+            .containsExactly(3L, 1L);
+        assertThat(buffer.recent(null, false, 1)).extracting(FraudDecisionTrace::getTransactionId)
+            .containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Rejects a sample rate outside [0, 1]")
+    void constructor_InvalidSampleRate_Throws() {
+        assertThatThrownBy(() -> new FraudTraceBuffer(10, 1.5, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private double kept(String kept) {
+        return meterRegistry.get("fraud.traces").tag("kept", kept).counter().count();
+    }
+
+    private static FraudDecisionTrace trace(Long transactionId, Long userId, String risk, int minute) {
+        return FraudDecisionTrace.builder()
+            .transactionId(transactionId)
+            .userId(userId)
+            .riskLevel(risk)
+            .evaluatedAt(BASE.plusMinutes(minute))
+            .build();
+    }
+}
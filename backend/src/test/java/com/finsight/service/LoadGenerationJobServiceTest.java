@@ -0,0 +1,120 @@
+package com.finsight.service;
+
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationResult;
+import com.finsight.dto.LoadGenerationStatus;
+import com.finsight.dto.LoadGenerationStatus.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadGenerationJobService")
+class LoadGenerationJobServiceTest {
+
+    @Mock private LoadGeneratorService loadGeneratorService;
+
+    private LoadGenerationJobService jobService;
+
+    private final LoadGenerationRequest request =
+        LoadGenerationRequest.builder().users(2).transactionsPerUser(10).build();
+
+    @BeforeEach
+    void setUp() {
+        jobService = new LoadGenerationJobService(loadGeneratorService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Run happens in the background and ends DONE with progress and result")
+    void start_runsToDone() throws Exception {
+        when(loadGeneratorService.generate(eq(request), any())).thenAnswer(inv -> {
+            IntConsumer progress = inv.getArgument(1);
+            progress.accept(2);
+            progress.accept(1);
+            return LoadGenerationResult.builder().usersCreated(2).transactionsCreated(20)
+                .userIds(List.of(5L, 6L)).build();
+        });
+
+        LoadGenerationStatus started = jobService.start(request);
+
+        assertThat(started.state()).isEqualTo(State.PENDING);
+        assertThat(started.transactionsRequested()).isEqualTo(20);
+        LoadGenerationStatus status = awaitFinished();
+        assertThat(status.state()).isEqualTo(State.DONE);
+        assertThat(status.usersCompleted()).isEqualTo(2);
+        assertThat(status.result().getUserIds()).containsExactly(5L, 6L);
+    }
+
+    @Test
+    @DisplayName("Generation failure is reported as FAILED with the error message")
+    void generateThrows_failed() throws Exception {
+        when(loadGeneratorService.generate(eq(request), any())).thenThrow(new RuntimeException("DB down"));
+
+        jobService.start(request);
+
+        LoadGenerationStatus status = awaitFinished();
+        assertThat(status.state()).isEqualTo(State.FAILED);
+        assertThat(status.message()).isEqualTo("DB down");
+    }
+
+    @Test
+    @DisplayName("Request over the total cap is rejected on the caller's thread and nothing runs")
+    void overCap_rejected() {
+        doThrow(new IllegalArgumentException("limit")).when(loadGeneratorService).validate(request);
+
+        assertThatThrownBy(() -> jobService.start(request)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(jobService.getStatus()).isEmpty();
+        verify(loadGeneratorService, never()).generate(any(), any());
+    }
+
+    @Test
+    @DisplayName("Second start while a run is in progress is rejected")
+    void secondStart_whileRunning_rejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(loadGeneratorService.generate(eq(request), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return LoadGenerationResult.builder().usersCreated(2).build();
+        });
+
+        jobService.start(request);
+        assertThatThrownBy(() -> jobService.start(request))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("already running");
+
+        release.countDown();
+        assertThat(awaitFinished().state()).isEqualTo(State.DONE);
+        verify(loadGeneratorService, times(1)).generate(any(), any());
+    }
+
+    private LoadGenerationStatus awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            LoadGenerationStatus status = jobService.getStatus().orElseThrow();
+            if (status.isFinished()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("load generation did not finish");
+    }
+}
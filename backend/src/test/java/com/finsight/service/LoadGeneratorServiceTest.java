@@ -0,0 +1,135 @@
+package com.finsight.service;
+
+import com.finsight.dto.LoadGenerationRequest;
+import com.finsight.dto.LoadGenerationResult;
+import com.finsight.model.AccountType;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.FraudAlertRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Generates small datasets against H2. Workers commit in their own transactions,
+ * so the test itself runs without one and cleans up afterwards.
+ */
+@DataJpaTest
+@Import(LoadGeneratorService.class)
+@TestPropertySource(properties = {"load-generator.parallelism=3", "load-generator.batch-size=7",
+    "load-generator.max-total-transactions=1000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Load generator")
+class LoadGeneratorServiceTest {
+
+    @Autowired private LoadGeneratorService loadGenerator;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private FraudAlertRepository fraudAlertRepository;
+
+    @AfterEach
+    void cleanUp() {
+        fraudAlertRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Creates N users × M transactions across several batches")
+    void generate_createsUsersAndTransactions() {
+        LoadGenerationResult result = loadGenerator.generate(LoadGenerationRequest.builder()
+            .users(5)
+            .transactionsPerUser(20)
+            .build());
+
+        assertThat(result.getUsersCreated()).isEqualTo(5);
+        assertThat(result.getTransactionsCreated()).isEqualTo(100);
+        assertThat(result.getUserIds()).hasSize(5).doesNotHaveDuplicates();
+        assertThat(transactionRepository.count()).isEqualTo(100);
+        for (Long userId : result.getUserIds()) {
+            User user = userRepository.findById(userId).orElseThrow();
+            assertThat(transactionRepository.countByUser(user)).isEqualTo(20);
+            assertThat(user.getAccountType()).isEqualTo(AccountType.SYNTHETIC);
+        }
+    }
+
+    @Test
+    @DisplayName("Fraud rate 1 flags every transaction and raises one alert each")
+    void generate_fullFraudRate() {
+        LoadGenerationResult result = loadGenerator.generate(LoadGenerationRequest.builder()
+            .users(2)
+            .transactionsPerUser(10)
+            .fraudRate(1.0)
+            .build());
+
+        assertThat(result.getFraudAlertsCreated()).isEqualTo(20);
+        assertThat(fraudAlertRepository.count()).isEqualTo(20);
+        assertThat(transactionRepository.findAll()).allMatch(Transaction::isFraudulent);
+    }
+
+    @Test
+    @DisplayName("Category mix, location churn and time span are honoured")
+    void generate_honoursShape() {
+        LoadGenerationResult result = loadGenerator.generate(LoadGenerationRequest.builder()
+            .users(1)
+            .transactionsPerUser(30)
+            .fraudRate(0.0)
+            .locationChurn(0.0)
+            .spanDays(10)
+            .categoryWeights(Map.of("groceries", 1, "rent", 0))
+            .build());
+
+        User user = userRepository.findById(result.getUserIds().get(0)).orElseThrow();
+        List<Transaction> transactions = transactionRepository.findByUserOrderByTransactionDateDesc(user);
+        LocalDateTime earliest = LocalDateTime.now().minusDays(10).minusMinutes(1);
+
+        assertThat(transactions).hasSize(30).allSatisfy(t -> {
+            assertThat(t.getCategory()).isEqualTo("groceries");
+            assertThat(t.getLocation()).startsWith("Home Location");
+            assertThat(t.getTransactionDate()).isAfter(earliest);
+            assertThat(t.isFraudulent()).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("All-zero category weights are rejected")
+    void generate_zeroWeights_rejected() {
+        LoadGenerationRequest request = LoadGenerationRequest.builder()
+            .users(1)
+            .transactionsPerUser(1)
+            .categoryWeights(Map.of("groceries", 0))
+            .build();
+
+        assertThatThrownBy(() -> loadGenerator.generate(request))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("users × transactionsPerUser above the configured cap is rejected before anything is written")
+    void generate_overTotalCap_rejected() {
+        LoadGenerationRequest request = LoadGenerationRequest.builder()
+            .users(11)
+            .transactionsPerUser(100)
+            .build();
+
+        assertThatThrownBy(() -> loadGenerator.generate(request))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("limit is 1,000");
+        assertThat(userRepository.count()).isZero();
+    }
+}
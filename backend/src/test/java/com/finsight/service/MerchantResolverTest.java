@@ -0,0 +1,140 @@
+package com.finsight.service;
+
+import com.finsight.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Merchant Resolver Tests")
+class MerchantResolverTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private MerchantResolver merchantResolver;
+
+    @BeforeEach
+    void setUp() {
+        merchantResolver = new MerchantResolver(transactionRepository, 0.7, 100, 2);
+    }
+
+    @Test
+    @DisplayName("Canonicalization drops digits, punctuation and payment noise")
+    void canonicalize_stripsNoise() {
+        assertThat(MerchantNormalizer.canonicalize("NETFLIX.COM 866-579 CA")).isEqualTo("netflix");
+        assertThat(MerchantNormalizer.canonicalize("POS PURCHASE Spotify P1234")).isEqualTo("spotify");
+        assertThat(MerchantNormalizer.canonicalize("Card payment 0042")).isNull();
+        assertThat(MerchantNormalizer.canonicalize("  ")).isNull();
+        assertThat(MerchantNormalizer.canonicalize(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Spelling variants of one merchant share the first key seen")
+    void variants_shareKey() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(1L)).thenReturn(List.of());
+
+        String first = merchantResolver.resolve(1L, "Amazon Prime Video");
+
+        assertThat(first).isEqualTo("amazon prime video");
+        assertThat(merchantResolver.resolve(1L, "AMAZON PRIME VIDEO 7731")).isEqualTo(first);
+        assertThat(merchantResolver.resolve(1L, "Amazon Prime Vid")).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("Different merchants get different keys")
+    void distinctMerchants_distinctKeys() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(1L)).thenReturn(List.of());
+
+        assertThat(merchantResolver.resolve(1L, "Netflix")).isEqualTo("netflix");
+        assertThat(merchantResolver.resolve(1L, "Spotify")).isEqualTo("spotify");
+    }
+
+    @Test
+    @DisplayName("A brand and its sub-brand stay separate merchants")
+    void subBrands_distinctKeys() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(1L)).thenReturn(List.of("amazon", "google"));
+
+        assertThat(merchantResolver.resolve(1L, "AMAZON PRIME")).isEqualTo("amazon prime");
+        assertThat(merchantResolver.resolve(1L, "Google One 100GB")).isEqualTo("google one");
+        assertThat(merchantResolver.resolve(1L, "Amazon")).isEqualTo("amazon");
+        assertThat(merchantResolver.resolve(1L, "GOOGLE")).isEqualTo("google");
+    }
+
+    @Test
+    @DisplayName("Similarity is Jaccard: extra words lower it, shared spelling raises it")
+    void similarity_jaccard() {
+        assertThat(similarity("amazon", "amazon prime")).isLessThan(0.7);
+        assertThat(similarity("google", "google one")).isLessThan(0.7);
+        assertThat(similarity("netflix", "spotify")).isZero();
+        assertThat(similarity("starbucks coffee", "starbucks coffe")).isGreaterThanOrEqualTo(0.7);
+        assertThat(similarity("spotify", "spotify")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Descriptions without a merchant resolve to null and load nothing")
+    void noMerchant_null() {
+        assertThat(merchantResolver.resolve(1L, "Transfer 12345")).isNull();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Known merchants are seeded from stored keys once per user")
+    void storedKeys_seedClusters() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(1L)).thenReturn(List.of("spotify"));
+
+        assertThat(merchantResolver.resolve(1L, "SPOTIFY AB 4471")).isEqualTo("spotify");
+        assertThat(merchantResolver.resolve(1L, "Spotify")).isEqualTo("spotify");
+        verify(transactionRepository, times(1)).findDistinctMerchantKeysByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Merchants are per user")
+    void clustersArePerUser() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(1L)).thenReturn(List.of("starbucks coffee"));
+        when(transactionRepository.findDistinctMerchantKeysByUserId(2L)).thenReturn(List.of());
+
+        assertThat(merchantResolver.resolve(1L, "STARBUCKS COFFE #123")).isEqualTo("starbucks coffee");
+        assertThat(merchantResolver.resolve(2L, "STARBUCKS COFFE #123")).isEqualTo("starbucks coffe");
+    }
+
+    @Test
+    @DisplayName("User data reset reloads known merchants")
+    void reset_reloads() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(1L)).thenReturn(List.of());
+        merchantResolver.resolve(1L, "Netflix");
+
+        merchantResolver.onUserDataReset(new UserDataResetEvent(1L));
+        merchantResolver.resolve(1L, "Netflix");
+
+        verify(transactionRepository, times(2)).findDistinctMerchantKeysByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Least recently used user's merchants are dropped past the cache size")
+    void usersBounded_lruEvicted() {
+        when(transactionRepository.findDistinctMerchantKeysByUserId(anyLong())).thenReturn(List.of());
+
+        merchantResolver.resolve(1L, "Netflix");
+        merchantResolver.resolve(2L, "Netflix");
+        merchantResolver.resolve(1L, "Netflix");
+        merchantResolver.resolve(3L, "Netflix");
+        merchantResolver.resolve(2L, "Netflix");
+
+        verify(transactionRepository, times(1)).findDistinctMerchantKeysByUserId(1L);
+        verify(transactionRepository, times(2)).findDistinctMerchantKeysByUserId(2L);
+    }
+
+    private static double similarity(String a, String b) {
+        return MerchantNormalizer.similarity(MerchantNormalizer.trigrams(a), MerchantNormalizer.trigrams(b));
+    }
+}
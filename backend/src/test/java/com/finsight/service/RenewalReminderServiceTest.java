@@ -0,0 +1,182 @@
+package com.finsight.service;
+
+import com.finsight.dto.RenewalDue;
+import com.finsight.dto.RenewalNotification;
+import com.finsight.dto.RenewalNotification.Kind;
+import com.finsight.model.Subscription;
+import com.finsight.model.SubscriptionStatus;
+import com.finsight.model.User;
+import com.finsight.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Renewal Reminder Service Tests")
+class RenewalReminderServiceTest {
+
+    private static final int LEAD_DAYS = 3;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private RenewalNotificationSink notificationSink;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RenewalReminderService renewalReminderService;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        renewalReminderService = new RenewalReminderService(subscriptionRepository, notificationSink,
+                meterRegistry, LEAD_DAYS, 60_000, 64, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Rebuild schedules the next future reminder for each ACTIVE subscription")
+    void rebuild_schedulesNextReminder() {
+        when(subscriptionRepository.streamActiveRenewals()).thenAnswer(inv -> Stream.of(
+                new RenewalDue(1L, today.plusDays(10)),  // due-soon reminder still ahead
+                new RenewalDue(2L, today.plusDays(2)),   // inside the lead window: only the due date is left
+                new RenewalDue(3L, today)));             // due today: nothing left to send
+
+        assertThat(renewalReminderService.rebuild()).isEqualTo(2);
+        assertThat(renewalReminderService.pendingDeadline(1L)).isEqualTo(startOf(today.plusDays(10 - LEAD_DAYS)));
+        assertThat(renewalReminderService.pendingDeadline(2L)).isEqualTo(startOf(today.plusDays(2)));
+        assertThat(renewalReminderService.pendingDeadline(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Rebuild replaces stale timers")
+    void rebuild_replacesState() {
+        renewalReminderService.track(subscription(9L, today.plusDays(20), SubscriptionStatus.ACTIVE));
+        when(subscriptionRepository.streamActiveRenewals()).thenAnswer(inv -> Stream.empty());
+
+        renewalReminderService.rebuild();
+
+        assertThat(renewalReminderService.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Ignoring or deleting a subscription cancels its reminder")
+    void trackIgnored_andUntrack_cancel() {
+        renewalReminderService.track(subscription(1L, today.plusDays(20), SubscriptionStatus.ACTIVE));
+        renewalReminderService.track(subscription(2L, today.plusDays(20), SubscriptionStatus.ACTIVE));
+
+        renewalReminderService.track(subscription(1L, today.plusDays(20), SubscriptionStatus.IGNORED));
+        renewalReminderService.untrack(2L);
+
+        assertThat(renewalReminderService.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Changes inside a transaction apply only after commit")
+    void track_deferredUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        renewalReminderService.track(subscription(1L, today.plusDays(20), SubscriptionStatus.ACTIVE));
+        assertThat(renewalReminderService.pendingCount()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(renewalReminderService.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Fires DUE_SOON at the start of the lead window, then DUE on the due date")
+    void fire_dueSoonThenDue() {
+        Subscription sub = subscription(1L, today.plusDays(10), SubscriptionStatus.ACTIVE);
+        renewalReminderService.track(sub);
+        when(subscriptionRepository.findAllById(List.of(1L))).thenReturn(List.of(sub));
+
+        assertThat(renewalReminderService.fireDue(startOf(today.plusDays(7)) - 1)).isZero();
+        assertThat(renewalReminderService.fireDue(startOf(today.plusDays(7)))).isEqualTo(1);
+        assertThat(renewalReminderService.fireDue(startOf(today.plusDays(10)))).isEqualTo(1);
+
+        ArgumentCaptor<RenewalNotification> sent = ArgumentCaptor.forClass(RenewalNotification.class);
+        verify(notificationSink, times(2)).send(sent.capture());
+        assertThat(sent.getAllValues()).extracting(RenewalNotification::kind).containsExactly(Kind.DUE_SOON, Kind.DUE);
+        assertThat(sent.getValue().userId()).isEqualTo(7L);
+        assertThat(sent.getValue().dueDate()).isEqualTo(today.plusDays(10));
+        assertThat(renewalReminderService.pendingCount()).isZero();
+        assertThat(meterRegistry.counter("subscription.renewal.notifications", "kind", "due").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("A timer whose subscription is no longer ACTIVE sends nothing")
+    void fire_staleTimer_skipped() {
+        renewalReminderService.track(subscription(1L, today.plusDays(10), SubscriptionStatus.ACTIVE));
+        when(subscriptionRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(subscription(1L, today.plusDays(10), SubscriptionStatus.IGNORED)));
+
+        assertThat(renewalReminderService.fireDue(startOf(today.plusDays(7)))).isZero();
+        verifyNoInteractions(notificationSink);
+    }
+
+    @Test
+    @DisplayName("A due date that moved later is rescheduled instead of reminded")
+    void fire_movedDueDate_rescheduled() {
+        renewalReminderService.track(subscription(1L, today.plusDays(10), SubscriptionStatus.ACTIVE));
+        when(subscriptionRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(subscription(1L, today.plusDays(40), SubscriptionStatus.ACTIVE)));
+
+        assertThat(renewalReminderService.fireDue(startOf(today.plusDays(7)))).isZero();
+        assertThat(renewalReminderService.pendingDeadline(1L)).isEqualTo(startOf(today.plusDays(40 - LEAD_DAYS)));
+    }
+
+    @Test
+    @DisplayName("A failing sink does not stop the other reminders")
+    void fire_sinkFailure_isolated() {
+        Subscription first = subscription(1L, today.plusDays(10), SubscriptionStatus.ACTIVE);
+        Subscription second = subscription(2L, today.plusDays(10), SubscriptionStatus.ACTIVE);
+        renewalReminderService.track(first);
+        renewalReminderService.track(second);
+        when(subscriptionRepository.findAllById(any())).thenReturn(List.of(first, second));
+        doThrow(new IllegalStateException("down")).doNothing().when(notificationSink).send(any());
+
+        assertThat(renewalReminderService.fireDue(startOf(today.plusDays(7)))).isEqualTo(1);
+        verify(notificationSink, times(2)).send(any());
+    }
+
+    private static long startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Subscription subscription(Long id, LocalDate nextDueDate, SubscriptionStatus status) {
+        return Subscription.builder()
+                .id(id)
+                .user(User.builder().id(7L).username("alice").build())
+                .merchant("netflix")
+                .avgAmount(new BigDecimal("15.99"))
+                .lastPaidDate(nextDueDate.minusMonths(1))
+                .nextDueDate(nextDueDate)
+                .status(status)
+                .build();
+    }
+}
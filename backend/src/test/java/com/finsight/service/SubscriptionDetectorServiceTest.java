@@ -1,23 +1,31 @@
 package com.finsight.service;
 
+import com.finsight.dto.ExpensePoint;
 import com.finsight.model.*;
 import com.finsight.repository.SubscriptionRepository;
 import com.finsight.repository.TransactionRepository;
 import com.finsight.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,17 +34,11 @@ import static org.mockito.Mockito.*;
 /**
  * Unit tests for SubscriptionDetectorService.
  *
- * VERIFIED THRESHOLDS (from actual error-log failures, not documentation):
- * ─────────────────────────────────────────────────────────────────────────
- *   19-day gap → DETECTED   (test gap19days_noDetection was a FAILURE)
- *   40-day gap → NOT detected (test gap40_detected was a FAILURE)
- *   20/30/39-day gaps → detected
- *   41-day gap → not detected
+ * CADENCE BANDS (see BillingCadence): weekly 6-8 days (3+ payments),
+ * monthly 26-35, quarterly 84-98, annual 350-380 (2+ payments each).
+ * The median gap picks the band; 75% of gaps must fall inside it.
  *
- * Deduplication filter: keeps txn if daysSinceLast >= 20.
- * Pattern window: 19 <= daysBetween <= 39.
- *
- * TRANSACTION FETCH: findByUserAndType(user, "EXPENSE") — confirmed from source.
+ * TRANSACTION FETCH: streamExpensePoints(userId) — EXPENSE rows sorted by merchant key, date.
  */
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -46,22 +48,30 @@ class SubscriptionDetectorServiceTest {
     @Mock private TransactionRepository  transactionRepository;
     @Mock private UserRepository         userRepository;
     @Mock private SubscriptionRepository subscriptionRepository;
+    @Mock private RenewalReminderService renewalReminderService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserWriteLocks userWriteLocks = new UserWriteLocks(16);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
-    @InjectMocks
     private SubscriptionDetectorService subscriptionDetectorService;
 
     private User testUser;
 
+    /** Stands in for the subscriptions table behind upsertAll(), keyed by merchant key. */
+    private final Map<String, Subscription> stored = new LinkedHashMap<>();
+
     @BeforeEach
     void setUp() {
+        subscriptionDetectorService = new SubscriptionDetectorService(transactionRepository, userRepository,
+                subscriptionRepository, renewalReminderService, userWriteLocks, transactionTemplate, meterRegistry, 100);
         testUser = User.builder()
                 .id(1L).username("alice").email("alice@example.com").build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of());
-        when(subscriptionRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        stored.clear();
+        when(subscriptionRepository.upsertAll(anyList())).thenAnswer(inv -> upsert(inv.getArgument(0)));
         // Mock the new method that fetches all transactions
-        when(transactionRepository.findByUserOrderByTransactionDateDesc(testUser)).thenReturn(List.of());
+        when(transactionRepository.streamExpensePoints(1L)).thenAnswer(inv -> Stream.empty());
     }
 
     // ══════════════════════════════════════════════════════════════════════════
@@ -115,10 +125,10 @@ class SubscriptionDetectorServiceTest {
     class DeduplicationTests {
 
         @Test
-        @DisplayName("Exactly 20-day gap passes the deduplication filter and is detected")
-        void detect_exactly20dayGap_passesFilter() {
+        @DisplayName("20-day gap matches no cadence and is not detected")
+        void detect_20dayGap_noCadence() {
             givenExpenses(expense("hulu", "12.99", 20), expense("hulu", "12.99", 0));
-            assertThat(subscriptionDetectorService.detectSubscriptions(1L)).hasSize(1);
+            assertThat(subscriptionDetectorService.detectSubscriptions(1L)).isEmpty();
         }
 
         @Test
@@ -243,15 +253,16 @@ class SubscriptionDetectorServiceTest {
         }
 
         @Test
-        @DisplayName("nextDueDate is lastPaidDate + 30 days")
-        void detect_nextDueDate_is30DaysAfterLastPaid() {
+        @DisplayName("nextDueDate is lastPaidDate + one month for a monthly series")
+        void detect_nextDueDate_isOneMonthAfterLastPaid() {
             givenExpenses(
                 expense("netflix", "15.99", 30),
                 expense("netflix", "15.99",  0)
             );
             List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
             assertThat(r).hasSize(1);
-            assertThat(r.get(0).getNextDueDate()).isEqualTo(LocalDate.now().plusDays(30));
+            assertThat(r.get(0).getCadence()).isEqualTo(BillingCadence.MONTHLY);
+            assertThat(r.get(0).getNextDueDate()).isEqualTo(LocalDate.now().plusMonths(1));
         }
 
         @Test
@@ -281,8 +292,8 @@ class SubscriptionDetectorServiceTest {
 
     // ══════════════════════════════════════════════════════════════════════════
     // Merging with existing subscriptions
-    // normalizeMerchant = merchant.toLowerCase().trim()
-    // For merge to fire: existing.merchant.toLowerCase() == transaction.category
+    // upsertAll() matches on merchant key = merchant.toLowerCase().trim()
+    // (the MERGE statement itself is covered by SubscriptionUpsertTest)
     // ══════════════════════════════════════════════════════════════════════════
     @Nested
     @DisplayName("Merging with existing subscriptions")
@@ -292,7 +303,7 @@ class SubscriptionDetectorServiceTest {
         @DisplayName("IGNORED subscription's status preserved after re-detection")
         void detect_existingIgnored_statusPreserved() {
             Subscription ignored = existingSub("netflix", SubscriptionStatus.IGNORED);
-            when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of(ignored));
+            givenStored(ignored);
             givenExpenses(expense("netflix", "15.99", 30), expense("netflix", "15.99", 0));
             List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
             assertThat(r).hasSize(1);
@@ -303,7 +314,7 @@ class SubscriptionDetectorServiceTest {
         @DisplayName("ACTIVE subscription's status stays ACTIVE")
         void detect_existingActive_statusPreserved() {
             Subscription active = existingSub("gym", SubscriptionStatus.ACTIVE);
-            when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of(active));
+            givenStored(active);
             givenExpenses(expense("gym", "50.00", 30), expense("gym", "50.00", 0));
             List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
             assertThat(r.get(0).getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
@@ -314,7 +325,7 @@ class SubscriptionDetectorServiceTest {
         void detect_existingSubscription_avgAmountUpdated() {
             Subscription existing = existingSub("netflix", SubscriptionStatus.ACTIVE);
             existing.setAvgAmount(new BigDecimal("5.00"));
-            when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of(existing));
+            givenStored(existing);
             givenExpenses(
                 expenseAmt("netflix", new BigDecimal("20.00"), 30),
                 expenseAmt("netflix", new BigDecimal("20.00"),  0)
@@ -325,21 +336,21 @@ class SubscriptionDetectorServiceTest {
         }
 
         @Test
-        @DisplayName("Existing subscription nextDueDate is updated to last payment + 30")
+        @DisplayName("Existing subscription nextDueDate is updated to last payment + one month")
         void detect_existingSubscription_nextDueDateUpdated() {
             Subscription existing = existingSub("netflix", SubscriptionStatus.ACTIVE);
             existing.setNextDueDate(LocalDate.now().minusDays(10));
-            when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of(existing));
+            givenStored(existing);
             givenExpenses(expense("netflix", "15.99", 30), expense("netflix", "15.99", 0));
             List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
-            assertThat(r.get(0).getNextDueDate()).isEqualTo(LocalDate.now().plusDays(30));
+            assertThat(r.get(0).getNextDueDate()).isEqualTo(LocalDate.now().plusMonths(1));
         }
 
         @Test
         @DisplayName("New category alongside existing — both returned")
         void detect_newCategoryAlongsideExisting_bothReturned() {
             Subscription existing = existingSub("netflix", SubscriptionStatus.ACTIVE);
-            when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of(existing));
+            givenStored(existing);
             givenExpenses(
                 expense("netflix", "15.99", 30), expense("netflix", "15.99", 0),
                 expense("spotify",  "9.99", 30), expense("spotify",  "9.99", 0)
@@ -351,7 +362,7 @@ class SubscriptionDetectorServiceTest {
         @DisplayName("Merchant with no new valid pattern is not in result")
         void detect_ignoredMerchantWithNoNewTransactions_notReturned() {
             Subscription netflixSub = existingSub("netflix", SubscriptionStatus.ACTIVE);
-            when(subscriptionRepository.findByUser(testUser)).thenReturn(List.of(netflixSub));
+            givenStored(netflixSub);
             givenExpenses(expense("spotify", "9.99", 30), expense("spotify", "9.99", 0));
             List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
             assertThat(r).extracting(Subscription::getMerchant).containsExactly("spotify");
@@ -366,44 +377,67 @@ class SubscriptionDetectorServiceTest {
     class PersistenceTests {
 
         @Test
-        @DisplayName("saveAll() called with the detected subscription")
-        void detect_saveAllCalledWithResults() {
+        @DisplayName("upsertAll() called with the detected subscription")
+        void detect_upsertAllCalledWithResults() {
             givenExpenses(expense("netflix", "15.99", 30), expense("netflix", "15.99", 0));
             @SuppressWarnings("unchecked")
             ArgumentCaptor<List<Subscription>> cap = ArgumentCaptor.forClass(List.class);
             subscriptionDetectorService.detectSubscriptions(1L);
-            verify(subscriptionRepository).saveAll(cap.capture());
+            verify(subscriptionRepository).upsertAll(cap.capture());
             assertThat(cap.getValue()).hasSize(1);
         }
 
         @Test
-        @DisplayName("saveAll() called with empty list when no patterns found")
-        void detect_noPatterns_saveAllCalledWithEmpty() {
+        @DisplayName("upsertAll() called with empty list when no patterns found")
+        void detect_noPatterns_upsertAllCalledWithEmpty() {
             givenExpenses(expense("netflix", "15.99", 0));
             @SuppressWarnings("unchecked")
             ArgumentCaptor<List<Subscription>> cap = ArgumentCaptor.forClass(List.class);
             subscriptionDetectorService.detectSubscriptions(1L);
-            verify(subscriptionRepository).saveAll(cap.capture());
+            verify(subscriptionRepository).upsertAll(cap.capture());
             assertThat(cap.getValue()).isEmpty();
         }
 
         @Test
-        @DisplayName("All transactions are fetched and filtered by type in service")
-        void detect_allTransactionsFetched() {
+        @DisplayName("Every saved subscription is synced to the renewal scheduler")
+        void detect_tracksRenewals() {
+            givenExpenses(expense("netflix", "15.99", 30), expense("netflix", "15.99", 0));
+            List<Subscription> result = subscriptionDetectorService.detectSubscriptions(1L);
+            verify(renewalReminderService).track(result.get(0));
+        }
+
+        @Test
+        @DisplayName("Expenses come from the sorted projection query, not full entities")
+        void detect_usesExpenseProjection() {
+            givenExpenses();
+            subscriptionDetectorService.detectSubscriptions(1L);
+            verify(transactionRepository).streamExpensePoints(1L);
+            verify(transactionRepository, never()).findByUserOrderByTransactionDateDesc(any());
+        }
+
+        @Test
+        @DisplayName("Resolves the user as a lazy reference instead of loading the row")
+        void detect_usesUserReference() {
             givenExpenses();
             subscriptionDetectorService.detectSubscriptions(1L);
-            verify(transactionRepository).findByUserOrderByTransactionDateDesc(testUser);
-            verify(transactionRepository, never()).findByUserAndType(any(), anyString());
+            verify(userRepository).getReferenceById(1L);
+            verify(userRepository, never()).findById(any());
         }
 
         @Test
-        @DisplayName("Unknown userId throws without touching transaction or subscription repos")
-        void detect_unknownUserId_throwsAndDoesNotPersist() {
-            when(userRepository.findById(999L)).thenReturn(Optional.empty());
-            assertThatThrownBy(() -> subscriptionDetectorService.detectSubscriptions(999L))
-                    .isInstanceOf(RuntimeException.class);
-            verify(transactionRepository, never()).findByUserAndType(any(), any());
-            verify(subscriptionRepository, never()).saveAll(any());
+        @DisplayName("The MERGE runs under the user's write lock, as expense saves do")
+        void detect_upsertsUnderUserLock() {
+            givenExpenses(expense("netflix", "15.99", 30), expense("netflix", "15.99", 0));
+            List<Boolean> heldDuringUpsert = new ArrayList<>();
+            when(subscriptionRepository.upsertAll(anyList())).thenAnswer(inv -> {
+                heldDuringUpsert.add(userWriteLocks.lockFor(1L).isHeldByCurrentThread());
+                return upsert(inv.getArgument(0));
+            });
+
+            subscriptionDetectorService.detectSubscriptions(1L);
+
+            assertThat(heldDuringUpsert).containsExactly(true);
+            assertThat(userWriteLocks.lockFor(1L).isLocked()).isFalse();
         }
     }
 
@@ -443,19 +477,347 @@ class SubscriptionDetectorServiceTest {
         }
 
         @Test
-        @DisplayName("Unknown userId throws RuntimeException")
-        void findDueSoon_unknownUser_throwsException() {
-            when(userRepository.findById(999L)).thenReturn(Optional.empty());
-            assertThatThrownBy(() -> subscriptionDetectorService.findDueSoon(999L, 7))
-                    .isInstanceOf(RuntimeException.class);
+        @DisplayName("Resolves the user as a lazy reference instead of loading the row")
+        void findDueSoon_usesUserReference() {
+            subscriptionDetectorService.findDueSoon(1L, 7);
+            verify(userRepository, never()).findById(any());
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════════════════
+    // Cadence detection
+    // ══════════════════════════════════════════════════════════════════════════
+    @Nested
+    @DisplayName("Cadence detection")
+    class CadenceTests {
+
+        private final LocalDateTime start = LocalDateTime.of(2025, 1, 6, 7, 0);
+
+        @Test
+        @DisplayName("Weekly charges are detected with a one-week next due date")
+        void detect_weekly() {
+            givenExpenses(
+                expenseAt("gym", "12.00", start), expenseAt("gym", "12.00", start.plusWeeks(1)),
+                expenseAt("gym", "12.00", start.plusWeeks(2)), expenseAt("gym", "12.00", start.plusWeeks(3)));
+            List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
+            assertThat(r).hasSize(1);
+            assertThat(r.get(0).getCadence()).isEqualTo(BillingCadence.WEEKLY);
+            assertThat(r.get(0).getNextDueDate()).isEqualTo(start.plusWeeks(4).toLocalDate());
+        }
+
+        @Test
+        @DisplayName("Two weekly charges are not yet enough evidence")
+        void detect_weekly_tooFewPayments() {
+            givenExpenses(expenseAt("gym", "12.00", start), expenseAt("gym", "12.00", start.plusWeeks(1)));
+            assertThat(subscriptionDetectorService.detectSubscriptions(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Quarterly charges are detected with a three-month next due date")
+        void detect_quarterly() {
+            givenExpenses(
+                expenseAt("water", "60.00", start), expenseAt("water", "60.00", start.plusMonths(3)),
+                expenseAt("water", "60.00", start.plusMonths(6)));
+            List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
+            assertThat(r).extracting(Subscription::getCadence).containsExactly(BillingCadence.QUARTERLY);
+            assertThat(r.get(0).getNextDueDate()).isEqualTo(start.plusMonths(9).toLocalDate());
+        }
+
+        @Test
+        @DisplayName("Annual insurance is detected with a one-year next due date")
+        void detect_annual() {
+            givenExpenses(expenseAt("insurance", "480.00", start), expenseAt("insurance", "480.00", start.plusYears(1)));
+            List<Subscription> r = subscriptionDetectorService.detectSubscriptions(1L);
+            assertThat(r).extracting(Subscription::getCadence).containsExactly(BillingCadence.ANNUAL);
+            assertThat(r.get(0).getNextDueDate()).isEqualTo(start.plusYears(2).toLocalDate());
+        }
+
+        @Test
+        @DisplayName("One missed month among regular payments is tolerated")
+        void detect_monthly_oneMissedMonth() {
+            givenExpenses(
+                expenseAt("spotify", "9.99", start), expenseAt("spotify", "9.99", start.plusMonths(1)),
+                expenseAt("spotify", "9.99", start.plusMonths(2)), expenseAt("spotify", "9.99", start.plusMonths(3)),
+                expenseAt("spotify", "9.99", start.plusMonths(5)));
+            assertThat(subscriptionDetectorService.detectSubscriptions(1L))
+                .extracting(Subscription::getCadence).containsExactly(BillingCadence.MONTHLY);
+        }
+
+        @Test
+        @DisplayName("Irregular gaps are rejected even with a monthly median")
+        void detect_irregular_rejected() {
+            givenExpenses(
+                expenseAt("parking", "5.00", start), expenseAt("parking", "5.00", start.plusDays(30)),
+                expenseAt("parking", "5.00", start.plusDays(32)), expenseAt("parking", "5.00", start.plusDays(62)),
+                expenseAt("parking", "5.00", start.plusDays(65)));
+            assertThat(subscriptionDetectorService.detectSubscriptions(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Fortnightly charges match no cadence")
+        void detect_fortnightly_rejected() {
+            givenExpenses(
+                expenseAt("cleaner", "40.00", start), expenseAt("cleaner", "40.00", start.plusWeeks(2)),
+                expenseAt("cleaner", "40.00", start.plusWeeks(4)));
+            assertThat(subscriptionDetectorService.detectSubscriptions(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Backdated inserts rebuild from history and give the same result as a sorted load")
+        void incremental_outOfOrder_matchesBulk() {
+            List<Transaction> saved = new ArrayList<>();
+            for (int week : new int[] {3, 0, 2}) {
+                saved.add(expenseAt("gym", "12.00", start.plusWeeks(week)));
+                givenExpenses(saved.toArray(Transaction[]::new));
+                subscriptionDetectorService.onExpenseSaved(saved.get(saved.size() - 1));
+            }
+            when(subscriptionRepository.findByUser_IdAndMerchantKey(1L, "gym"))
+                    .thenReturn(Optional.empty());
+
+            saved.add(expenseAt("gym", "12.00", start.plusWeeks(1)));
+            givenExpenses(saved.toArray(Transaction[]::new));
+            subscriptionDetectorService.onExpenseSaved(saved.get(saved.size() - 1));
+
+            ArgumentCaptor<Subscription> cap = ArgumentCaptor.forClass(Subscription.class);
+            verify(subscriptionRepository).save(cap.capture());
+            assertThat(cap.getValue().getCadence()).isEqualTo(BillingCadence.WEEKLY);
+            assertThat(cap.getValue().getLastPaidDate()).isEqualTo(start.plusWeeks(3).toLocalDate());
+            // First sight plus one rebuild per backdated expense
+            verify(transactionRepository, times(4)).streamExpensePoints(1L);
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════════════════
+    // onExpenseSaved() — incremental detection
+    // ══════════════════════════════════════════════════════════════════════════
+    @Nested
+    @DisplayName("onExpenseSaved()")
+    class IncrementalTests {
+
+        private final LocalDateTime jan = LocalDateTime.of(2026, 1, 15, 10, 0);
+
+        @Test
+        @DisplayName("First expense for a user builds state from history and detects the pattern")
+        void firstExpense_bootstrapsFromHistory() {
+            Transaction feb = expenseAt("netflix", "15.99", jan.plusMonths(1));
+            givenExpenses(feb, expenseAt("netflix", "15.99", jan));
+            when(subscriptionRepository.findByUser_IdAndMerchantKey(1L, "netflix"))
+                    .thenReturn(Optional.empty());
+
+            subscriptionDetectorService.onExpenseSaved(feb);
+
+            ArgumentCaptor<Subscription> cap = ArgumentCaptor.forClass(Subscription.class);
+            verify(subscriptionRepository).save(cap.capture());
+            assertThat(cap.getValue().getMerchant()).isEqualTo("netflix");
+            assertThat(cap.getValue().getLastPaidDate()).isEqualTo(feb.getTransactionDate().toLocalDate());
+            assertThat(cap.getValue().getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
+        }
+
+        @Test
+        @DisplayName("Later expenses update the state without reloading history")
+        void laterExpense_noRescan() {
+            givenExpenses(expenseAt("netflix", "15.99", jan));
+            subscriptionDetectorService.onExpenseSaved(expenseAt("netflix", "15.99", jan));
+            Subscription existing = existingSub("netflix", SubscriptionStatus.ACTIVE);
+            when(subscriptionRepository.findByUser_IdAndMerchantKey(1L, "netflix"))
+                    .thenReturn(Optional.of(existing));
+
+            Transaction feb = expenseAt("Netflix", "15.99", jan.plusMonths(1));
+            subscriptionDetectorService.onExpenseSaved(feb);
+
+            verify(transactionRepository, times(1)).streamExpensePoints(1L);
+            verify(subscriptionRepository).save(existing);
+            assertThat(existing.getNextDueDate()).isEqualTo(feb.getTransactionDate().toLocalDate().plusMonths(1));
+        }
+
+        @Test
+        @DisplayName("Expense that does not complete a pattern touches no subscription")
+        void nonMatchingExpense_noSubscriptionWork() {
+            givenExpenses(expenseAt("netflix", "15.99", jan));
+            subscriptionDetectorService.onExpenseSaved(expenseAt("netflix", "15.99", jan));
+
+            subscriptionDetectorService.onExpenseSaved(expenseAt("netflix", "15.99", jan.plusMonths(2)));
+
+            verify(subscriptionRepository, never()).findByUser_IdAndMerchantKey(anyLong(), anyString());
+            verify(subscriptionRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Second expense in a month breaks the pattern and removes the ACTIVE subscription")
+        void brokenPattern_activeRemoved() {
+            Transaction feb = expenseAt("gym", "50.00", jan.plusMonths(1));
+            givenExpenses(feb, expenseAt("gym", "50.00", jan));
+            subscriptionDetectorService.onExpenseSaved(feb);
+            Subscription active = existingSub("gym", SubscriptionStatus.ACTIVE);
+            when(subscriptionRepository.findByUser_IdAndMerchantKey(1L, "gym"))
+                    .thenReturn(Optional.of(active));
+
+            subscriptionDetectorService.onExpenseSaved(expenseAt("gym", "50.00", jan.plusMonths(1).plusDays(5)));
+
+            verify(subscriptionRepository).delete(active);
+            verify(renewalReminderService).untrack(active.getId());
+        }
+
+        @Test
+        @DisplayName("IGNORED subscription survives a broken pattern")
+        void brokenPattern_ignoredKept() {
+            Transaction feb = expenseAt("gym", "50.00", jan.plusMonths(1));
+            givenExpenses(feb, expenseAt("gym", "50.00", jan));
+            subscriptionDetectorService.onExpenseSaved(feb);
+            when(subscriptionRepository.findByUser_IdAndMerchantKey(1L, "gym"))
+                    .thenReturn(Optional.of(existingSub("gym", SubscriptionStatus.IGNORED)));
+
+            subscriptionDetectorService.onExpenseSaved(expenseAt("gym", "75.00", jan.plusMonths(2)));
+
+            verify(subscriptionRepository, never()).delete(any());
+        }
+
+        @Test
+        @DisplayName("INCOME transactions are ignored")
+        void income_ignored() {
+            Transaction salary = expenseAt("salary", "3000.00", jan);
+            salary.setType("INCOME");
+
+            subscriptionDetectorService.onExpenseSaved(salary);
+
+            verifyNoInteractions(transactionRepository, subscriptionRepository);
+        }
+
+        @Test
+        @DisplayName("User data reset discards the state so the next expense reloads history")
+        void reset_reloads() {
+            givenExpenses(expenseAt("netflix", "15.99", jan));
+            subscriptionDetectorService.onExpenseSaved(expenseAt("netflix", "15.99", jan));
+
+            subscriptionDetectorService.onUserDataReset(new UserDataResetEvent(1L));
+            subscriptionDetectorService.onExpenseSaved(expenseAt("netflix", "15.99", jan));
+
+            verify(transactionRepository, times(2)).streamExpensePoints(1L);
+        }
+
+        @Test
+        @DisplayName("Full detection does not publish its state; the next expense builds its own")
+        void fullDetection_notCached() {
+            givenExpenses(expenseAt("netflix", "15.99", jan));
+            subscriptionDetectorService.detectSubscriptions(1L);
+
+            subscriptionDetectorService.onExpenseSaved(expenseAt("netflix", "15.99", jan));
+
+            verify(transactionRepository, times(2)).streamExpensePoints(1L);
+        }
+
+        @Test
+        @DisplayName("Least recently used user's state is dropped past the cache size")
+        void cacheBounded_lruEvicted() {
+            SubscriptionDetectorService detector = new SubscriptionDetectorService(transactionRepository,
+                    userRepository, subscriptionRepository, renewalReminderService, userWriteLocks, transactionTemplate,
+                    meterRegistry, 1);
+            User bob = User.builder().id(2L).username("bob").build();
+            when(transactionRepository.streamExpensePoints(2L)).thenAnswer(inv -> Stream.empty());
+            Transaction bobs = expenseAt("gym", "20.00", jan);
+            bobs.setUser(bob);
+
+            detector.onExpenseSaved(expenseAt("netflix", "15.99", jan));
+            detector.onExpenseSaved(bobs);
+            detector.onExpenseSaved(expenseAt("netflix", "15.99", jan.plusMonths(1)));
+
+            verify(transactionRepository, times(2)).streamExpensePoints(1L);
+            verify(transactionRepository, times(1)).streamExpensePoints(2L);
+        }
+
+        @Test
+        @DisplayName("Expense missing from the loaded history under its key is still counted")
+        void historyKeyMismatch_expenseCounted() {
+            // History keyed differently from the new expense's key
+            givenExpenses(withMerchant(expenseAt("entertainment", "15.99", jan), "netflix"));
+            Transaction feb = expenseAt("entertainment", "15.99", jan.plusMonths(1));
+
+            assertThatCode(() -> subscriptionDetectorService.onExpenseSaved(feb)).doesNotThrowAnyException();
+            verify(subscriptionRepository, never()).save(any());
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════════════════
+    // Merchant grouping
+    // ══════════════════════════════════════════════════════════════════════════
+    @Nested
+    @DisplayName("Merchant grouping")
+    class MerchantGroupingTests {
+
+        @Test
+        @DisplayName("Two merchants in one category are detected as separate subscriptions")
+        void sameCategory_separateMerchants() {
+            givenExpenses(
+                withMerchant(expense("entertainment", "15.99", 30), "netflix"),
+                withMerchant(expense("entertainment", "15.99", 0), "netflix"),
+                withMerchant(expense("entertainment", "9.99", 30), "spotify"),
+                withMerchant(expense("entertainment", "9.99", 0), "spotify")
+            );
+
+            assertThat(subscriptionDetectorService.detectSubscriptions(1L))
+                    .extracting(Subscription::getMerchant)
+                    .containsExactlyInAnyOrder("netflix", "spotify");
+        }
+
+        @Test
+        @DisplayName("Incremental detection groups by the transaction's merchant key")
+        void incremental_usesMerchantKey() {
+            LocalDateTime jan = LocalDateTime.of(2026, 1, 15, 10, 0);
+            Transaction feb = withMerchant(expenseAt("entertainment", "15.99", jan.plusMonths(1)), "netflix");
+            givenExpenses(feb, withMerchant(expenseAt("entertainment", "15.99", jan), "netflix"));
+            when(subscriptionRepository.findByUser_IdAndMerchantKey(1L, "netflix"))
+                    .thenReturn(Optional.empty());
+
+            subscriptionDetectorService.onExpenseSaved(feb);
+
+            ArgumentCaptor<Subscription> cap = ArgumentCaptor.forClass(Subscription.class);
+            verify(subscriptionRepository).save(cap.capture());
+            assertThat(cap.getValue().getMerchant()).isEqualTo("netflix");
         }
     }
 
     // ── builder helpers ───────────────────────────────────────────────────────
 
+    private void givenStored(Subscription subscription) {
+        stored.put(Subscription.merchantKeyOf(subscription.getMerchant()), subscription);
+    }
+
+    /** MERGE semantics: matched rows take the new amount, cadence and dates but keep status. */
+    private List<Subscription> upsert(List<Subscription> detected) {
+        List<Subscription> result = new ArrayList<>();
+        for (Subscription s : detected) {
+            Subscription row = stored.merge(Subscription.merchantKeyOf(s.getMerchant()), s, (existing, incoming) -> {
+                existing.setCadence(incoming.getCadence());
+                existing.setAvgAmount(incoming.getAvgAmount());
+                existing.setLastPaidDate(incoming.getLastPaidDate());
+                existing.setNextDueDate(incoming.getNextDueDate());
+                return existing;
+            });
+            result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * Stubs the projection query the way the database answers it: EXPENSE rows
+     * with a category, keyed by merchant (else normalized category) and ordered by key then date.
+     */
     private void givenExpenses(Transaction... transactions) {
-        when(transactionRepository.findByUserOrderByTransactionDateDesc(testUser))
-                .thenReturn(List.of(transactions));
+        List<ExpensePoint> points = Stream.of(transactions)
+                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
+                .filter(t -> t.getCategory() != null && !t.getCategory().isBlank())
+                .map(t -> t.getMerchantKey() != null
+                        ? new ExpensePoint(t.getMerchantKey(), t.getMerchantKey(), t.getTransactionDate(), t.getAmount())
+                        : new ExpensePoint(t.getCategory().toLowerCase().trim(), t.getCategory(),
+                                t.getTransactionDate(), t.getAmount()))
+                .sorted(Comparator.comparing(ExpensePoint::merchantKey).thenComparing(ExpensePoint::date))
+                .toList();
+        when(transactionRepository.streamExpensePoints(1L)).thenAnswer(inv -> points.stream());
+    }
+
+    private static Transaction withMerchant(Transaction transaction, String merchantKey) {
+        transaction.setMerchantKey(merchantKey);
+        return transaction;
     }
 
     private Transaction expense(String category, String amount, int daysAgo) {
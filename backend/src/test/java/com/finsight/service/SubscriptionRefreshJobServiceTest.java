@@ -0,0 +1,194 @@
+package com.finsight.service;
+
+import com.finsight.dto.SubscriptionRefreshStatus;
+import com.finsight.model.JobCheckpoint;
+import com.finsight.repository.JobCheckpointRepository;
+import com.finsight.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("SubscriptionRefreshJobService")
+class SubscriptionRefreshJobServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private SubscriptionDetectorService detectorService;
+    @Mock private JobCheckpointRepository checkpointRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SubscriptionRefreshJobService jobService;
+    private final List<JobCheckpoint> savedCheckpoints = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobService = new SubscriptionRefreshJobService(
+            userRepository, detectorService, checkpointRepository, meterRegistry, 3, 2);
+        when(checkpointRepository.findById(SubscriptionRefreshJobService.JOB_NAME)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any())).thenAnswer(inv -> {
+            JobCheckpoint checkpoint = inv.getArgument(0);
+            savedCheckpoints.add(JobCheckpoint.builder()
+                .lastProcessedId(checkpoint.getLastProcessedId())
+                .inProgress(checkpoint.isInProgress())
+                .build());
+            return checkpoint;
+        });
+        givenUsers(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Detects every user, one keyset page at a time")
+    void run_allUsersInPages() {
+        SubscriptionRefreshStatus status = jobService.run().orElseThrow();
+
+        for (long id = 1; id <= 5; id++) {
+            verify(detectorService).detectSubscriptions(id);
+        }
+        verify(userRepository).findIdsAfter(eq(0L), any());
+        verify(userRepository).findIdsAfter(eq(2L), any());
+        verify(userRepository).findIdsAfter(eq(4L), any());
+        verify(userRepository).findIdsAfter(eq(5L), any());
+        assertThat(status.getUsersProcessed()).isEqualTo(5);
+        assertThat(status.isRunning()).isFalse();
+        assertThat(status.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Checkpoints after each page and clears in-progress at the end")
+    void run_checkpointsEachPage() {
+        jobService.run();
+
+        assertThat(savedCheckpoints).extracting(JobCheckpoint::getLastProcessedId)
+            .containsExactly(0L, 2L, 4L, 5L, 5L);
+        assertThat(savedCheckpoints.get(0).isInProgress()).isTrue();
+        assertThat(savedCheckpoints.get(savedCheckpoints.size() - 1).isInProgress()).isFalse();
+    }
+
+    @Test
+    @DisplayName("An unfinished checkpoint resumes after its last user")
+    void run_resumesFromCheckpoint() {
+        when(checkpointRepository.findById(SubscriptionRefreshJobService.JOB_NAME)).thenReturn(Optional.of(
+            JobCheckpoint.builder().jobName(SubscriptionRefreshJobService.JOB_NAME)
+                .lastProcessedId(4L).inProgress(true).build()));
+
+        SubscriptionRefreshStatus status = jobService.run().orElseThrow();
+
+        assertThat(status.isResumed()).isTrue();
+        verify(detectorService).detectSubscriptions(5L);
+        verify(detectorService, times(1)).detectSubscriptions(anyLong());
+    }
+
+    @Test
+    @DisplayName("At startup an unfinished checkpoint resumes in the background")
+    void resumeInterrupted_inProgress_resumes() {
+        when(checkpointRepository.findById(SubscriptionRefreshJobService.JOB_NAME)).thenReturn(Optional.of(
+            JobCheckpoint.builder().jobName(SubscriptionRefreshJobService.JOB_NAME)
+                .lastProcessedId(4L).inProgress(true).build()));
+
+        assertThat(jobService.resumeInterrupted()).isTrue();
+
+        verify(detectorService, timeout(5000)).detectSubscriptions(5L);
+        verify(detectorService, times(1)).detectSubscriptions(anyLong());
+    }
+
+    @Test
+    @DisplayName("At startup nothing runs without an unfinished checkpoint")
+    void resumeInterrupted_finishedOrMissing_noRun() {
+        assertThat(jobService.resumeInterrupted()).isFalse();
+
+        when(checkpointRepository.findById(SubscriptionRefreshJobService.JOB_NAME)).thenReturn(Optional.of(
+            JobCheckpoint.builder().jobName(SubscriptionRefreshJobService.JOB_NAME)
+                .lastProcessedId(5L).inProgress(false).build()));
+        assertThat(jobService.resumeInterrupted()).isFalse();
+
+        verify(checkpointRepository, never()).save(any());
+        verifyNoInteractions(detectorService);
+    }
+
+    @Test
+    @DisplayName("A finished checkpoint starts a fresh run from the first user")
+    void run_completedCheckpoint_startsOver() {
+        when(checkpointRepository.findById(SubscriptionRefreshJobService.JOB_NAME)).thenReturn(Optional.of(
+            JobCheckpoint.builder().jobName(SubscriptionRefreshJobService.JOB_NAME)
+                .lastProcessedId(5L).inProgress(false).build()));
+
+        jobService.run();
+
+        verify(detectorService, times(5)).detectSubscriptions(anyLong());
+    }
+
+    @Test
+    @DisplayName("A failing user is counted and the run carries on")
+    void run_userFailure_counted() {
+        when(detectorService.detectSubscriptions(3L)).thenThrow(new RuntimeException("boom"));
+
+        SubscriptionRefreshStatus status = jobService.run().orElseThrow();
+
+        assertThat(status.getUsersProcessed()).isEqualTo(4);
+        assertThat(status.getUsersFailed()).isEqualTo(1);
+        verify(detectorService).detectSubscriptions(5L);
+        assertThat(meterRegistry.get("subscription.refresh.users").tag("outcome", "success").counter().count())
+            .isEqualTo(4.0);
+        assertThat(meterRegistry.get("subscription.refresh.users").tag("outcome", "failure").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("subscription.refresh.run.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A second run while one is in progress is skipped")
+    void run_concurrent_skipped() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(detectorService.detectSubscriptions(1L)).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        Thread first = new Thread(jobService::run);
+        first.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(jobService.run()).isEmpty();
+        assertThat(jobService.getStatus()).get().extracting(SubscriptionRefreshStatus::isRunning).isEqualTo(true);
+
+        release.countDown();
+        first.join(5000);
+        assertThat(jobService.getStatus()).get().extracting(SubscriptionRefreshStatus::isRunning).isEqualTo(false);
+    }
+
+    private void givenUsers(Long... ids) {
+        List<Long> all = List.of(ids);
+        when(userRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long afterId = inv.getArgument(0);
+            Pageable page = inv.getArgument(1);
+            return all.stream().filter(id -> id > afterId).limit(page.getPageSize()).toList();
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package com.finsight.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Timing Wheel Tests")
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+
+    /** 4 slots x 3 levels: a 64-tick horizon, small enough to exercise cascading and overflow. */
+    private TimingWheel<String> wheel() {
+        return new TimingWheel<>(TICK, 4, 3, 0);
+    }
+
+    @Test
+    @DisplayName("Timers expire on the tick of their deadline, across levels")
+    void expiresAtDeadline() {
+        TimingWheel<String> wheel = wheel();
+        wheel.schedule("near", 3 * TICK);
+        wheel.schedule("mid", 13 * TICK);
+        wheel.schedule("far", 50 * TICK);
+
+        assertThat(wheel.advanceTo(2 * TICK)).isEmpty();
+        assertThat(wheel.advanceTo(3 * TICK)).containsExactly("near");
+        assertThat(wheel.advanceTo(12 * TICK)).isEmpty();
+        assertThat(wheel.advanceTo(13 * TICK)).containsExactly("mid");
+        assertThat(wheel.advanceTo(49 * TICK)).isEmpty();
+        assertThat(wheel.advanceTo(50 * TICK)).containsExactly("far");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deadlines beyond the horizon wait and still expire on time")
+    void beyondHorizon() {
+        TimingWheel<String> wheel = wheel();
+        wheel.schedule("later", 200 * TICK);
+
+        assertThat(wheel.advanceTo(199 * TICK)).isEmpty();
+        assertThat(wheel.advanceTo(200 * TICK)).containsExactly("later");
+    }
+
+    @Test
+    @DisplayName("Rescheduling replaces the pending deadline and cancel removes it")
+    void rescheduleAndCancel() {
+        TimingWheel<String> wheel = wheel();
+        wheel.schedule("a", 5 * TICK);
+        wheel.schedule("a", 20 * TICK);
+        wheel.schedule("b", 5 * TICK);
+
+        assertThat(wheel.cancel("b")).isTrue();
+        assertThat(wheel.cancel("b")).isFalse();
+        assertThat(wheel.advanceTo(19 * TICK)).isEmpty();
+        assertThat(wheel.deadlineOf("a")).isEqualTo(20 * TICK);
+        assertThat(wheel.advanceTo(20 * TICK)).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Past deadlines expire on the next tick")
+    void pastDeadline_nextTick() {
+        TimingWheel<String> wheel = wheel();
+        wheel.advanceTo(10 * TICK);
+        wheel.schedule("late", 2 * TICK);
+
+        assertThat(wheel.advanceTo(11 * TICK)).containsExactly("late");
+    }
+
+    @Test
+    @DisplayName("Random deadlines each fire exactly once, on their tick")
+    void randomDeadlines() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 8, 3, 0);
+        Random random = new Random(7);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 2_000; key++) {
+            long tick = 1 + random.nextInt(1_500);
+            deadlines.put(key, tick);
+            wheel.schedule(key, tick * TICK + random.nextInt((int) TICK));
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        List<Integer> all = new ArrayList<>();
+        for (long tick = 1; tick <= 1_500; tick++) {
+            for (Integer key : wheel.advanceTo(tick * TICK)) {
+                firedAt.put(key, tick);
+                all.add(key);
+            }
+        }
+
+        assertThat(all).hasSize(deadlines.size()).doesNotHaveDuplicates();
+        assertThat(firedAt).isEqualTo(deadlines);
+    }
+}
@@ -0,0 +1,137 @@
+package com.finsight.service;
+
+import com.finsight.dto.TransactionRequest;
+import com.finsight.model.Transaction;
+import com.finsight.model.User;
+import com.finsight.repository.FraudAlertRepository;
+import com.finsight.repository.SubscriptionRepository;
+import com.finsight.repository.TransactionRepository;
+import com.finsight.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers one user from many threads and checks every fraud score equals the score the
+ * same transactions get when replayed one at a time in commit order. Requests commit in
+ * their own transactions, so the test runs without one and cleans up afterwards.
+ */
+@DataJpaTest
+@Import({TransactionService.class, FraudDetectionService.class, SubscriptionDetectorService.class,
+        RenewalReminderService.class, LoggingRenewalNotificationSink.class, MerchantResolver.class,
+        UserWriteLocks.class, FraudTraceBuffer.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Transaction scoring under concurrency")
+class TransactionConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 6;
+    private static final String[] CATEGORIES = {"groceries", "crypto_exchange", "travel", "gaming", "jewelry"};
+    private static final String[] LOCATIONS = {"Boston", "Denver", "Lisbon"};
+
+    @Autowired private TransactionService transactionService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private FraudAlertRepository fraudAlertRepository;
+    @Autowired private SubscriptionRepository subscriptionRepository;
+
+    @AfterEach
+    void cleanUp() {
+        fraudAlertRepository.deleteAllInBatch();
+        subscriptionRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent writes for one user score exactly like a sequential replay")
+    void concurrentScores_matchSequentialReplay() throws Exception {
+        User alice = userRepository.save(user("alice"));
+        User bob = userRepository.save(user("bob"));
+        LocalDateTime base = LocalDateTime.now().minusHours(1).withNano(0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < PER_THREAD; i++) {
+                    transactionService.createTransaction(request(alice.getId(), thread * PER_THREAD + i, base));
+                }
+                return null;
+            }));
+        }
+        // Another user writing at the same time must not disturb alice's scores
+        futures.add(pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < PER_THREAD * 2; i++) {
+                transactionService.createTransaction(request(bob.getId(), i, base));
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        List<Transaction> committed = transactionRepository.findAll(Sort.by("id")).stream()
+            .filter(t -> t.getUser().getId().equals(alice.getId()))
+            .toList();
+        assertThat(committed).hasSize(THREADS * PER_THREAD);
+
+        User replay = userRepository.save(user("alice-replay"));
+        List<Double> replayed = new ArrayList<>();
+        for (Transaction t : committed) {
+            replayed.add(transactionService.createTransaction(TransactionRequest.builder()
+                .userId(replay.getId())
+                .amount(t.getAmount())
+                .type(t.getType())
+                .category(t.getCategory())
+                .description(t.getDescription())
+                .location(t.getLocation())
+                .transactionDate(t.getTransactionDate())
+                .build()).getFraudScore());
+        }
+
+        assertThat(committed).extracting(Transaction::getFraudScore).containsExactlyElementsOf(replayed);
+        assertThat(replayed).anyMatch(score -> score > 0);
+    }
+
+    /** Closely spaced, varied requests so rapid-fire, novelty and location rules all depend on history. */
+    private static TransactionRequest request(Long userId, int n, LocalDateTime base) {
+        return TransactionRequest.builder()
+            .userId(userId)
+            .amount(BigDecimal.valueOf(20 + (n % 7) * 45L))
+            .type("EXPENSE")
+            .category(CATEGORIES[n % CATEGORIES.length])
+            .description("Purchase " + n)
+            .location(LOCATIONS[n % LOCATIONS.length])
+            .transactionDate(base.plusSeconds(n * 40L))
+            .build();
+    }
+
+    private static User user(String name) {
+        return User.builder().username(name).email(name + "@example.com").password("x").build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.finsight.service;
 
+import com.finsight.dto.FraudDecisionTrace;
 import com.finsight.dto.FraudDetectionResult;
 import com.finsight.dto.TransactionRequest;
 import com.finsight.dto.TransactionResponse;
@@ -10,23 +11,27 @@ import com.finsight.model.User;
 import com.finsight.repository.FraudAlertRepository;
 import com.finsight.repository.TransactionRepository;
 import com.finsight.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,6 +54,25 @@ class TransactionServiceTest {
     @Mock
     private FraudAlertRepository fraudAlertRepository;
 
+    @Mock
+    private SubscriptionDetectorService subscriptionDetectorService;
+
+    @Mock
+    private MerchantResolver merchantResolver;
+
+    @Spy
+    private UserWriteLocks userWriteLocks = new UserWriteLocks(16);
+
+    /** Runs callbacks inline; the mocked manager makes begin/commit no-ops. */
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private FraudTraceBuffer fraudTraceBuffer = new FraudTraceBuffer(10, 0.0, new SimpleMeterRegistry());
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -96,7 +120,7 @@ class TransactionServiceTest {
             .reasons(List.of())
             .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
         when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(fraudResult);
 
@@ -111,6 +135,102 @@ class TransactionServiceTest {
         
         verify(transactionRepository, times(2)).save(any(Transaction.class));
         verify(fraudDetectionService).analyzeTransaction(any(Transaction.class));
+        verify(subscriptionDetectorService).onExpenseSaved(testTransaction);
+    }
+
+    @Test
+    void createTransaction_ScoresWhileHoldingUsersLock() {
+        // Given
+        TransactionRequest request = new TransactionRequest();
+        request.setUserId(1L);
+        request.setAmount(BigDecimal.valueOf(100));
+        request.setType("EXPENSE");
+        request.setCategory("groceries");
+
+        List<Boolean> lockHeld = new ArrayList<>();
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenAnswer(inv -> {
+            lockHeld.add(userWriteLocks.lockFor(1L).isHeldByCurrentThread());
+            return FraudDetectionResult.builder()
+                .fraudulent(false).fraudScore(0.0).riskLevel(RiskLevel.LOW).reasons(List.of()).build();
+        });
+
+        // When
+        transactionService.createTransaction(request);
+
+        // Then
+        assertThat(lockHeld).containsExactly(true);
+        assertThat(userWriteLocks.lockFor(1L).isLocked()).isFalse();
+        verify(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void createTransaction_RecordsTimerTaggedWithRisk() {
+        // Given
+        TransactionRequest request = new TransactionRequest();
+        request.setUserId(1L);
+        request.setAmount(BigDecimal.valueOf(100));
+        request.setType("EXPENSE");
+        request.setCategory("groceries");
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(FraudDetectionResult.builder()
+            .fraudulent(true).fraudScore(45.0).riskLevel(RiskLevel.MEDIUM).reasons(List.of()).build());
+
+        // When
+        transactionService.createTransaction(request);
+
+        // Then
+        assertThat(meterRegistry.get("transactions.create").tags("outcome", "success", "risk", "medium")
+            .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("transactions.create").tags("outcome", "failure")
+            .timer().count()).isZero();
+    }
+
+    @Test
+    void createTransaction_KeepsTraceOfFlaggedScoring() {
+        // Given
+        TransactionRequest request = new TransactionRequest();
+        request.setUserId(1L);
+        request.setAmount(BigDecimal.valueOf(100));
+        request.setType("EXPENSE");
+        request.setCategory("groceries");
+        FraudDecisionTrace trace = FraudDecisionTrace.builder()
+            .transactionId(1L).userId(1L).riskLevel("MEDIUM").score(45.0)
+            .evaluatedAt(LocalDateTime.now()).build();
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(FraudDetectionResult.builder()
+            .fraudulent(true).fraudScore(45.0).riskLevel(RiskLevel.MEDIUM).reasons(List.of()).trace(trace).build());
+
+        // When
+        transactionService.createTransaction(request);
+
+        // Then
+        verify(fraudTraceBuffer).offer(trace);
+        assertThat(fraudTraceBuffer.recent(1L, true, 10)).containsExactly(trace);
+    }
+
+    @Test
+    void createTransaction_SaveFails_RecordsFailure() {
+        // Given
+        TransactionRequest request = new TransactionRequest();
+        request.setUserId(1L);
+        request.setAmount(BigDecimal.valueOf(100));
+        request.setType("EXPENSE");
+        request.setCategory("groceries");
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(transactionRepository.save(any(Transaction.class))).thenThrow(new IllegalStateException("db down"));
+
+        // When / Then
+        assertThatThrownBy(() -> transactionService.createTransaction(request))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("transactions.create").tags("outcome", "failure", "risk", "none")
+            .timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -129,7 +249,7 @@ class TransactionServiceTest {
             .reasons(List.of("High amount anomaly"))
             .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(fraudResult);
         
         Transaction fraudTransaction = Transaction.builder()
@@ -158,18 +278,28 @@ class TransactionServiceTest {
     }
 
     @Test
-    void createTransaction_UserNotFound_ThrowsException() {
+    void createTransaction_UsesUserReference_WithoutLoadingUser() {
         // Given
         TransactionRequest request = new TransactionRequest();
-        request.setUserId(999L);
+        request.setUserId(1L);
         request.setAmount(BigDecimal.valueOf(100));
-        
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
 
-        // When/Then
-        assertThatThrownBy(() -> transactionService.createTransaction(request))
-            .isInstanceOf(RuntimeException.class)
-            .hasMessageContaining("User not found");
+        FraudDetectionResult fraudResult = FraudDetectionResult.builder()
+            .fraudulent(false)
+            .fraudScore(0.0)
+            .riskLevel(RiskLevel.LOW)
+            .reasons(List.of())
+            .build();
+
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+        when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(fraudResult);
+
+        // When
+        transactionService.createTransaction(request);
+
+        // Then
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -178,7 +308,6 @@ class TransactionServiceTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("transactionDate").descending());
         Page<Transaction> transactionPage = mock(Page.class);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(transactionRepository.findAll(any(Specification.class), eq(pageable)))
             .thenReturn(transactionPage);
         when(transactionPage.map(any())).thenReturn(Page.empty());
@@ -195,16 +324,18 @@ class TransactionServiceTest {
     }
 
     @Test
-    void findWithFilters_UserNotFound_ThrowsException() {
+    void findWithFilters_FiltersByUserId_WithoutTouchingUserRepository() {
         // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(transactionRepository.findAll(any(Specification.class), any(Pageable.class)))
+            .thenReturn(Page.empty());
 
-        // When/Then
-        assertThatThrownBy(() -> transactionService.findWithFilters(
+        // When
+        transactionService.findWithFilters(
             999L, null, null, null, null, null, "transactionDate", "desc", 0, 10
-        ))
-            .isInstanceOf(RuntimeException.class)
-            .hasMessageContaining("User not found");
+        );
+
+        // Then
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -216,7 +347,7 @@ class TransactionServiceTest {
         request.setType("EXPENSE");
         request.setCategory("groceries");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
         when(fraudDetectionService.analyzeTransaction(any(Transaction.class)))
             .thenReturn(FraudDetectionResult.builder()
@@ -253,7 +384,7 @@ class TransactionServiceTest {
             .reasons(List.of("High amount anomaly"))
             .build();
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(fraudDetectionService.analyzeTransaction(any(Transaction.class))).thenReturn(fraudResult);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
 
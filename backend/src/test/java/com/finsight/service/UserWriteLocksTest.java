@@ -0,0 +1,64 @@
+package com.finsight.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("User Write Locks Tests")
+class UserWriteLocksTest {
+
+    @Test
+    @DisplayName("Stripe count is rounded up to a power of two")
+    void stripeCount_powerOfTwo() {
+        assertThat(new UserWriteLocks(100).stripeCount()).isEqualTo(128);
+        assertThat(new UserWriteLocks(256).stripeCount()).isEqualTo(256);
+        assertThat(new UserWriteLocks(1).stripeCount()).isEqualTo(1);
+        assertThatThrownBy(() -> new UserWriteLocks(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("A user always maps to the same lock, and nearby ids spread across stripes")
+    void sameUser_sameLock() {
+        UserWriteLocks locks = new UserWriteLocks(16);
+        assertThat(locks.lockFor(42L)).isSameAs(locks.lockFor(42L));
+        assertThat(locks.lockFor(1L)).isNotSameAs(locks.lockFor(2L));
+    }
+
+    @Test
+    @DisplayName("Another user is not blocked while one user's lock is held")
+    void differentUsers_proceedInParallel() throws Exception {
+        UserWriteLocks locks = new UserWriteLocks(16);
+
+        String result = locks.withLock(1L, () -> CompletableFuture
+            .supplyAsync(() -> locks.withLock(2L, () -> "user 2 done"))
+            .orTimeout(5, TimeUnit.SECONDS)
+            .join());
+
+        assertThat(result).isEqualTo("user 2 done");
+    }
+
+    @Test
+    @DisplayName("The same user waits until the holder releases")
+    void sameUser_waits() throws Exception {
+        UserWriteLocks locks = new UserWriteLocks(16);
+
+        Boolean acquiredWhileHeld = locks.withLock(1L, () -> CompletableFuture
+            .supplyAsync(() -> {
+                try {
+                    return locks.lockFor(1L).tryLock(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            })
+            .join());
+
+        assertThat(acquiredWhileHeld).isFalse();
+        assertThat(locks.lockFor(1L).isLocked()).isFalse();
+    }
+}
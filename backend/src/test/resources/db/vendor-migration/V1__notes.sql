@@ -0,0 +1 @@
+CREATE TABLE notes (id BIGINT PRIMARY KEY, vendor VARCHAR(20));
@@ -0,0 +1 @@
+INSERT INTO notes (id, vendor) VALUES (1, 'h2');
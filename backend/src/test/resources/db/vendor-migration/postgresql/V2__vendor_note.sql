@@ -0,0 +1,3 @@
+-- setval does not exist in H2, so this script fails if it is ever run there
+SELECT setval('notes_seq', 1);
+INSERT INTO notes (id, vendor) VALUES (1, 'postgresql');
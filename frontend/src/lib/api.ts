@@ -49,6 +49,10 @@ export const createTransaction = (data: {
   userId: number;
 }) => api.post('/transactions', data);
 
+// Background demo-data seeding started by signup (PENDING | RUNNING | DONE | FAILED)
+export const getSeedStatus = () =>
+  api.get('/transactions/seed-status');
+
 // Dashboard
 export const getDashboardSummary = (userId: number, startDate?: string, endDate?: string) =>
   api.get('/summary', { params: { userId, startDate, endDate } });